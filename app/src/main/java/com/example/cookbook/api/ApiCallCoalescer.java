@@ -0,0 +1,215 @@
+package com.example.cookbook.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Invocation;
+import retrofit2.Response;
+
+// Single-flight layer in front of RecipeApiService.
+// Identical requests (same method + URL) that overlap in time share one network call,
+// and every caller's callback receives the same result.
+// The shared call is admitted by PriorityDispatcher (priority classes + rate limits) and then runs through
+// ResilientCallExecutor (retry, breaker, hedging).
+// Each caller gets a Cancellable; the shared call is only abandoned once every caller has cancelled.
+public class ApiCallCoalescer {
+
+    // On a RecipeApiService method whose identical calls return different answers (random.php):
+    // every call gets its own request instead of sharing one
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface NotCoalesced {
+    }
+
+    private static ApiCallCoalescer instance;
+
+    // Request key -> the call currently queued or in flight for it
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    private final AtomicLong distinctCalls = new AtomicLong();
+
+    private ApiCallCoalescer() {
+    }
+
+    public static synchronized ApiCallCoalescer getInstance() {
+        if (instance == null) {
+            instance = new ApiCallCoalescer();
+        }
+        return instance;
+    }
+
+    public <T> Cancellable enqueue(Call<T> call, Callback<T> callback) {
+        return enqueue(call, ApiPriority.INTERACTIVE, callback);
+    }
+
+    public <T> Cancellable enqueue(Call<T> call, ApiPriority priority, Callback<T> callback) {
+        String key = keyFor(call);
+        InFlight entry;
+        boolean joinedExisting = false;
+        PriorityDispatcher.Ticket joined = null;
+
+        synchronized (inFlight) {
+            entry = inFlight.get(key);
+            if (entry != null) {
+                // Same request already queued or running - wait for its result
+                entry.waiters.add(callback);
+                joined = entry.ticket;
+                joinedExisting = true;
+                if (joined == null && (entry.promoteTo == null || priority.ordinal() < entry.promoteTo.ordinal())) {
+                    // Not submitted yet: the caller that creates the ticket promotes it
+                    entry.promoteTo = priority;
+                }
+            } else {
+                entry = new InFlight();
+                entry.waiters.add(callback);
+                inFlight.put(key, entry);
+            }
+        }
+
+        Cancellable handle = waiterHandle(key, entry, callback);
+        if (joinedExisting) {
+            // Bump the shared call up if this caller is more urgent
+            if (joined != null) PriorityDispatcher.getInstance().promote(joined, priority);
+            return handle;
+        }
+
+        String endpoint = ApiEventListener.endpointName(call.request());
+        final InFlight shared = entry;
+        PriorityDispatcher.Ticket ticket = PriorityDispatcher.getInstance().submit(priority, endpoint, new PriorityDispatcher.Task() {
+            @Override
+            public void start(Runnable dispatcherDone) {
+                // Completion and cancellation can race; the dispatcher slot must be released once
+                AtomicBoolean released = new AtomicBoolean(false);
+                Runnable onDone = () -> {
+                    if (released.compareAndSet(false, true)) dispatcherDone.run();
+                };
+                synchronized (inFlight) {
+                    if (shared.abandoned) {
+                        // Every caller cancelled between admission and start
+                        onDone.run();
+                        return;
+                    }
+                }
+                Cancellable execution = ResilientCallExecutor.getInstance().enqueue(call, new Callback<T>() {
+                    @Override
+                    public void onResponse(Call<T> sharedCall, Response<T> response) {
+                        onDone.run();
+                        for (Callback<T> waiter : ApiCallCoalescer.this.<T>drain(key, shared)) {
+                            waiter.onResponse(sharedCall, response);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<T> sharedCall, Throwable t) {
+                        onDone.run();
+                        for (Callback<T> waiter : ApiCallCoalescer.this.<T>drain(key, shared)) {
+                            waiter.onFailure(sharedCall, t);
+                        }
+                    }
+                });
+
+                boolean abandonedWhileStarting;
+                synchronized (inFlight) {
+                    shared.execution = execution;
+                    shared.onDone = onDone;
+                    abandonedWhileStarting = shared.abandoned;
+                }
+                if (abandonedWhileStarting) {
+                    execution.cancel();
+                    onDone.run();
+                }
+            }
+
+            @Override
+            public void reject(Throwable reason) {
+                // Dropped by the rate limiter before it ever started
+                for (Callback<T> waiter : ApiCallCoalescer.this.<T>drain(key, shared)) {
+                    waiter.onFailure(call, reason);
+                }
+            }
+        });
+
+        // Callers that joined or cancelled while submit() ran saw no ticket; act for them now
+        ApiPriority promoteTo;
+        boolean abandonedWhileSubmitting;
+        synchronized (inFlight) {
+            entry.ticket = ticket;
+            promoteTo = entry.promoteTo;
+            abandonedWhileSubmitting = entry.abandoned;
+        }
+        if (abandonedWhileSubmitting) {
+            PriorityDispatcher.getInstance().cancel(ticket);
+        } else if (promoteTo != null) {
+            PriorityDispatcher.getInstance().promote(ticket, promoteTo);
+        }
+        return handle;
+    }
+
+    // Removes one caller; when it was the last one the shared call is dropped from the queue or cancelled
+    private Cancellable waiterHandle(String key, InFlight entry, Callback<?> callback) {
+        return () -> {
+            PriorityDispatcher.Ticket ticket = null;
+            Cancellable execution = null;
+            Runnable onDone = null;
+            synchronized (inFlight) {
+                if (entry.abandoned || !entry.waiters.remove(callback) || !entry.waiters.isEmpty()) return;
+                entry.abandoned = true;
+                if (inFlight.get(key) == entry) inFlight.remove(key);
+                ticket = entry.ticket;
+                execution = entry.execution;
+                onDone = entry.onDone;
+            }
+            if (execution != null) {
+                // Already on the wire: stop it and hand the dispatcher slot back
+                execution.cancel();
+                onDone.run();
+            } else if (ticket != null) {
+                PriorityDispatcher.getInstance().cancel(ticket);
+            }
+        };
+    }
+
+    // Removes and returns everyone waiting on the given request (empty if it was abandoned)
+    @SuppressWarnings("unchecked")
+    private <T> List<Callback<T>> drain(String key, InFlight entry) {
+        List<Callback<T>> result = new ArrayList<>();
+        synchronized (inFlight) {
+            if (inFlight.get(key) == entry) inFlight.remove(key);
+            if (entry.abandoned) return result;
+            entry.abandoned = true; // later cancel() calls become no-ops
+            for (Callback<?> waiter : entry.waiters) {
+                result.add((Callback<T>) waiter);
+            }
+        }
+        return result;
+    }
+
+    String keyFor(Call<?> call) {
+        String key = call.request().method() + " " + call.request().url();
+        Invocation invocation = call.request().tag(Invocation.class);
+        if (invocation != null && invocation.method().isAnnotationPresent(NotCoalesced.class)) {
+            return key + " #" + distinctCalls.incrementAndGet();
+        }
+        return key;
+    }
+
+    private static class InFlight {
+        final List<Callback<?>> waiters = new ArrayList<>();
+        // Set once submitted; joiners that come earlier leave their priority in promoteTo
+        PriorityDispatcher.Ticket ticket;
+        ApiPriority promoteTo;
+        // Set once the dispatcher starts the call
+        Cancellable execution;
+        Runnable onDone;
+        boolean abandoned;
+    }
+}
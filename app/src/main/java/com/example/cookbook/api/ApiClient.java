@@ -1,34 +1,63 @@
 package com.example.cookbook.api;
 
+import android.content.Context;
+
+import com.example.cookbook.BuildConfig;
+import com.example.cookbook.CookBookApplication;
+import com.example.cookbook.util.AppExecutors;
+import com.google.gson.Gson;
+
+import java.io.File;
+
+import okhttp3.Cache;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class ApiClient {
-    private static final String BASE_URL = "https://www.themealdb.com/api/json/v1/1/";
+    // TheMealDB, or the shared recipe gateway when MEALDB_BASE_URL is set in local.properties
+    private static final String BASE_URL = withTrailingSlash(BuildConfig.MEALDB_BASE_URL);
+    private static final long HTTP_CACHE_SIZE = 10L * 1024 * 1024; // 10 MB
     private static Retrofit retrofit = null;
 
 
     public static Retrofit getClient() {
         if (retrofit == null) {
-            HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor();
-            interceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+            // Per-endpoint timing and byte counters instead of full body logging
+            ApiMetrics.getInstance().setLoggingEnabled(BuildConfig.DEBUG);
 
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(interceptor)
-                    .build();
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .eventListenerFactory(ApiEventListener.FACTORY)
+                    .addInterceptor(new CachePolicyInterceptor.OfflineFallback())
+                    .addNetworkInterceptor(new CachePolicyInterceptor());
+
+            // Disk cache for TheMealDB responses (needs the app context for the cache dir)
+            Context context = CookBookApplication.getInstance();
+            if (context != null) {
+                builder.cache(new Cache(new File(context.getCacheDir(), "http_cache"), HTTP_CACHE_SIZE));
+            }
+
+            // Meal responses are streamed; everything else goes through plain Gson
+            Gson gson = new Gson();
 
             retrofit = new Retrofit.Builder()
                     .baseUrl(BASE_URL)
-                    .client(client)
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .client(builder.build())
+                    // Callbacks run on the CPU pool, so response conversion stays off the UI thread
+                    .callbackExecutor(AppExecutors.getInstance().cpu())
+                    .addConverterFactory(StreamingRecipeConverterFactory.create(gson))
+                    .addConverterFactory(GsonConverterFactory.create(gson))
                     .build();
         }
         return retrofit;
     }
 
+    // Retrofit only resolves relative endpoint paths against a base URL ending in '/'
+    private static String withTrailingSlash(String url) {
+        return url.endsWith("/") ? url : url + "/";
+    }
+
     public static RecipeApiService getRecipeService() {
         return getClient().create(RecipeApiService.class);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.example.cookbook.api;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+// Cheap replacement for BODY logging: measures each phase of a call and hands the
+// numbers to ApiMetrics under the name of the RecipeApiService method that made it
+public class ApiEventListener extends EventListener {
+
+    public static final EventListener.Factory FACTORY = call -> new ApiEventListener(endpointName(call.request()));
+
+    private final String endpoint;
+    private final ApiMetrics.CallTiming timing = new ApiMetrics.CallTiming();
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long tlsStart;
+    private long requestStart;
+    private long bodyStart;
+
+    private ApiEventListener(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    // Retrofit tags every request with the interface method that created it
+    static String endpointName(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return invocation.method().getName();
+        }
+        List<String> segments = request.url().pathSegments();
+        return segments.isEmpty() ? request.url().host() : segments.get(segments.size() - 1);
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        timing.dnsMs = elapsedMs(dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        timing.tlsMs = elapsedMs(tlsStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        timing.connectMs = elapsedMs(connectStart);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              Protocol protocol, IOException ioe) {
+        timing.connectMs = elapsedMs(connectStart);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        timing.requestBytes += request.headers().byteCount();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        timing.requestBytes += byteCount;
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        // Time to first byte: request written -> first response byte
+        timing.ttfbMs = elapsedMs(requestStart);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        timing.responseBytes += response.headers().byteCount();
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        timing.bodyReadMs = elapsedMs(bodyStart);
+        timing.responseBytes += byteCount;
+    }
+
+    @Override
+    public void cacheHit(Call call, Response response) {
+        timing.cacheHit = true;
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        timing.totalMs = elapsedMs(callStart);
+        ApiMetrics.getInstance().record(endpoint, timing);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        timing.totalMs = elapsedMs(callStart);
+        timing.failed = true;
+        ApiMetrics.getInstance().record(endpoint, timing);
+    }
+}
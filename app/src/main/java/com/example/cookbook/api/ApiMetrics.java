@@ -0,0 +1,165 @@
+package com.example.cookbook.api;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// In-memory network counters per RecipeApiService method.
+// Filled by ApiEventListener; read with snapshot() or dump() when investigating slow calls.
+public class ApiMetrics {
+
+    private static final String TAG = "ApiMetrics";
+
+    // Log one call out of every LOG_SAMPLE_RATE (0 disables sampled logging)
+    private static final int LOG_SAMPLE_RATE = 20;
+
+    private static ApiMetrics instance;
+
+    private final Map<String, EndpointStats> stats = new HashMap<>();
+    private long callCounter = 0;
+    private boolean loggingEnabled = false;
+
+    private ApiMetrics() {
+    }
+
+    public static synchronized ApiMetrics getInstance() {
+        if (instance == null) {
+            instance = new ApiMetrics();
+        }
+        return instance;
+    }
+
+    public synchronized void setLoggingEnabled(boolean enabled) {
+        this.loggingEnabled = enabled;
+    }
+
+    // Called once per finished (or failed) call
+    void record(String endpoint, CallTiming timing) {
+        boolean shouldLog;
+        synchronized (this) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (endpointStats == null) {
+                endpointStats = new EndpointStats(endpoint);
+                stats.put(endpoint, endpointStats);
+            }
+            endpointStats.add(timing);
+
+            callCounter++;
+            shouldLog = loggingEnabled && LOG_SAMPLE_RATE > 0 && callCounter % LOG_SAMPLE_RATE == 0;
+        }
+
+        if (shouldLog) {
+            Log.d(TAG, endpoint + " " + timing);
+        }
+    }
+
+    public synchronized Map<String, EndpointStats> snapshot() {
+        Map<String, EndpointStats> copy = new HashMap<>();
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    public synchronized void reset() {
+        stats.clear();
+        callCounter = 0;
+    }
+
+    public void dump() {
+        for (EndpointStats endpointStats : snapshot().values()) {
+            Log.i(TAG, endpointStats.toString());
+        }
+    }
+
+    // Durations (ms) and sizes (bytes) of a single call; -1 means the phase did not happen
+    static class CallTiming {
+        long dnsMs = -1;
+        long connectMs = -1;
+        long tlsMs = -1;
+        long ttfbMs = -1;
+        long bodyReadMs = -1;
+        long totalMs = -1;
+        long requestBytes = 0;
+        long responseBytes = 0;
+        boolean cacheHit = false;
+        boolean failed = false;
+
+        @Override
+        public String toString() {
+            return "total=" + totalMs + "ms dns=" + dnsMs + " connect=" + connectMs + " tls=" + tlsMs
+                    + " ttfb=" + ttfbMs + " body=" + bodyReadMs
+                    + " req=" + requestBytes + "B resp=" + responseBytes + "B"
+                    + (cacheHit ? " (cache)" : "") + (failed ? " FAILED" : "");
+        }
+    }
+
+    public static class EndpointStats {
+        private final String endpoint;
+        private long calls;
+        private long failures;
+        private long cacheHits;
+        private long dnsMs, connectMs, tlsMs, ttfbMs, bodyReadMs, totalMs;
+        private long requestBytes, responseBytes;
+
+        EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void add(CallTiming timing) {
+            calls++;
+            if (timing.failed) failures++;
+            if (timing.cacheHit) cacheHits++;
+            dnsMs += Math.max(0, timing.dnsMs);
+            connectMs += Math.max(0, timing.connectMs);
+            tlsMs += Math.max(0, timing.tlsMs);
+            ttfbMs += Math.max(0, timing.ttfbMs);
+            bodyReadMs += Math.max(0, timing.bodyReadMs);
+            totalMs += Math.max(0, timing.totalMs);
+            requestBytes += timing.requestBytes;
+            responseBytes += timing.responseBytes;
+        }
+
+        EndpointStats copy() {
+            EndpointStats copy = new EndpointStats(endpoint);
+            copy.calls = calls;
+            copy.failures = failures;
+            copy.cacheHits = cacheHits;
+            copy.dnsMs = dnsMs;
+            copy.connectMs = connectMs;
+            copy.tlsMs = tlsMs;
+            copy.ttfbMs = ttfbMs;
+            copy.bodyReadMs = bodyReadMs;
+            copy.totalMs = totalMs;
+            copy.requestBytes = requestBytes;
+            copy.responseBytes = responseBytes;
+            return copy;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        public long getCalls() { return calls; }
+        public long getFailures() { return failures; }
+        public long getCacheHits() { return cacheHits; }
+        public long getTotalDnsMs() { return dnsMs; }
+        public long getTotalConnectMs() { return connectMs; }
+        public long getTotalTlsMs() { return tlsMs; }
+        public long getTotalTtfbMs() { return ttfbMs; }
+        public long getTotalBodyReadMs() { return bodyReadMs; }
+        public long getTotalMs() { return totalMs; }
+        public long getRequestBytes() { return requestBytes; }
+        public long getResponseBytes() { return responseBytes; }
+
+        public long getAverageMs() {
+            return calls == 0 ? 0 : totalMs / calls;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + ": calls=" + calls + " failures=" + failures + " cacheHits=" + cacheHits
+                    + " avg=" + getAverageMs() + "ms dns=" + dnsMs + " connect=" + connectMs
+                    + " tls=" + tlsMs + " ttfb=" + ttfbMs + " body=" + bodyReadMs
+                    + " req=" + requestBytes + "B resp=" + responseBytes + "B";
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.cookbook.api;
+
+// Importance of a RecipeApiService call, highest first
+public enum ApiPriority {
+    // The user is waiting on it (search, tapped a recipe, opened a dialog)
+    INTERACTIVE,
+    // Prefetch for content that is on screen or about to be
+    VISIBLE_PREFETCH,
+    // Warm-up, sync and other work nobody is looking at yet
+    BACKGROUND
+}
@@ -0,0 +1,96 @@
+package com.example.cookbook.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+// Network interceptor: TheMealDB sends no useful Cache-Control headers,
+// so we stamp our own freshness policy per endpoint before the response hits the cache
+public class CachePolicyInterceptor implements Interceptor {
+
+    // How long each endpoint's data stays fresh
+    private static final long LIST_MAX_AGE = TimeUnit.DAYS.toSeconds(7);     // categories.php, list.php
+    private static final long FILTER_MAX_AGE = TimeUnit.DAYS.toSeconds(1);   // filter.php
+    private static final long LOOKUP_MAX_AGE = TimeUnit.HOURS.toSeconds(12); // lookup.php
+    private static final long SEARCH_MAX_AGE = TimeUnit.MINUTES.toSeconds(10); // search.php
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!response.isSuccessful() || !"GET".equals(request.method())) {
+            return response;
+        }
+
+        long maxAge = maxAgeFor(request);
+        String cacheControl = maxAge > 0 ? "public, max-age=" + maxAge : "no-store";
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", cacheControl)
+                .build();
+    }
+
+    // Returns the freshness lifetime in seconds, or 0 if the response must not be cached
+    static long maxAgeFor(Request request) {
+        List<String> segments = request.url().pathSegments();
+        String endpoint = segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+
+        switch (endpoint) {
+            case "categories.php":
+            case "list.php":
+                return LIST_MAX_AGE;
+            case "filter.php":
+                return FILTER_MAX_AGE;
+            case "lookup.php":
+                return LOOKUP_MAX_AGE;
+            case "search.php":
+                return SEARCH_MAX_AGE;
+            case "random.php":
+            default:
+                // Random picks must never be replayed from cache
+                return 0;
+        }
+    }
+
+    // Application interceptor: if the network is unreachable, fall back to whatever
+    // the cache still holds (even if stale) instead of failing the request
+    public static class OfflineFallback implements Interceptor {
+
+        private static final int MAX_STALE_DAYS = 30;
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            try {
+                return chain.proceed(request);
+            } catch (IOException networkError) {
+                if (!"GET".equals(request.method()) || maxAgeFor(request) == 0) {
+                    throw networkError;
+                }
+
+                Request offlineRequest = request.newBuilder()
+                        .cacheControl(new CacheControl.Builder()
+                                .onlyIfCached()
+                                .maxStale(MAX_STALE_DAYS, TimeUnit.DAYS)
+                                .build())
+                        .build();
+
+                Response cached = chain.proceed(offlineRequest);
+                if (cached.code() == 504) {
+                    // 504 "Unsatisfiable Request" means nothing was cached for this URL
+                    cached.close();
+                    throw networkError;
+                }
+                return cached;
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.cookbook.api;
+
+// Handle for an API request that the caller may abandon.
+// After cancel() the caller's listener is not invoked again by the API layer.
+public interface Cancellable {
+    void cancel();
+}
@@ -0,0 +1,92 @@
+package com.example.cookbook.api;
+
+import android.os.SystemClock;
+
+import java.util.function.LongSupplier;
+
+// Classic three-state breaker for TheMealDB.
+// CLOSED: calls flow. OPEN: calls fail fast until the cool-down passes.
+// HALF_OPEN: a single trial call decides whether to close again or re-open.
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // What tryAcquire() granted; TRIAL is the one half-open call and must report back or be released
+    public enum Permit {
+        DENIED,
+        ALLOWED,
+        TRIAL
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    public CircuitBreaker(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, SystemClock::elapsedRealtime);
+    }
+
+    // clock: milliseconds, monotonic
+    CircuitBreaker(int failureThreshold, long openDurationMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    public boolean allowRequest() {
+        return tryAcquire() != Permit.DENIED;
+    }
+
+    public synchronized Permit tryAcquire() {
+        switch (state) {
+            case OPEN:
+                if (clock.getAsLong() - openedAt < openDurationMs) {
+                    return Permit.DENIED;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return Permit.TRIAL;
+            case HALF_OPEN:
+                // Only the trial call may pass until it reports back
+                if (trialInFlight) return Permit.DENIED;
+                trialInFlight = true;
+                return Permit.TRIAL;
+            case CLOSED:
+            default:
+                return Permit.ALLOWED;
+        }
+    }
+
+    // The trial call was abandoned without a result: let the next call be the trial, state unchanged
+    public synchronized void releaseTrial() {
+        if (state == State.HALF_OPEN) trialInFlight = false;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
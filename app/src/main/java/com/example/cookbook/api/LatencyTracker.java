@@ -0,0 +1,41 @@
+package com.example.cookbook.api;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Keeps the most recent call latencies per endpoint to derive percentiles (used for hedging)
+public class LatencyTracker {
+
+    private static final int WINDOW = 64;
+    private static final int MIN_SAMPLES = 16;
+
+    private final Map<String, long[]> samples = new HashMap<>();
+    private final Map<String, Integer> counts = new HashMap<>();
+
+    public synchronized void record(String endpoint, long latencyMs) {
+        long[] window = samples.get(endpoint);
+        if (window == null) {
+            window = new long[WINDOW];
+            samples.put(endpoint, window);
+        }
+        int count = counts.containsKey(endpoint) ? counts.get(endpoint) : 0;
+        window[count % WINDOW] = latencyMs;
+        counts.put(endpoint, count + 1);
+    }
+
+    // Returns the given percentile (0-100) in ms, or -1 while there are too few samples
+    public synchronized long percentile(String endpoint, int percentile) {
+        long[] window = samples.get(endpoint);
+        int count = counts.containsKey(endpoint) ? counts.get(endpoint) : 0;
+        if (window == null || count < MIN_SAMPLES) {
+            return -1;
+        }
+
+        int size = Math.min(count, WINDOW);
+        long[] sorted = Arrays.copyOf(window, size);
+        Arrays.sort(sorted);
+        int index = Math.min(size - 1, (int) Math.ceil(percentile / 100.0 * size) - 1);
+        return sorted[Math.max(0, index)];
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.cookbook.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Hints for StreamingRecipeConverterFactory, placed on RecipeApiService methods
+public final class MealDecoding {
+
+    private MealDecoding() {
+    }
+
+    // Only keep idMeal, strMeal and strMealThumb; every other field is skipped unread
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface SummaryOnly {
+    }
+}
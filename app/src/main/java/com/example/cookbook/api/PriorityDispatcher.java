@@ -0,0 +1,250 @@
+package com.example.cookbook.api;
+
+import com.example.cookbook.util.AppExecutors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Admission control for TheMealDB calls.
+// INTERACTIVE calls start as soon as the rate limiter allows. VISIBLE_PREFETCH is capped and
+// drops to a single slot while interactive calls are running. BACKGROUND is paused while
+// anything with a higher priority is running or queued.
+// Calls that are out of tokens wait in their queue; when a low-priority queue overflows,
+// its oldest entries are dropped.
+public class PriorityDispatcher {
+
+    private static final int MAX_PREFETCH = 2;
+    private static final int MAX_PREFETCH_WHILE_INTERACTIVE = 1;
+    private static final int MAX_BACKGROUND = 1;
+
+    // Queue caps per class; INTERACTIVE is never dropped
+    private static final int MAX_QUEUED_PREFETCH = 12;
+    private static final int MAX_QUEUED_BACKGROUND = 40;
+
+    private static final long MIN_RETRY_DELAY_MS = 50;
+
+    private static PriorityDispatcher instance;
+
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final ArrayDeque<Ticket> interactiveQueue = new ArrayDeque<>();
+    private final ArrayDeque<Ticket> prefetchQueue = new ArrayDeque<>();
+    private final ArrayDeque<Ticket> backgroundQueue = new ArrayDeque<>();
+    private final int[] running = new int[ApiPriority.values().length];
+    private boolean redispatchScheduled = false;
+
+    public interface Task {
+        // Starts the work; must call onDone exactly once when it finishes
+        void start(Runnable onDone);
+
+        // The call was dropped without ever starting
+        void reject(Throwable reason);
+    }
+
+    public static synchronized PriorityDispatcher getInstance() {
+        if (instance == null) {
+            instance = new PriorityDispatcher();
+        }
+        return instance;
+    }
+
+    private PriorityDispatcher() {
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public Ticket submit(ApiPriority priority, String endpoint, Task task) {
+        Ticket ticket = new Ticket(priority, endpoint, task);
+        List<Ticket> droppedTickets;
+        synchronized (this) {
+            queueFor(priority).addLast(ticket);
+            droppedTickets = trimQueue(priority);
+        }
+        rejectAll(droppedTickets);
+        dispatch();
+        return ticket;
+    }
+
+    // Moves a still-queued ticket to a higher class (e.g. the user tapped a prefetching row)
+    public void promote(Ticket ticket, ApiPriority priority) {
+        synchronized (this) {
+            if (ticket.state != Ticket.QUEUED || priority.ordinal() >= ticket.priority.ordinal()) {
+                return;
+            }
+            queueFor(ticket.priority).remove(ticket);
+            ticket.priority = priority;
+            queueFor(priority).addLast(ticket);
+        }
+        dispatch();
+    }
+
+    // Drops a ticket that has not started yet; returns false if it is already running or done
+    public synchronized boolean cancel(Ticket ticket) {
+        if (ticket.state != Ticket.QUEUED) return false;
+        queueFor(ticket.priority).remove(ticket);
+        ticket.state = Ticket.CANCELLED;
+        return true;
+    }
+
+    public synchronized int getRunningCount(ApiPriority priority) {
+        return running[priority.ordinal()];
+    }
+
+    public synchronized int getQueuedCount(ApiPriority priority) {
+        return queueFor(priority).size();
+    }
+
+    private void dispatch() {
+        List<Ticket> toStart = new ArrayList<>();
+        long retryDelay = -1;
+
+        synchronized (this) {
+            Ticket next;
+            while ((next = pollStartable()) != null) {
+                next.state = Ticket.RUNNING;
+                running[next.priority.ordinal()]++;
+                toStart.add(next);
+            }
+
+            // Anything left behind only because of the rate limit? Come back when a token is due.
+            if (!redispatchScheduled) {
+                retryDelay = nextTokenDelay();
+                redispatchScheduled = retryDelay >= 0;
+            }
+        }
+
+        if (retryDelay >= 0) {
+            AppExecutors.getInstance().scheduler().schedule(() -> {
+                synchronized (PriorityDispatcher.this) {
+                    redispatchScheduled = false;
+                }
+                dispatch();
+            }, Math.max(MIN_RETRY_DELAY_MS, retryDelay), TimeUnit.MILLISECONDS);
+        }
+
+        // Start outside the lock; completion may re-enter dispatch()
+        for (Ticket ticket : toStart) {
+            ticket.task.start(() -> finished(ticket));
+        }
+    }
+
+    private Ticket pollStartable() {
+        Ticket ticket = pollWithToken(interactiveQueue);
+        if (ticket != null) return ticket;
+
+        int interactiveRunning = running[ApiPriority.INTERACTIVE.ordinal()];
+        int prefetchRunning = running[ApiPriority.VISIBLE_PREFETCH.ordinal()];
+        int prefetchLimit = interactiveRunning > 0 ? MAX_PREFETCH_WHILE_INTERACTIVE : MAX_PREFETCH;
+        if (prefetchRunning < prefetchLimit) {
+            ticket = pollWithToken(prefetchQueue);
+            if (ticket != null) return ticket;
+        }
+
+        boolean higherBusy = interactiveRunning > 0 || prefetchRunning > 0
+                || !interactiveQueue.isEmpty() || !prefetchQueue.isEmpty();
+        if (!higherBusy && running[ApiPriority.BACKGROUND.ordinal()] < MAX_BACKGROUND) {
+            return pollWithToken(backgroundQueue);
+        }
+        return null;
+    }
+
+    // First ticket in the queue whose endpoint currently has a token
+    private Ticket pollWithToken(ArrayDeque<Ticket> queue) {
+        Iterator<Ticket> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Ticket ticket = iterator.next();
+            if (rateLimiter.tryAcquire(ticket.endpoint, ticket.priority)) {
+                iterator.remove();
+                return ticket;
+            }
+            if (!ticket.throttled) {
+                ticket.throttled = true;
+                rateLimiter.recordThrottled();
+            }
+        }
+        return null;
+    }
+
+    // Shortest wait until some throttled ticket may get a token, or -1 if nothing is throttled
+    private long nextTokenDelay() {
+        long best = -1;
+        for (ArrayDeque<Ticket> queue : Arrays.asList(interactiveQueue, prefetchQueue, backgroundQueue)) {
+            for (Ticket ticket : queue) {
+                if (!ticket.throttled) continue;
+                long wait = rateLimiter.millisUntilAvailable(ticket.endpoint, ticket.priority);
+                if (best < 0 || wait < best) best = wait;
+            }
+        }
+        return best;
+    }
+
+    private List<Ticket> trimQueue(ApiPriority priority) {
+        List<Ticket> dropped = new ArrayList<>();
+        int cap = priority == ApiPriority.VISIBLE_PREFETCH ? MAX_QUEUED_PREFETCH
+                : priority == ApiPriority.BACKGROUND ? MAX_QUEUED_BACKGROUND : Integer.MAX_VALUE;
+        ArrayDeque<Ticket> queue = queueFor(priority);
+        while (queue.size() > cap) {
+            // Oldest first: for prefetch the newest request is the one closest to the viewport
+            Ticket oldest = queue.pollFirst();
+            oldest.state = Ticket.CANCELLED;
+            rateLimiter.recordDropped(priority);
+            dropped.add(oldest);
+        }
+        return dropped;
+    }
+
+    private void rejectAll(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            ticket.task.reject(new RateLimiter.RateLimitedException());
+        }
+    }
+
+    private void finished(Ticket ticket) {
+        synchronized (this) {
+            if (ticket.state != Ticket.RUNNING) return;
+            ticket.state = Ticket.DONE;
+            running[ticket.priority.ordinal()]--;
+        }
+        dispatch();
+    }
+
+    private ArrayDeque<Ticket> queueFor(ApiPriority priority) {
+        switch (priority) {
+            case INTERACTIVE:
+                return interactiveQueue;
+            case VISIBLE_PREFETCH:
+                return prefetchQueue;
+            case BACKGROUND:
+            default:
+                return backgroundQueue;
+        }
+    }
+
+    public static class Ticket {
+        static final int QUEUED = 0;
+        static final int RUNNING = 1;
+        static final int DONE = 2;
+        static final int CANCELLED = 3;
+
+        private final Task task;
+        private final String endpoint;
+        private ApiPriority priority;
+        private int state = QUEUED;
+        private boolean throttled = false;
+
+        Ticket(ApiPriority priority, String endpoint, Task task) {
+            this.priority = priority;
+            this.endpoint = endpoint;
+            this.task = task;
+        }
+
+        public ApiPriority getPriority() {
+            return priority;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.cookbook.api;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Token buckets for TheMealDB: one global budget plus one per RecipeApiService method.
+// A call may start only when both its endpoint bucket and the global bucket have a token.
+// Background calls must also leave a small reserve in the global bucket for the user.
+public class RateLimiter {
+
+    // Global: bursts of 8, 4 calls/second sustained
+    private static final double GLOBAL_CAPACITY = 8;
+    private static final double GLOBAL_PER_SECOND = 4;
+    // Tokens background work may not touch
+    private static final double BACKGROUND_RESERVE = 2;
+
+    private final LongSupplier clock;
+    private final TokenBucket global;
+    private final Map<String, TokenBucket> endpoints = new HashMap<>();
+
+    private long throttled = 0;
+    private final long[] dropped = new long[ApiPriority.values().length];
+
+    public RateLimiter() {
+        this(System::nanoTime);
+    }
+
+    // clock: nanoseconds, monotonic
+    RateLimiter(LongSupplier clock) {
+        this.clock = clock;
+        long now = clock.getAsLong();
+        global = new TokenBucket(GLOBAL_CAPACITY, GLOBAL_PER_SECOND, now);
+        // Per-endpoint budgets (capacity, refill per second)
+        endpoints.put("searchRecipes", new TokenBucket(3, 1, now));
+        endpoints.put("getRecipeInformation", new TokenBucket(6, 3, now));
+        // Catalog mirror crawl: 26 calls, no hurry
+        endpoints.put("searchRecipesByFirstLetter", new TokenBucket(2, 0.5, now));
+        endpoints.put("getRandomRecipes", new TokenBucket(6, 2, now));
+        endpoints.put("filterByCategory", new TokenBucket(4, 2, now));
+        endpoints.put("filterByArea", new TokenBucket(4, 2, now));
+        endpoints.put("filterByIngredient", new TokenBucket(4, 2, now));
+        // The option lists almost never change; a few per minute is plenty
+        endpoints.put("getCategories", new TokenBucket(2, 0.2, now));
+        endpoints.put("getAreas", new TokenBucket(2, 0.2, now));
+        endpoints.put("getIngredients", new TokenBucket(2, 0.2, now));
+    }
+
+    public synchronized boolean tryAcquire(String endpoint, ApiPriority priority) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = endpoints.get(endpoint);
+
+        double needed = priority == ApiPriority.BACKGROUND ? 1 + BACKGROUND_RESERVE : 1;
+        if (!global.has(needed, now) || (bucket != null && !bucket.has(1, now))) {
+            return false;
+        }
+        global.take(now);
+        if (bucket != null) bucket.take(now);
+        return true;
+    }
+
+    // How long until the given call could get a token (for re-scheduling), in ms
+    public synchronized long millisUntilAvailable(String endpoint, ApiPriority priority) {
+        long now = clock.getAsLong();
+        double needed = priority == ApiPriority.BACKGROUND ? 1 + BACKGROUND_RESERVE : 1;
+        long wait = global.millisUntil(needed, now);
+        TokenBucket bucket = endpoints.get(endpoint);
+        if (bucket != null) wait = Math.max(wait, bucket.millisUntil(1, now));
+        return wait;
+    }
+
+    synchronized void recordThrottled() {
+        throttled++;
+    }
+
+    synchronized void recordDropped(ApiPriority priority) {
+        dropped[priority.ordinal()]++;
+    }
+
+    // Calls that had to wait for a token at least once
+    public synchronized long getThrottledCount() {
+        return throttled;
+    }
+
+    // Calls discarded because their class had too much queued work
+    public synchronized long getDroppedCount(ApiPriority priority) {
+        return dropped[priority.ordinal()];
+    }
+
+    private static class TokenBucket {
+        private final double capacity;
+        private final double perNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, double perSecond, long now) {
+            this.capacity = capacity;
+            this.perNano = perSecond / 1_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * perNano);
+            lastRefill = now;
+        }
+
+        boolean has(double amount, long now) {
+            refill(now);
+            return tokens >= amount;
+        }
+
+        void take(long now) {
+            refill(now);
+            tokens -= 1;
+        }
+
+        long millisUntil(double amount, long now) {
+            refill(now);
+            if (tokens >= amount) return 0;
+            return (long) Math.ceil((amount - tokens) / perNano / 1_000_000.0);
+        }
+    }
+
+    public static class RateLimitedException extends java.io.IOException {
+        public RateLimitedException() {
+            super("Too many requests, skipped");
+        }
+    }
+}
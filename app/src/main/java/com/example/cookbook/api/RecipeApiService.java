@@ -11,32 +11,44 @@ import retrofit2.http.Query;
 import java.util.List;
 
 public interface RecipeApiService {
+    // Full result set: the UI pages through it (OnlineRecipePagingSource)
     @GET("search.php")
     Call<ApiRecipeResponse> searchRecipes(
         @Query("s") String query
     );
 
 
+    // Every meal whose name starts with the letter (full records) - used to mirror the catalog
+    @GET("search.php")
+    Call<ApiRecipeResponse> searchRecipesByFirstLetter(
+        @Query("f") String letter
+    );
+
     @GET("lookup.php")
     Call<ApiRecipeResponse> getRecipeInformation(
         @Query("i") String id
     );
 
+    // One random meal per call; parallel calls must not be merged
     @GET("random.php")
+    @ApiCallCoalescer.NotCoalesced
     Call<ApiRecipeResponse> getRandomRecipes();
 
-    // Filtering endpoints
+    // Filtering endpoints - not truncated: results are paged, and multi-value filters intersect the complete id lists
     @GET("filter.php")
+    @MealDecoding.SummaryOnly
     Call<ApiRecipeResponse> filterByCategory(
         @Query("c") String category
     );
 
     @GET("filter.php")
+    @MealDecoding.SummaryOnly
     Call<ApiRecipeResponse> filterByArea(
         @Query("a") String area
     );
 
     @GET("filter.php")
+    @MealDecoding.SummaryOnly
     Call<ApiRecipeResponse> filterByIngredient(
         @Query("i") String ingredient
     );
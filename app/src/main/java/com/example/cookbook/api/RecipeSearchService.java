@@ -0,0 +1,20 @@
+package com.example.cookbook.api;
+
+import com.example.cookbook.api.model.RecipeSearchResponse;
+
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Query;
+
+// The cross-user recipe search service (search-service module)
+public interface RecipeSearchService {
+    // Every word must match; the last one may be the start of a word, so this suits search-as-you-type.
+    // authorization is "Bearer <Firebase ID token>": the service only answers signed-in users.
+    @GET("search")
+    Call<RecipeSearchResponse> search(
+        @Header("Authorization") String authorization,
+        @Query("q") String query,
+        @Query("limit") int limit
+    );
+}
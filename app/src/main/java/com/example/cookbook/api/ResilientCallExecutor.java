@@ -0,0 +1,268 @@
+package com.example.cookbook.api;
+
+import android.util.Log;
+
+import com.example.cookbook.util.AppExecutors;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Policy layer around RecipeApiService calls:
+//  - jittered exponential retry for GETs (network errors, 5xx and 429)
+//  - a circuit breaker that fails fast while TheMealDB is down
+//  - an optional hedged second request once an attempt runs past the endpoint's p95 latency
+public class ResilientCallExecutor {
+
+    private static final String TAG = "ResilientCallExecutor";
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_BACKOFF_MS = 300;
+    private static final long MAX_BACKOFF_MS = 4000;
+
+    private static final int HEDGE_PERCENTILE = 95;
+    private static final long MIN_HEDGE_DELAY_MS = 150;
+    private static final long MAX_HEDGE_DELAY_MS = 3000;
+
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long BREAKER_OPEN_MS = 30_000;
+
+    private static ResilientCallExecutor instance;
+
+    private final ScheduledExecutorService scheduler;
+    private final CircuitBreaker breaker;
+    private final LatencyTracker latencies = new LatencyTracker();
+    private final Random random = new Random();
+    private volatile boolean hedgingEnabled = true;
+
+    ResilientCallExecutor(ScheduledExecutorService scheduler, CircuitBreaker breaker) {
+        this.scheduler = scheduler;
+        this.breaker = breaker;
+    }
+
+    public static synchronized ResilientCallExecutor getInstance() {
+        if (instance == null) {
+            instance = new ResilientCallExecutor(AppExecutors.getInstance().scheduler(),
+                    new CircuitBreaker(BREAKER_FAILURE_THRESHOLD, BREAKER_OPEN_MS));
+        }
+        return instance;
+    }
+
+    public void setHedgingEnabled(boolean enabled) {
+        this.hedgingEnabled = enabled;
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return breaker.getState();
+    }
+
+    public <T> Cancellable enqueue(Call<T> call, Callback<T> callback) {
+        if (!"GET".equals(call.request().method())) {
+            // Not idempotent - no retries or hedges
+            call.enqueue(callback);
+            return call::cancel;
+        }
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.Permit.DENIED) {
+            callback.onFailure(call, new CircuitOpenException());
+            return () -> { };
+        }
+        Execution<T> execution = new Execution<>(call, callback);
+        execution.holdsTrial = permit == CircuitBreaker.Permit.TRIAL;
+        execution.start();
+        return execution;
+    }
+
+    // Full jitter: random delay in [0, min(cap, base * 2^attempt)]
+    private long backoffDelayMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << attempt);
+        synchronized (random) {
+            return (long) (random.nextDouble() * ceiling);
+        }
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == 429 || code >= 500;
+    }
+
+    // One logical request: up to MAX_ATTEMPTS attempts, each of which may race a hedge
+    private final class Execution<T> implements Cancellable {
+        private final Call<T> firstCall;
+        private final Callback<T> callback;
+        private final String endpoint;
+
+        private int attempt = 0;
+        private boolean finished = false;
+        private final List<Call<T>> racing = new ArrayList<>();
+        private int pendingInAttempt = 0;
+        private ScheduledFuture<?> hedgeTimer;
+        private Response<T> lastResponse;
+        private Throwable lastError;
+        // This execution's next result decides the half-open breaker; cancelling must hand that back
+        private boolean holdsTrial = false;
+
+        Execution(Call<T> call, Callback<T> callback) {
+            this.firstCall = call;
+            this.callback = callback;
+            this.endpoint = ApiEventListener.endpointName(call.request());
+        }
+
+        void start() {
+            startAttempt(firstCall);
+        }
+
+        // Stops retries and hedges and cancels whatever is on the wire; the callback is not invoked
+        @Override
+        public void cancel() {
+            List<Call<T>> toCancel;
+            boolean releaseTrial;
+            synchronized (this) {
+                if (finished) return;
+                finished = true;
+                releaseTrial = holdsTrial;
+                holdsTrial = false;
+                toCancel = new ArrayList<>(racing);
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                    hedgeTimer = null;
+                }
+            }
+            for (Call<T> call : toCancel) call.cancel();
+            // No result will ever be recorded, so the breaker would stay half-open with its trial taken
+            if (releaseTrial) breaker.releaseTrial();
+        }
+
+        private void startAttempt(Call<T> call) {
+            synchronized (this) {
+                if (finished) return;
+                racing.clear();
+                pendingInAttempt = 0;
+            }
+            launch(call);
+
+            long hedgeDelay = hedgingEnabled ? latencies.percentile(endpoint, HEDGE_PERCENTILE) : -1;
+            if (hedgeDelay > 0) {
+                hedgeDelay = Math.max(MIN_HEDGE_DELAY_MS, Math.min(MAX_HEDGE_DELAY_MS, hedgeDelay));
+                synchronized (this) {
+                    hedgeTimer = scheduler.schedule(this::launchHedge, hedgeDelay, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        private void launchHedge() {
+            Call<T> hedge;
+            synchronized (this) {
+                if (finished || racing.isEmpty() || pendingInAttempt == 0) return;
+                hedge = racing.get(0).clone();
+            }
+            Log.d(TAG, "Hedging slow " + endpoint + " request");
+            launch(hedge);
+        }
+
+        private void launch(Call<T> call) {
+            long startNanos = System.nanoTime();
+            synchronized (this) {
+                racing.add(call);
+                pendingInAttempt++;
+            }
+            call.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> c, Response<T> response) {
+                    onResult(c, response, null, startNanos);
+                }
+
+                @Override
+                public void onFailure(Call<T> c, Throwable t) {
+                    onResult(c, null, t, startNanos);
+                }
+            });
+        }
+
+        private void onResult(Call<T> call, Response<T> response, Throwable error, long startNanos) {
+            boolean completed = response != null && !isRetryableStatus(response.code());
+            List<Call<T>> losers = new ArrayList<>();
+            boolean retry = false;
+
+            synchronized (this) {
+                if (finished) return; // lost a hedge race, result already delivered
+                pendingInAttempt--;
+
+                if (completed) {
+                    finished = true;
+                    for (Call<T> other : racing) {
+                        if (other != call) losers.add(other);
+                    }
+                } else {
+                    lastResponse = response;
+                    lastError = error;
+                    if (pendingInAttempt > 0) return; // the other racer may still succeed
+
+                    if (attempt + 1 < MAX_ATTEMPTS && !call.isCanceled()) {
+                        attempt++;
+                        retry = true;
+                    } else {
+                        finished = true;
+                    }
+                }
+                // recordSuccess / recordFailure below settle any trial this execution held
+                holdsTrial = false;
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                    hedgeTimer = null;
+                }
+            }
+
+            if (completed) {
+                for (Call<T> loser : losers) loser.cancel();
+                latencies.record(endpoint, (System.nanoTime() - startNanos) / 1_000_000);
+                breaker.recordSuccess();
+                callback.onResponse(call, response);
+                return;
+            }
+
+            breaker.recordFailure();
+            CircuitBreaker.Permit permit = retry ? breaker.tryAcquire() : CircuitBreaker.Permit.DENIED;
+            if (permit != CircuitBreaker.Permit.DENIED) {
+                synchronized (this) {
+                    holdsTrial = permit == CircuitBreaker.Permit.TRIAL;
+                    if (finished) {
+                        // Cancelled while deciding to retry: hand back what was just taken
+                        if (holdsTrial) breaker.releaseTrial();
+                        holdsTrial = false;
+                        return;
+                    }
+                }
+                long delay = backoffDelayMs(attempt);
+                Log.d(TAG, "Retrying " + endpoint + " (attempt " + (attempt + 1) + ") in " + delay + "ms");
+                scheduler.schedule(() -> startAttempt(call.clone()), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            synchronized (this) {
+                if (finished && retry) return; // cancelled while deciding to retry
+                finished = true;
+            }
+            if (lastResponse != null) {
+                callback.onResponse(call, lastResponse);
+            } else if (retry) {
+                callback.onFailure(call, new CircuitOpenException());
+            } else {
+                callback.onFailure(call, lastError != null ? lastError : new IOException("Request failed"));
+            }
+        }
+    }
+
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException() {
+            super("Recipe service is unavailable, please try again shortly");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.cookbook.api;
+
+import com.example.cookbook.BuildConfig;
+import com.example.cookbook.util.AppExecutors;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+public class SearchServiceClient {
+    // Set SEARCH_SERVICE_URL in local.properties to enable community search; empty leaves it off
+    private static final String BASE_URL = BuildConfig.SEARCH_SERVICE_URL;
+    private static Retrofit retrofit = null;
+
+    public static boolean isConfigured() {
+        return BASE_URL != null && !BASE_URL.isEmpty();
+    }
+
+    public static Retrofit getClient() {
+        if (retrofit == null) {
+            // Answers are always fresh, so no HTTP cache; a slow service must not hold up the search deadline
+            OkHttpClient client = new OkHttpClient.Builder()
+                    .connectTimeout(2, TimeUnit.SECONDS)
+                    .readTimeout(2, TimeUnit.SECONDS)
+                    .build();
+
+            retrofit = new Retrofit.Builder()
+                    .baseUrl(BASE_URL.endsWith("/") ? BASE_URL : BASE_URL + "/")
+                    .client(client)
+                    .callbackExecutor(AppExecutors.getInstance().cpu())
+                    .addConverterFactory(GsonConverterFactory.create())
+                    .build();
+        }
+        return retrofit;
+    }
+
+    public static RecipeSearchService getService() {
+        return getClient().create(RecipeSearchService.class);
+    }
+}
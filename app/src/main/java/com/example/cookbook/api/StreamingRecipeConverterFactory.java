@@ -0,0 +1,92 @@
+package com.example.cookbook.api;
+
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.api.model.ApiRecipeResponse;
+import com.example.cookbook.api.model.ApiRecipeTypeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+// Decodes ApiRecipeResponse with a JsonReader instead of reflecting over the whole payload.
+// Honors @MealDecoding.SummaryOnly on the service method.
+// Any other response type falls through to the next converter (Gson).
+public class StreamingRecipeConverterFactory extends Converter.Factory {
+
+    private final Gson gson;
+
+    private StreamingRecipeConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    public static StreamingRecipeConverterFactory create(Gson gson) {
+        return new StreamingRecipeConverterFactory(gson);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        if (type != ApiRecipeResponse.class) {
+            return null;
+        }
+
+        boolean summaryOnly = false;
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof MealDecoding.SummaryOnly) {
+                summaryOnly = true;
+            }
+        }
+        return new MealsConverter(gson, summaryOnly ? ApiRecipeTypeAdapter.SUMMARY : ApiRecipeTypeAdapter.FULL);
+    }
+
+    static final class MealsConverter implements Converter<ResponseBody, ApiRecipeResponse> {
+        private final Gson gson;
+        private final ApiRecipeTypeAdapter mealAdapter;
+
+        MealsConverter(Gson gson, ApiRecipeTypeAdapter mealAdapter) {
+            this.gson = gson;
+            this.mealAdapter = mealAdapter;
+        }
+
+        @Override
+        public ApiRecipeResponse convert(ResponseBody body) throws IOException {
+            JsonReader reader = gson.newJsonReader(body.charStream());
+            try {
+                List<ApiRecipe> meals = null;
+
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if ("meals".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        meals = readMeals(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                return new ApiRecipeResponse(meals);
+            } finally {
+                body.close();
+            }
+        }
+
+        private List<ApiRecipe> readMeals(JsonReader reader) throws IOException {
+            List<ApiRecipe> meals = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                ApiRecipe meal = mealAdapter.read(reader);
+                if (meal != null) meals.add(meal);
+            }
+            reader.endArray();
+            return meals;
+        }
+    }
+}
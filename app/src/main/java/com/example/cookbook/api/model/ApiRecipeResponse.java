@@ -7,7 +7,14 @@ public class ApiRecipeResponse {
     @SerializedName("meals")
     private List<ApiRecipe> meals;
 
+    public ApiRecipeResponse() {
+    }
+
+    public ApiRecipeResponse(List<ApiRecipe> meals) {
+        this.meals = meals;
+    }
+
     public List<ApiRecipe> getResults() {
         return meals;
     }
-} 
\ No newline at end of file
+} 
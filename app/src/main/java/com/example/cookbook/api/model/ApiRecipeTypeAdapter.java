@@ -0,0 +1,178 @@
+package com.example.cookbook.api.model;
+
+import com.example.cookbook.model.Ingredient;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hand-written Gson adapter for a TheMealDB meal object.
+// Pairs strIngredientN with strMeasureN while reading, so no reflection and no 20-slot arrays.
+public class ApiRecipeTypeAdapter extends TypeAdapter<ApiRecipe> {
+
+    private static final String INGREDIENT_PREFIX = "strIngredient";
+    private static final String MEASURE_PREFIX = "strMeasure";
+    private static final int MAX_SLOTS = 20;
+    private static final String DEFAULT_MEASURE = "1";
+
+    // Reads every field we use
+    public static final ApiRecipeTypeAdapter FULL = new ApiRecipeTypeAdapter(false);
+    // Reads only id, title and thumbnail (filter.php rows); everything else is skipped
+    public static final ApiRecipeTypeAdapter SUMMARY = new ApiRecipeTypeAdapter(true);
+
+    private final boolean summaryOnly;
+
+    // Used by @JsonAdapter
+    public ApiRecipeTypeAdapter() {
+        this(false);
+    }
+
+    private ApiRecipeTypeAdapter(boolean summaryOnly) {
+        this.summaryOnly = summaryOnly;
+    }
+
+    @Override
+    public ApiRecipe read(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        String id = null, title = null, imageUrl = null;
+        String instructions = null, category = null, area = null;
+        // Slot N -> Ingredient, created only for slots that have a name or a measure
+        Ingredient[] slots = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "idMeal":
+                    id = nextNullableString(reader);
+                    continue;
+                case "strMeal":
+                    title = nextNullableString(reader);
+                    continue;
+                case "strMealThumb":
+                    imageUrl = nextNullableString(reader);
+                    continue;
+                default:
+                    break;
+            }
+
+            if (summaryOnly) {
+                reader.skipValue();
+                continue;
+            }
+
+            switch (name) {
+                case "strInstructions":
+                    instructions = nextNullableString(reader);
+                    break;
+                case "strCategory":
+                    category = nextNullableString(reader);
+                    break;
+                case "strArea":
+                    area = nextNullableString(reader);
+                    break;
+                default:
+                    boolean isIngredient = name.startsWith(INGREDIENT_PREFIX);
+                    int slot = isIngredient ? slotIndex(name, INGREDIENT_PREFIX.length())
+                            : name.startsWith(MEASURE_PREFIX) ? slotIndex(name, MEASURE_PREFIX.length()) : -1;
+                    if (slot < 0) {
+                        reader.skipValue();
+                        break;
+                    }
+
+                    String value = trimToNull(nextNullableString(reader));
+                    if (value == null) break;
+
+                    if (slots == null) slots = new Ingredient[MAX_SLOTS];
+                    if (slots[slot] == null) slots[slot] = new Ingredient(null, null, "");
+                    if (isIngredient) {
+                        slots[slot].setName(value);
+                    } else {
+                        slots[slot].setAmount(value);
+                    }
+                    break;
+            }
+        }
+        reader.endObject();
+
+        if (summaryOnly) {
+            return new ApiRecipe(id, title, imageUrl);
+        }
+        return new ApiRecipe(id, title, imageUrl, instructions, category, area, collectIngredients(slots));
+    }
+
+    // Keeps slots that have an ingredient name; a missing measure defaults to "1"
+    private static List<Ingredient> collectIngredients(Ingredient[] slots) {
+        List<Ingredient> ingredients = new ArrayList<>();
+        if (slots == null) return ingredients;
+
+        for (Ingredient ingredient : slots) {
+            if (ingredient == null || ingredient.getName() == null) continue;
+            if (ingredient.getAmount() == null) ingredient.setAmount(DEFAULT_MEASURE);
+            ingredients.add(ingredient);
+        }
+        return ingredients;
+    }
+
+    // Parses the 1-based number after the prefix into a 0-based slot, or -1 if out of range
+    private static int slotIndex(String name, int start) {
+        int length = name.length();
+        if (start >= length || length - start > 2) return -1;
+
+        int number = 0;
+        for (int i = start; i < length; i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            number = number * 10 + (c - '0');
+        }
+        return (number >= 1 && number <= MAX_SLOTS) ? number - 1 : -1;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public static String nextNullableString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    // Writes the TheMealDB shape back out, emitting only the filled slots
+    @Override
+    public void write(JsonWriter writer, ApiRecipe recipe) throws IOException {
+        if (recipe == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("idMeal").value(recipe.getId());
+        writer.name("strMeal").value(recipe.getTitle());
+        writer.name("strMealThumb").value(recipe.getImageUrl());
+        if (!summaryOnly) {
+            writer.name("strInstructions").value(recipe.getInstructions());
+            writer.name("strCategory").value(recipe.getCategory());
+            writer.name("strArea").value(recipe.getArea());
+
+            List<Ingredient> ingredients = recipe.getIngredients();
+            for (int i = 0; i < ingredients.size() && i < MAX_SLOTS; i++) {
+                writer.name(INGREDIENT_PREFIX + (i + 1)).value(ingredients.get(i).getName());
+                writer.name(MEASURE_PREFIX + (i + 1)).value(ingredients.get(i).getAmount());
+            }
+        }
+        writer.endObject();
+    }
+}
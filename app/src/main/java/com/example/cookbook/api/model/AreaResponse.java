@@ -15,6 +15,13 @@ public class AreaResponse {
         @SerializedName("strArea")
         private String name;
 
+        public Area() {
+        }
+
+        public Area(String name) {
+            this.name = name;
+        }
+
         public String getName() { return name; }
     }
 } 
\ No newline at end of file
@@ -24,6 +24,16 @@ public class CategoryResponse {
         @SerializedName("strCategoryDescription")
         private String description;
 
+        public Category() {
+        }
+
+        public Category(String id, String name, String thumbnail, String description) {
+            this.id = id;
+            this.name = name;
+            this.thumbnail = thumbnail;
+            this.description = description;
+        }
+
         // Getters
         public String getId() { return id; }
         public String getName() { return name; }
@@ -24,6 +24,16 @@ public class IngredientResponse {
         @SerializedName("strType")
         private String type;
 
+        public Ingredient() {
+        }
+
+        public Ingredient(String id, String name, String description, String type) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.type = type;
+        }
+
         public String getId() { return id; }
         public String getName() { return name; }
         public String getDescription() { return description; }
@@ -0,0 +1,49 @@
+package com.example.cookbook.api.model;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+public class RecipeSearchResponse {
+    @SerializedName("total")
+    private int total;
+
+    @SerializedName("results")
+    private List<Hit> results;
+
+    public int getTotal() { return total; }
+
+    public List<Hit> getResults() { return results; }
+
+    // Best match first
+    public static class Hit {
+        @SerializedName("id")
+        private String id;
+
+        @SerializedName("title")
+        private String title;
+
+        @SerializedName("category")
+        private String category;
+
+        @SerializedName("imageUrl")
+        private String imageUrl;
+
+        @SerializedName("userId")
+        private String userId;
+
+        @SerializedName("score")
+        private int score;
+
+        public String getId() { return id; }
+
+        public String getTitle() { return title; }
+
+        public String getCategory() { return category; }
+
+        public String getImageUrl() { return imageUrl; }
+
+        public String getUserId() { return userId; }
+
+        public int getScore() { return score; }
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.cookbook.data;
+
+import android.util.Log;
+
+import com.example.cookbook.api.ApiPriority;
+import com.example.cookbook.api.model.AreaResponse;
+import com.example.cookbook.api.model.CategoryResponse;
+import com.example.cookbook.api.model.IngredientResponse;
+import com.example.cookbook.util.AppExecutors;
+import com.example.cookbook.util.FirebaseManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Single source of categories / areas / ingredients for every filter UI.
+// Lists live in memory and in the offline store (Room) with a TTL, are warmed in the background
+// after login, and are handed to the dialogs by reference (no Bundle round trip).
+// All state is touched on the main thread only.
+public class FilterOptionsRepository {
+
+    private static final String TAG = "FilterOptionsRepo";
+    private static final long TTL_MS = TimeUnit.DAYS.toMillis(7);
+
+    private static FilterOptionsRepository instance;
+
+    private final FirebaseManager firebaseManager;
+    private final AppExecutors executors;
+    private final OfflineRecipeStore offlineStore;
+
+    private FilterOptions options;
+    private boolean loading = false;
+    // Priority of the load in progress, and its network part once it has one
+    private ApiPriority loadingPriority;
+    private PartialFetch fetching;
+    private final List<OnFilterOptionsListener> pending = new ArrayList<>();
+
+    public interface OnFilterOptionsListener {
+        // Lists that could not be loaded are empty, never null
+        void onFilterOptionsLoaded(FilterOptions options);
+    }
+
+    private FilterOptionsRepository(FirebaseManager firebaseManager, AppExecutors executors, OfflineRecipeStore offlineStore) {
+        this.firebaseManager = firebaseManager;
+        this.executors = executors;
+        this.offlineStore = offlineStore;
+    }
+
+    public static synchronized FilterOptionsRepository getInstance() {
+        if (instance == null) {
+            instance = new FilterOptionsRepository(FirebaseManager.getInstance(), AppExecutors.getInstance(),
+                    OfflineRecipeStore.getInstance());
+        }
+        return instance;
+    }
+
+    // Called after login: make sure the lists are ready before anyone opens a filter
+    public void warmUp() {
+        load(ApiPriority.BACKGROUND, null);
+    }
+
+    // Returns the lists immediately if they are in memory, otherwise after disk / network
+    public void getFilterOptions(OnFilterOptionsListener listener) {
+        if (options != null && options.isComplete()) {
+            listener.onFilterOptionsLoaded(options);
+            if (options.isExpired()) {
+                refreshFromNetwork(ApiPriority.BACKGROUND);
+            }
+            return;
+        }
+        load(ApiPriority.INTERACTIVE, listener);
+    }
+
+    // Cached lists or null; never triggers a load
+    public FilterOptions peek() {
+        return options;
+    }
+
+    private void load(ApiPriority priority, OnFilterOptionsListener listener) {
+        if (listener != null) pending.add(listener);
+        if (loading) {
+            // A dialog waiting on the background warm-up must not sit behind paused background work
+            if (priority.ordinal() < loadingPriority.ordinal()) {
+                loadingPriority = priority;
+                if (fetching != null) promote(fetching, priority);
+            }
+            return;
+        }
+
+        if (options != null && options.isComplete() && !options.isExpired()) {
+            deliver();
+            return;
+        }
+
+        loading = true;
+        loadingPriority = priority;
+        executors.diskSerial().execute(() -> {
+            FilterOptions fromDisk = offlineStore.loadFilterOptions();
+            executors.main().execute(() -> {
+                if (fromDisk != null && fromDisk.isComplete()) {
+                    options = fromDisk;
+                }
+                if (options != null && options.isComplete() && !options.isExpired()) {
+                    loading = false;
+                    deliver();
+                } else {
+                    fetchFromNetwork(loadingPriority);
+                }
+            });
+        });
+    }
+
+    private void refreshFromNetwork(ApiPriority priority) {
+        if (loading) return;
+        loading = true;
+        loadingPriority = priority;
+        fetchFromNetwork(priority);
+    }
+
+    // Fetches all three lists in parallel; whatever fails keeps its previous (possibly stale) value
+    private void fetchFromNetwork(ApiPriority priority) {
+        FilterOptions previous = options != null ? options : FilterOptions.empty();
+        PartialFetch fetch = new PartialFetch(previous);
+        fetching = fetch;
+
+        Runnable onPartDone = () -> {
+            if (--fetch.remaining > 0) return;
+            options = new FilterOptions(fetch.categories, fetch.areas, fetch.ingredients,
+                    fetch.anyFetched ? System.currentTimeMillis() : previous.fetchedAt);
+            loading = false;
+            fetching = null;
+            if (fetch.anyFetched && options.isComplete()) {
+                offlineStore.saveFilterOptions(options);
+            }
+            deliver();
+        };
+
+        firebaseManager.getCategories(priority, new FirebaseManager.OnCategoriesLoadedListener() {
+            @Override
+            public void onCategoriesLoaded(List<CategoryResponse.Category> data) {
+                if (data != null && !data.isEmpty()) {
+                    fetch.categories = data;
+                    fetch.anyFetched = true;
+                }
+                fetch.categoriesDone = true;
+                onPartDone.run();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Categories failed: " + error);
+                fetch.categoriesDone = true;
+                onPartDone.run();
+            }
+        });
+
+        firebaseManager.getAreas(priority, new FirebaseManager.OnAreasLoadedListener() {
+            @Override
+            public void onAreasLoaded(List<AreaResponse.Area> data) {
+                if (data != null && !data.isEmpty()) {
+                    fetch.areas = data;
+                    fetch.anyFetched = true;
+                }
+                fetch.areasDone = true;
+                onPartDone.run();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Areas failed: " + error);
+                fetch.areasDone = true;
+                onPartDone.run();
+            }
+        });
+
+        firebaseManager.getIngredients(priority, new FirebaseManager.OnIngredientsLoadedListener() {
+            @Override
+            public void onIngredientsLoaded(List<IngredientResponse.Ingredient> data) {
+                if (data != null && !data.isEmpty()) {
+                    fetch.ingredients = data;
+                    fetch.anyFetched = true;
+                }
+                fetch.ingredientsDone = true;
+                onPartDone.run();
+            }
+
+            @Override
+            public void onError(String error) {
+                Log.w(TAG, "Ingredients failed: " + error);
+                fetch.ingredientsDone = true;
+                onPartDone.run();
+            }
+        });
+    }
+
+    // Asks again at the higher priority for the lists still outstanding. ApiCallCoalescer joins each
+    // request to the queued one and promotes it; the original listeners still get the answers.
+    private void promote(PartialFetch fetch, ApiPriority priority) {
+        if (!fetch.categoriesDone) {
+            firebaseManager.getCategories(priority, new FirebaseManager.OnCategoriesLoadedListener() {
+                @Override
+                public void onCategoriesLoaded(List<CategoryResponse.Category> data) {
+                }
+
+                @Override
+                public void onError(String error) {
+                }
+            });
+        }
+        if (!fetch.areasDone) {
+            firebaseManager.getAreas(priority, new FirebaseManager.OnAreasLoadedListener() {
+                @Override
+                public void onAreasLoaded(List<AreaResponse.Area> data) {
+                }
+
+                @Override
+                public void onError(String error) {
+                }
+            });
+        }
+        if (!fetch.ingredientsDone) {
+            firebaseManager.getIngredients(priority, new FirebaseManager.OnIngredientsLoadedListener() {
+                @Override
+                public void onIngredientsLoaded(List<IngredientResponse.Ingredient> data) {
+                }
+
+                @Override
+                public void onError(String error) {
+                }
+            });
+        }
+    }
+
+    private void deliver() {
+        FilterOptions result = options != null ? options : FilterOptions.empty();
+        List<OnFilterOptionsListener> listeners = new ArrayList<>(pending);
+        pending.clear();
+        for (OnFilterOptionsListener listener : listeners) {
+            listener.onFilterOptionsLoaded(result);
+        }
+    }
+
+    // Collects the three parallel list fetches
+    private static class PartialFetch {
+        List<CategoryResponse.Category> categories;
+        List<AreaResponse.Area> areas;
+        List<IngredientResponse.Ingredient> ingredients;
+        boolean anyFetched = false;
+        boolean categoriesDone;
+        boolean areasDone;
+        boolean ingredientsDone;
+        int remaining = 3;
+
+        PartialFetch(FilterOptions previous) {
+            categories = previous.getCategories();
+            areas = previous.getAreas();
+            ingredients = previous.getIngredients();
+        }
+    }
+
+    public static class FilterOptions {
+        private final List<CategoryResponse.Category> categories;
+        private final List<AreaResponse.Area> areas;
+        private final List<IngredientResponse.Ingredient> ingredients;
+        private final long fetchedAt;
+
+        FilterOptions(List<CategoryResponse.Category> categories, List<AreaResponse.Area> areas,
+                      List<IngredientResponse.Ingredient> ingredients, long fetchedAt) {
+            this.categories = categories != null ? Collections.unmodifiableList(categories) : Collections.emptyList();
+            this.areas = areas != null ? Collections.unmodifiableList(areas) : Collections.emptyList();
+            this.ingredients = ingredients != null ? Collections.unmodifiableList(ingredients) : Collections.emptyList();
+            this.fetchedAt = fetchedAt;
+        }
+
+        static FilterOptions empty() {
+            return new FilterOptions(null, null, null, 0);
+        }
+
+        public List<CategoryResponse.Category> getCategories() { return categories != null ? categories : Collections.emptyList(); }
+        public List<AreaResponse.Area> getAreas() { return areas != null ? areas : Collections.emptyList(); }
+        public List<IngredientResponse.Ingredient> getIngredients() { return ingredients != null ? ingredients : Collections.emptyList(); }
+
+        long getFetchedAt() {
+            return fetchedAt;
+        }
+
+        boolean isComplete() {
+            return !getCategories().isEmpty() && !getAreas().isEmpty() && !getIngredients().isEmpty();
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - fetchedAt > TTL_MS;
+        }
+    }
+}
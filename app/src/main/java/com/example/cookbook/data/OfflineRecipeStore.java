@@ -0,0 +1,336 @@
+package com.example.cookbook.data;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import com.example.cookbook.CookBookApplication;
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.api.model.AreaResponse;
+import com.example.cookbook.api.model.CategoryResponse;
+import com.example.cookbook.api.model.IngredientResponse;
+import com.example.cookbook.data.local.FilterOptionEntity;
+import com.example.cookbook.data.local.MealDatabase;
+import com.example.cookbook.data.local.MealEntity;
+import com.example.cookbook.data.local.MealHash;
+import com.example.cookbook.data.local.MealIngredientEntity;
+import com.example.cookbook.data.local.MealWithIngredients;
+import com.example.cookbook.data.local.QueryResultEntity;
+import com.example.cookbook.data.local.RecipeCacheDao;
+import com.example.cookbook.model.Ingredient;
+import com.example.cookbook.model.RecipeFilter;
+import com.example.cookbook.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Everything FirebaseManager receives from TheMealDB, kept in Room so searches and recipe details
+// can be answered offline: meals (with an ingredients child table), the ids each search / filter
+// call returned, and the category / area / ingredient lists.
+// Reads block - call them off the main thread (Room refuses it). Writes are queued on diskSerial.
+public class OfflineRecipeStore {
+
+    private static final String TAG = "OfflineRecipeStore";
+
+    // SQLite caps bound parameters at 999 on older devices
+    private static final int MAX_SQL_ARGS = 500;
+    // Query answers nobody asked for in this long are dropped; the meals themselves stay
+    private static final long QUERY_RETENTION_MS = TimeUnit.DAYS.toMillis(30);
+
+    private static OfflineRecipeStore instance;
+
+    private final RecipeCacheDao dao;
+    private final AppExecutors executors;
+
+    private OfflineRecipeStore(Context context, AppExecutors executors) {
+        this.dao = MealDatabase.getInstance(context).recipeCacheDao();
+        this.executors = executors;
+        executors.diskSerial().execute(this::pruneQueryResults);
+    }
+
+    public static synchronized OfflineRecipeStore getInstance() {
+        if (instance == null) {
+            instance = new OfflineRecipeStore(CookBookApplication.getInstance(), AppExecutors.getInstance());
+        }
+        return instance;
+    }
+
+    // A stored value and when it was fetched
+    public static class Cached<T> {
+        public final T value;
+        public final long fetchedAt;
+
+        Cached(T value, long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public boolean isOlderThan(long ageMs) {
+            return System.currentTimeMillis() - fetchedAt > ageMs;
+        }
+    }
+
+    public static String queryKey(RecipeFilter.FilterType type, String value) {
+        return type.name() + ":" + (value != null ? value.trim().toLowerCase(Locale.ROOT) : "");
+    }
+
+    // --- Reads (background thread) ---
+
+    // The stored answer for a search / filter call, or null if there is none (or a meal went missing)
+    public Cached<List<ApiRecipe>> getQueryResult(String queryKey) {
+        try {
+            QueryResultEntity stored = dao.getQueryResult(queryKey);
+            if (stored == null) return null;
+            List<String> ids = splitIds(stored.mealIds);
+
+            Map<String, MealWithIngredients> byId = new HashMap<>();
+            for (int start = 0; start < ids.size(); start += MAX_SQL_ARGS) {
+                for (MealWithIngredients meal : dao.getMeals(ids.subList(start, Math.min(ids.size(), start + MAX_SQL_ARGS)))) {
+                    byId.put(meal.meal.id, meal);
+                }
+            }
+            List<ApiRecipe> recipes = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                MealWithIngredients meal = byId.get(id);
+                if (meal == null) return null;
+                recipes.add(toApiRecipe(meal));
+            }
+            return new Cached<>(recipes, stored.fetchedAt);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read stored result for " + queryKey, e);
+            return null;
+        }
+    }
+
+    // The full record of a meal, or null if only its summary (or nothing) is stored
+    public Cached<ApiRecipe> getFullRecipe(String id) {
+        try {
+            MealWithIngredients meal = dao.getFullMeal(id);
+            return meal != null ? new Cached<>(toApiRecipe(meal), meal.meal.fetchedAt) : null;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read stored recipe " + id, e);
+            return null;
+        }
+    }
+
+    FilterOptionsRepository.FilterOptions loadFilterOptions() {
+        try {
+            List<FilterOptionEntity> categoryRows = dao.getFilterOptions(FilterOptionEntity.KIND_CATEGORY);
+            List<FilterOptionEntity> areaRows = dao.getFilterOptions(FilterOptionEntity.KIND_AREA);
+            List<FilterOptionEntity> ingredientRows = dao.getFilterOptions(FilterOptionEntity.KIND_INGREDIENT);
+
+            List<CategoryResponse.Category> categories = new ArrayList<>();
+            for (FilterOptionEntity row : categoryRows) {
+                categories.add(new CategoryResponse.Category(row.itemId, row.name, row.thumbnail, row.description));
+            }
+            List<AreaResponse.Area> areas = new ArrayList<>();
+            for (FilterOptionEntity row : areaRows) {
+                areas.add(new AreaResponse.Area(row.name));
+            }
+            List<IngredientResponse.Ingredient> ingredients = new ArrayList<>();
+            for (FilterOptionEntity row : ingredientRows) {
+                ingredients.add(new IngredientResponse.Ingredient(row.itemId, row.name, row.description, row.type));
+            }
+
+            // The oldest list decides when the set is due for a refresh
+            long fetchedAt = Long.MAX_VALUE;
+            for (List<FilterOptionEntity> rows : Arrays.asList(categoryRows, areaRows, ingredientRows)) {
+                if (!rows.isEmpty()) fetchedAt = Math.min(fetchedAt, rows.get(0).fetchedAt);
+            }
+            return new FilterOptionsRepository.FilterOptions(categories, areas, ingredients,
+                    fetchedAt == Long.MAX_VALUE ? 0 : fetchedAt);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read stored filter options", e);
+            return null;
+        }
+    }
+
+    // --- Writes ---
+
+    // Stores a search.php (full records) or filter.php (summaries) answer and the meals in it
+    public void saveQueryResult(String queryKey, List<ApiRecipe> recipes, boolean fullRecords) {
+        long now = System.currentTimeMillis();
+        executors.diskSerial().execute(() -> {
+            try {
+                if (fullRecords) {
+                    writeFullMeals(recipes, now);
+                } else {
+                    List<MealEntity> summaries = new ArrayList<>();
+                    for (ApiRecipe recipe : recipes) {
+                        if (recipe.getId() != null) summaries.add(toEntity(recipe, false, now));
+                    }
+                    dao.insertSummaries(summaries);
+                }
+
+                List<String> ids = new ArrayList<>();
+                for (ApiRecipe recipe : recipes) {
+                    if (recipe.getId() != null) ids.add(recipe.getId());
+                }
+                QueryResultEntity result = new QueryResultEntity();
+                result.queryKey = queryKey;
+                result.mealIds = TextUtils.join(",", ids);
+                result.fetchedAt = now;
+                dao.putQueryResult(result);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Could not store result for " + queryKey, e);
+            }
+        });
+    }
+
+    // Stores lookup.php records
+    public void saveFullRecipes(List<ApiRecipe> recipes) {
+        long now = System.currentTimeMillis();
+        executors.diskSerial().execute(() -> {
+            try {
+                writeFullMeals(recipes, now);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Could not store recipes", e);
+            }
+        });
+    }
+
+    void saveFilterOptions(FilterOptionsRepository.FilterOptions options) {
+        long fetchedAt = options.getFetchedAt();
+        executors.diskSerial().execute(() -> {
+            try {
+                List<FilterOptionEntity> rows = new ArrayList<>();
+                for (CategoryResponse.Category category : options.getCategories()) {
+                    FilterOptionEntity row = optionRow(FilterOptionEntity.KIND_CATEGORY, rows.size(), category.getName(), fetchedAt);
+                    row.itemId = category.getId();
+                    row.thumbnail = category.getThumbnail();
+                    row.description = category.getDescription();
+                    rows.add(row);
+                }
+                dao.replaceFilterOptions(FilterOptionEntity.KIND_CATEGORY, rows);
+
+                rows = new ArrayList<>();
+                for (AreaResponse.Area area : options.getAreas()) {
+                    rows.add(optionRow(FilterOptionEntity.KIND_AREA, rows.size(), area.getName(), fetchedAt));
+                }
+                dao.replaceFilterOptions(FilterOptionEntity.KIND_AREA, rows);
+
+                rows = new ArrayList<>();
+                for (IngredientResponse.Ingredient ingredient : options.getIngredients()) {
+                    FilterOptionEntity row = optionRow(FilterOptionEntity.KIND_INGREDIENT, rows.size(), ingredient.getName(), fetchedAt);
+                    row.itemId = ingredient.getId();
+                    row.description = ingredient.getDescription();
+                    row.type = ingredient.getType();
+                    rows.add(row);
+                }
+                dao.replaceFilterOptions(FilterOptionEntity.KIND_INGREDIENT, rows);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Could not store filter options", e);
+            }
+        });
+    }
+
+    private void pruneQueryResults() {
+        try {
+            int removed = dao.deleteQueryResultsOlderThan(System.currentTimeMillis() - QUERY_RETENTION_MS);
+            if (removed > 0) Log.d(TAG, "Pruned " + removed + " stored query results");
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not prune stored query results", e);
+        }
+    }
+
+    // --- Mapping ---
+
+    // Meals whose content hash matches the stored full record are left alone
+    private void writeFullMeals(List<ApiRecipe> recipes, long now) {
+        Set<String> unchanged = unchangedIds(recipes);
+        List<String> touched = new ArrayList<>(unchanged);
+        for (int start = 0; start < touched.size(); start += MAX_SQL_ARGS) {
+            dao.touchMeals(touched.subList(start, Math.min(touched.size(), start + MAX_SQL_ARGS)), now);
+        }
+        List<MealEntity> meals = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        List<MealIngredientEntity> ingredients = new ArrayList<>();
+        for (ApiRecipe recipe : recipes) {
+            if (recipe.getId() == null || unchanged.contains(recipe.getId())) continue;
+            meals.add(toEntity(recipe, true, now));
+            ids.add(recipe.getId());
+            List<Ingredient> slots = recipe.getIngredients();
+            for (int i = 0; i < slots.size(); i++) {
+                MealIngredientEntity row = new MealIngredientEntity();
+                row.mealId = recipe.getId();
+                row.position = i;
+                row.name = slots.get(i).getName();
+                row.amount = slots.get(i).getAmount();
+                row.unit = slots.get(i).getUnit();
+                ingredients.add(row);
+            }
+        }
+        if (meals.isEmpty()) return;
+        dao.saveFullMeals(meals, ids, ingredients);
+    }
+
+    private Set<String> unchangedIds(List<ApiRecipe> recipes) {
+        Map<String, Long> incoming = new HashMap<>();
+        for (ApiRecipe recipe : recipes) {
+            if (recipe.getId() != null) incoming.put(recipe.getId(), recipe.contentHash());
+        }
+        List<String> ids = new ArrayList<>(incoming.keySet());
+        Set<String> unchanged = new HashSet<>();
+        for (int start = 0; start < ids.size(); start += MAX_SQL_ARGS) {
+            for (MealHash stored : dao.getContentHashes(ids.subList(start, Math.min(ids.size(), start + MAX_SQL_ARGS)))) {
+                Long hash = incoming.get(stored.id);
+                if (hash != null && hash == stored.contentHash) unchanged.add(stored.id);
+            }
+        }
+        return unchanged;
+    }
+
+    private static MealEntity toEntity(ApiRecipe recipe, boolean hasDetails, long now) {
+        MealEntity meal = new MealEntity();
+        meal.id = recipe.getId();
+        meal.title = recipe.getTitle();
+        meal.imageUrl = recipe.getImageUrl();
+        meal.instructions = recipe.getInstructions();
+        meal.category = recipe.getCategory();
+        meal.area = recipe.getArea();
+        meal.hasDetails = hasDetails;
+        meal.contentHash = hasDetails ? recipe.contentHash() : 0;
+        meal.fetchedAt = now;
+        return meal;
+    }
+
+    private static ApiRecipe toApiRecipe(MealWithIngredients stored) {
+        MealEntity meal = stored.meal;
+        if (!meal.hasDetails) {
+            return new ApiRecipe(meal.id, meal.title, meal.imageUrl);
+        }
+        List<MealIngredientEntity> rows = new ArrayList<>(stored.ingredients != null ? stored.ingredients : Collections.emptyList());
+        Collections.sort(rows, (a, b) -> Integer.compare(a.position, b.position));
+        List<Ingredient> ingredients = new ArrayList<>(rows.size());
+        for (MealIngredientEntity row : rows) {
+            ingredients.add(new Ingredient(row.name, row.amount, row.unit));
+        }
+        return new ApiRecipe(meal.id, meal.title, meal.imageUrl, meal.instructions, meal.category, meal.area, ingredients);
+    }
+
+    private static FilterOptionEntity optionRow(String kind, int position, String name, long fetchedAt) {
+        FilterOptionEntity row = new FilterOptionEntity();
+        row.kind = kind;
+        row.position = position;
+        row.name = name;
+        row.fetchedAt = fetchedAt;
+        return row;
+    }
+
+    private static List<String> splitIds(String joined) {
+        List<String> ids = new ArrayList<>();
+        if (joined == null || joined.isEmpty()) return ids;
+        for (String id : joined.split(",")) {
+            if (!id.isEmpty()) ids.add(id);
+        }
+        return ids;
+    }
+}
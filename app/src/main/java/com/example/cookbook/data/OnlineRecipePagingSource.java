@@ -0,0 +1,158 @@
+package com.example.cookbook.data;
+
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.model.RecipeFilter;
+import com.example.cookbook.util.AppExecutors;
+import com.example.cookbook.util.FirebaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Pages through one TheMealDB result set (search.php / filter.php).
+// The whole response is fetched once and kept as raw ApiRecipe objects; only PAGE_SIZE of them
+// are converted to Recipe per page, on the CPU pool. As soon as a page is handed out the next one
+// is converted in the background, so scrolling to the end rarely waits.
+// Must be used from the main thread.
+public class OnlineRecipePagingSource implements Cancellable {
+
+    public static final int PAGE_SIZE = 10;
+
+    private final FirebaseManager firebaseManager;
+    private final AppExecutors executors;
+    private final RecipeFilter filter;
+    private final String query;
+
+    private List<ApiRecipe> all;          // null until the response arrives
+    private int nextIndex = 0;            // first item not yet handed to a conversion
+    private Cancellable fetch;
+    private boolean converting = false;
+    private List<Recipe> prefetched;      // converted page waiting to be asked for
+    private OnPageLoadedListener waiting; // caller waiting for the page being converted
+    private boolean cancelled = false;
+
+    public interface OnPageLoadedListener {
+        void onPageLoaded(List<Recipe> page, boolean hasMore);
+        void onError(String error);
+    }
+
+    public OnlineRecipePagingSource(RecipeFilter filter, String query) {
+        this(FirebaseManager.getInstance(), AppExecutors.getInstance(), filter, query);
+    }
+
+    OnlineRecipePagingSource(FirebaseManager firebaseManager, AppExecutors executors, RecipeFilter filter, String query) {
+        this.firebaseManager = firebaseManager;
+        this.executors = executors;
+        this.filter = filter;
+        this.query = query;
+    }
+
+    // Skips rows that are already on screen (e.g. restored from SearchResultCache); call before the first load
+    public void startAt(int index) {
+        if (all == null && fetch == null) nextIndex = index;
+    }
+
+    public boolean isStarted() {
+        return fetch != null;
+    }
+
+    // Unknown until the response arrives
+    public boolean hasMore() {
+        return !cancelled && (all == null || prefetched != null || converting || nextIndex < all.size());
+    }
+
+    public boolean isLoading() {
+        return waiting != null;
+    }
+
+    public int getTotalCount() {
+        return all != null ? all.size() : -1;
+    }
+
+    // Fetches the result set on first use, then hands out the next page
+    public void loadNextPage(OnPageLoadedListener listener) {
+        if (cancelled || waiting != null) return;
+        waiting = listener;
+
+        if (fetch == null) {
+            fetch = firebaseManager.searchOnlineRecipes(filter, query, new FirebaseManager.OnApiRecipesLoadedListener() {
+                @Override
+                public void onApiRecipesLoaded(List<ApiRecipe> recipes) {
+                    if (cancelled) return;
+                    all = recipes;
+                    nextIndex = Math.min(nextIndex, all.size());
+                    convertNext();
+                }
+
+                @Override
+                public void onError(String error) {
+                    if (cancelled) return;
+                    OnPageLoadedListener failed = waiting;
+                    waiting = null;
+                    fetch = null; // allow a retry
+                    if (failed != null) failed.onError(error);
+                }
+            });
+            return;
+        }
+        if (all == null || converting) return; // delivered when the response / conversion lands
+
+        if (prefetched != null) {
+            List<Recipe> page = prefetched;
+            prefetched = null;
+            deliver(page);
+        } else {
+            convertNext();
+        }
+    }
+
+    // Stops waiting for the page the listener asked for without dropping the page itself:
+    // it is kept and handed to the next loadNextPage()
+    public void abandon(OnPageLoadedListener listener) {
+        if (waiting == listener) waiting = null;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        waiting = null;
+        prefetched = null;
+        if (fetch != null) fetch.cancel();
+    }
+
+    private void convertNext() {
+        if (nextIndex >= all.size()) {
+            deliver(new ArrayList<>());
+            return;
+        }
+        int from = nextIndex;
+        int to = Math.min(all.size(), from + PAGE_SIZE);
+        nextIndex = to;
+        List<ApiRecipe> slice = new ArrayList<>(all.subList(from, to));
+
+        converting = true;
+        executors.cpu().execute(() -> {
+            List<Recipe> page = firebaseManager.convertApiRecipesToLocalRecipes(slice);
+            executors.main().execute(() -> {
+                converting = false;
+                if (cancelled) return;
+                if (waiting != null) {
+                    deliver(page);
+                } else {
+                    prefetched = page;
+                }
+            });
+        });
+    }
+
+    private void deliver(List<Recipe> page) {
+        OnPageLoadedListener listener = waiting;
+        waiting = null;
+        if (listener != null) listener.onPageLoaded(page, hasMore());
+        // Get the next page ready while this one is being looked at
+        if (!cancelled && prefetched == null && !converting && all != null && nextIndex < all.size()) {
+            convertNext();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.cookbook.data;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.example.cookbook.CookBookApplication;
+import com.example.cookbook.api.ApiPriority;
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.data.catalog.CatalogMirror;
+import com.example.cookbook.util.AppExecutors;
+import com.example.cookbook.util.FirebaseManager;
+import com.example.cookbook.util.IntSet;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+// Random meals for the Discover feed, fetched ahead of time so scrolling never waits on the network.
+// A fixed-size ring is topped up whenever it drops below LOW_WATER: from the catalog mirror when it
+// is synced, otherwise with parallel random.php calls (one meal each). Meals already buffered or
+// served this session are dropped by id. The ring is saved to a small JSON file and restored on start.
+// All state is touched on the main thread only.
+public class RandomRecipeBuffer {
+
+    private static final String TAG = "RandomRecipeBuffer";
+    private static final String CACHE_FILE = "random_buffer.json";
+
+    private static final int CAPACITY = 40;
+    private static final int LOW_WATER = 15;
+    private static final int FILL_CONCURRENCY = 4;
+    // Failed calls in a row before the fill pauses until the next take() / warmUp()
+    private static final int MAX_FAILURES = 3;
+    // Duplicates in a row that mean most of the catalog has been served; served ids are then forgotten
+    private static final int MAX_DUPLICATE_STREAK = 12;
+    private static final long PERSIST_DELAY_MS = 1000;
+
+    private static RandomRecipeBuffer instance;
+
+    private final FirebaseManager firebaseManager;
+    private final AppExecutors executors;
+    private final Gson gson = new Gson();
+    private final File cacheFile;
+
+    private final ApiRecipe[] ring = new ApiRecipe[CAPACITY];
+    private int head = 0;
+    private int size = 0;
+    // Ids in the ring or already handed out
+    private IntSet seen = new IntSet(CAPACITY * 2);
+
+    private boolean restoring = false;
+    private boolean restored = false;
+    private boolean filling = false;
+    private int inFlight = 0;
+    private int failures = 0;
+    private int duplicateStreak = 0;
+    private boolean persistScheduled = false;
+
+    private OnRecipesAvailableListener listener;
+
+    public interface OnRecipesAvailableListener {
+        // New meals were buffered
+        void onRecipesAvailable();
+    }
+
+    private RandomRecipeBuffer(FirebaseManager firebaseManager, AppExecutors executors, Context context) {
+        this.firebaseManager = firebaseManager;
+        this.executors = executors;
+        this.cacheFile = context != null ? new File(context.getFilesDir(), CACHE_FILE) : null;
+    }
+
+    public static synchronized RandomRecipeBuffer getInstance() {
+        if (instance == null) {
+            instance = new RandomRecipeBuffer(FirebaseManager.getInstance(), AppExecutors.getInstance(),
+                    CookBookApplication.getInstance());
+        }
+        return instance;
+    }
+
+    // Restores the saved ring and starts filling; called after login
+    public void warmUp() {
+        if (!restored) {
+            restore();
+            return;
+        }
+        failures = 0;
+        topUp();
+    }
+
+    // The Discover feed registers while it is on screen; fills then run at prefetch priority
+    public void setOnRecipesAvailableListener(OnRecipesAvailableListener listener) {
+        this.listener = listener;
+    }
+
+    public int available() {
+        return size;
+    }
+
+    // Up to count meals from the buffer, immediately; fewer (or none) if it is running dry
+    public List<ApiRecipe> take(int count) {
+        List<ApiRecipe> taken = new ArrayList<>();
+        while (size > 0 && taken.size() < count) {
+            taken.add(ring[head]);
+            ring[head] = null;
+            head = (head + 1) % CAPACITY;
+            size--;
+        }
+        if (!taken.isEmpty()) schedulePersist();
+        failures = 0;
+        if (restored) {
+            topUp();
+        } else {
+            restore();
+        }
+        return taken;
+    }
+
+    // --- Filling ---
+
+    private void topUp() {
+        if (size < LOW_WATER) filling = true;
+        if (!filling) return;
+        if (size + inFlight >= CAPACITY || failures >= MAX_FAILURES) {
+            if (inFlight == 0) filling = false;
+            return;
+        }
+
+        CatalogMirror mirror = CatalogMirror.getInstance();
+        if (mirror.isReady()) {
+            // Whole catalog on the device: no network at all
+            if (inFlight > 0) return;
+            int wanted = CAPACITY - size;
+            inFlight = wanted;
+            mirror.pickRandom(wanted, recipes -> {
+                inFlight = 0;
+                offerAll(recipes);
+                // Everything picked was already served: start over rather than keep picking duplicates
+                if (size < LOW_WATER && duplicateStreak > 0) forgetServed();
+                filling = false;
+            });
+            return;
+        }
+
+        while (inFlight < FILL_CONCURRENCY && size + inFlight < CAPACITY) {
+            inFlight++;
+            fetchOne();
+        }
+    }
+
+    private void fetchOne() {
+        ApiPriority priority = listener != null ? ApiPriority.VISIBLE_PREFETCH : ApiPriority.BACKGROUND;
+        firebaseManager.fetchRandomRecipe(priority, new FirebaseManager.OnApiRecipesLoadedListener() {
+            @Override
+            public void onApiRecipesLoaded(List<ApiRecipe> recipes) {
+                inFlight--;
+                failures = 0;
+                offerAll(recipes);
+                topUp();
+            }
+
+            @Override
+            public void onError(String error) {
+                inFlight--;
+                failures++;
+                Log.w(TAG, "Random recipe failed: " + error);
+                topUp();
+            }
+        });
+    }
+
+    private void offerAll(List<ApiRecipe> recipes) {
+        int added = 0;
+        for (ApiRecipe recipe : recipes) {
+            if (offer(recipe)) added++;
+        }
+        if (added == 0) return;
+        schedulePersist();
+        if (listener != null) listener.onRecipesAvailable();
+    }
+
+    private boolean offer(ApiRecipe recipe) {
+        if (recipe == null || recipe.getId() == null || size >= CAPACITY) return false;
+        int id = parseId(recipe.getId());
+        if (seen.contains(id)) {
+            if (++duplicateStreak >= MAX_DUPLICATE_STREAK) forgetServed();
+            return false;
+        }
+        duplicateStreak = 0;
+        seen.add(id);
+        ring[(head + size) % CAPACITY] = recipe;
+        size++;
+        return true;
+    }
+
+    // Keeps only the buffered ids, so meals shown long ago may come round again
+    private void forgetServed() {
+        IntSet buffered = new IntSet(CAPACITY * 2);
+        for (int i = 0; i < size; i++) {
+            buffered.add(parseId(ring[(head + i) % CAPACITY].getId()));
+        }
+        seen = buffered;
+        duplicateStreak = 0;
+    }
+
+    private static int parseId(String id) {
+        try {
+            return Integer.parseInt(id.trim());
+        } catch (NumberFormatException e) {
+            return id.hashCode();
+        }
+    }
+
+    // --- Persistence ---
+
+    private void restore() {
+        if (restoring) return;
+        restoring = true;
+        executors.diskSerial().execute(() -> {
+            List<ApiRecipe> saved = readFromDisk();
+            executors.main().execute(() -> {
+                restoring = false;
+                restored = true;
+                if (saved != null) offerAll(saved);
+                topUp();
+            });
+        });
+    }
+
+    // Coalesces bursts of changes into one write
+    private void schedulePersist() {
+        if (cacheFile == null || persistScheduled) return;
+        persistScheduled = true;
+        executors.main().executeDelayed(() -> {
+            persistScheduled = false;
+            List<ApiRecipe> snapshot = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                snapshot.add(ring[(head + i) % CAPACITY]);
+            }
+            executors.diskSerial().execute(() -> writeToDisk(snapshot));
+        }, PERSIST_DELAY_MS);
+    }
+
+    private List<ApiRecipe> readFromDisk() {
+        if (cacheFile == null || !cacheFile.exists()) return null;
+        try (Reader reader = new FileReader(cacheFile)) {
+            Type type = new TypeToken<List<ApiRecipe>>() { }.getType();
+            return gson.fromJson(reader, type);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read saved random recipes", e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(List<ApiRecipe> snapshot) {
+        File temp = new File(cacheFile.getPath() + ".tmp");
+        try (Writer writer = new FileWriter(temp)) {
+            gson.toJson(snapshot, writer);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not save random recipes", e);
+            return;
+        }
+        if (!temp.renameTo(cacheFile)) {
+            Log.w(TAG, "Could not replace saved random recipes");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cookbook.data;
+
+import android.util.LruCache;
+
+import com.example.cookbook.model.Recipe;
+
+// Memory cache of full TheMealDB recipes (lookup.php results) keyed by recipe id.
+// Filled by the prefetcher and by click-time fetches so a detail screen can open without a round trip.
+public class RecipeDetailCache {
+
+    private static final int MAX_ENTRIES = 100;
+
+    private static RecipeDetailCache instance;
+
+    private final LruCache<String, Recipe> recipes = new LruCache<>(MAX_ENTRIES);
+
+    private RecipeDetailCache() {
+    }
+
+    public static synchronized RecipeDetailCache getInstance() {
+        if (instance == null) {
+            instance = new RecipeDetailCache();
+        }
+        return instance;
+    }
+
+    public Recipe get(String id) {
+        return id != null ? recipes.get(id) : null;
+    }
+
+    public void put(Recipe recipe) {
+        if (recipe != null && recipe.getId() != null) {
+            recipes.put(recipe.getId(), recipe);
+        }
+    }
+
+    public boolean contains(String id) {
+        return get(id) != null;
+    }
+
+    public void clear() {
+        recipes.evictAll();
+    }
+
+    // API rows from filter.php / short search results only carry id, title and image
+    public static boolean needsFullDetails(Recipe recipe) {
+        return recipe != null && recipe.isImportedFromApi()
+                && (recipe.getInstructions() == null || recipe.getInstructions().length() < 10);
+    }
+}
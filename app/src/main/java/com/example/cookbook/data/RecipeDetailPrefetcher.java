@@ -0,0 +1,112 @@
+package com.example.cookbook.data;
+
+import com.example.cookbook.api.ApiPriority;
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.util.FirebaseManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Fetches full details for API rows that are on screen or about to be, so a tap opens instantly.
+// Driven by the list's visible range: rows that scroll away are dropped from the queue and their
+// lookups cancelled. Requests go out at VISIBLE_PREFETCH priority, a few at a time.
+// Must be used from the main thread.
+public class RecipeDetailPrefetcher {
+
+    // Rows past the last visible one that are fetched ahead of the scroll
+    private static final int LOOKAHEAD = 4;
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private final FirebaseManager firebaseManager;
+    private final RecipeDetailCache cache;
+
+    // Ids wanted for the current range, in the order they should be fetched
+    private final Set<String> wanted = new LinkedHashSet<>();
+    private final Map<String, Cancellable> inFlight = new HashMap<>();
+
+    public RecipeDetailPrefetcher() {
+        this(FirebaseManager.getInstance(), RecipeDetailCache.getInstance());
+    }
+
+    RecipeDetailPrefetcher(FirebaseManager firebaseManager, RecipeDetailCache cache) {
+        this.firebaseManager = firebaseManager;
+        this.cache = cache;
+    }
+
+    // firstVisible / lastVisible are adapter positions (RecyclerView.NO_POSITION when nothing is laid out)
+    public void onVisibleRangeChanged(List<Recipe> recipes, int firstVisible, int lastVisible) {
+        wanted.clear();
+        if (firstVisible >= 0 && lastVisible >= firstVisible) {
+            int end = Math.min(recipes.size() - 1, lastVisible + LOOKAHEAD);
+            for (int i = firstVisible; i <= end; i++) {
+                Recipe recipe = recipes.get(i);
+                if (RecipeDetailCache.needsFullDetails(recipe) && recipe.getId() != null
+                        && !cache.contains(recipe.getId())) {
+                    wanted.add(recipe.getId());
+                }
+            }
+        }
+
+        // Rows that left the range are not worth the bandwidth any more
+        Iterator<Map.Entry<String, Cancellable>> it = inFlight.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Cancellable> entry = it.next();
+            if (!wanted.contains(entry.getKey())) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+
+        startMore();
+    }
+
+    public void cancelAll() {
+        wanted.clear();
+        for (Cancellable request : inFlight.values()) {
+            request.cancel();
+        }
+        inFlight.clear();
+    }
+
+    private void startMore() {
+        List<String> toStart = new ArrayList<>();
+        for (String id : wanted) {
+            if (inFlight.size() + toStart.size() >= MAX_IN_FLIGHT) break;
+            if (!inFlight.containsKey(id)) toStart.add(id);
+        }
+        for (String id : toStart) {
+            fetch(id);
+        }
+    }
+
+    private void fetch(String id) {
+        Cancellable request = firebaseManager.fetchFullRecipeById(id, ApiPriority.VISIBLE_PREFETCH,
+                new FirebaseManager.OnRecipesLoadedListener() {
+                    @Override
+                    public void onRecipesLoaded(List<Recipe> recipes) {
+                        if (!recipes.isEmpty()) cache.put(recipes.get(0));
+                        finished(id);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        // A tap will retry at interactive priority
+                        finished(id);
+                    }
+                });
+        inFlight.put(id, request);
+    }
+
+    private void finished(String id) {
+        // Ignore results that were cancelled after they had already been posted
+        if (inFlight.remove(id) == null) return;
+        wanted.remove(id);
+        startMore();
+    }
+}
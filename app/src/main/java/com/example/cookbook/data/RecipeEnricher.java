@@ -0,0 +1,133 @@
+package com.example.cookbook.data;
+
+import com.example.cookbook.api.ApiPriority;
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.util.FirebaseManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+// Fills in filter.php rows (id, title and thumbnail only) with their full lookup.php record after
+// they have been rendered. Lookups run a few at a time at VISIBLE_PREFETCH priority; each finished
+// record is stored in RecipeDetailCache and reported right away so the row can be updated in place.
+// One instance per result list; cancel() when the list is replaced. Sources that land later resubmit
+// their summary rows, so the list swaps in withKnownDetails() before showing them.
+// Must be used from the main thread.
+public class RecipeEnricher implements Cancellable {
+
+    private static final int MAX_IN_FLIGHT = 3;
+
+    private final FirebaseManager firebaseManager;
+    private final RecipeDetailCache cache;
+    private final OnRecipeEnrichedListener listener;
+
+    private final Queue<String> queue = new ArrayDeque<>();
+    private final Set<String> seen = new HashSet<>();
+    // Everything reported so far; the LRU cache may have evicted some of it on a long list
+    private final Map<String, Recipe> enriched = new HashMap<>();
+    private final List<Cancellable> inFlight = new ArrayList<>();
+    private boolean cancelled = false;
+
+    public interface OnRecipeEnrichedListener {
+        // Full record for a row that was shown as a summary
+        void onRecipeEnriched(Recipe full);
+    }
+
+    public RecipeEnricher(OnRecipeEnrichedListener listener) {
+        this(FirebaseManager.getInstance(), RecipeDetailCache.getInstance(), listener);
+    }
+
+    RecipeEnricher(FirebaseManager firebaseManager, RecipeDetailCache cache, OnRecipeEnrichedListener listener) {
+        this.firebaseManager = firebaseManager;
+        this.cache = cache;
+        this.listener = listener;
+    }
+
+    // Queues every summary row not seen before; rows already in the cache are reported immediately
+    public void enqueue(List<Recipe> rows) {
+        if (cancelled) return;
+        List<Recipe> fromCache = new ArrayList<>();
+        for (Recipe row : rows) {
+            if (!RecipeDetailCache.needsFullDetails(row) || row.getId() == null || !seen.add(row.getId())) continue;
+            Recipe cached = cache.get(row.getId());
+            if (cached != null) {
+                fromCache.add(cached);
+            } else {
+                queue.add(row.getId());
+            }
+        }
+        for (Recipe full : fromCache) {
+            report(full);
+        }
+        startMore();
+    }
+
+    // The full record for a summary row this enricher already reported (or that was cached meanwhile),
+    // otherwise the row itself
+    public Recipe withKnownDetails(Recipe row) {
+        if (!RecipeDetailCache.needsFullDetails(row) || row.getId() == null) return row;
+        Recipe full = enriched.get(row.getId());
+        if (full == null) full = cache.get(row.getId());
+        return full != null ? full : row;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+        for (Cancellable request : new ArrayList<>(inFlight)) {
+            request.cancel();
+        }
+        inFlight.clear();
+    }
+
+    private void startMore() {
+        while (!cancelled && inFlight.size() < MAX_IN_FLIGHT && !queue.isEmpty()) {
+            String id = queue.poll();
+            // The detail prefetcher or a tap may have loaded it meanwhile
+            Recipe cached = cache.get(id);
+            if (cached != null) {
+                report(cached);
+                continue;
+            }
+            lookUp(id);
+        }
+    }
+
+    private void report(Recipe full) {
+        enriched.put(full.getId(), full);
+        listener.onRecipeEnriched(full);
+    }
+
+    private void lookUp(String id) {
+        Cancellable[] handle = new Cancellable[1];
+        handle[0] = firebaseManager.fetchFullRecipeById(id, ApiPriority.VISIBLE_PREFETCH,
+                new FirebaseManager.OnRecipesLoadedListener() {
+                    @Override
+                    public void onRecipesLoaded(List<Recipe> recipes) {
+                        if (!inFlight.remove(handle[0]) || cancelled) return;
+                        if (!recipes.isEmpty()) {
+                            Recipe full = recipes.get(0);
+                            cache.put(full);
+                            report(full);
+                        }
+                        startMore();
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        // The row keeps its summary; a tap still loads the details
+                        if (!inFlight.remove(handle[0]) || cancelled) return;
+                        startMore();
+                    }
+                });
+        inFlight.add(handle[0]);
+    }
+}
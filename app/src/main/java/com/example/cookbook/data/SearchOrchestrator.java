@@ -0,0 +1,291 @@
+package com.example.cookbook.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.util.AppExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fan-out / fan-in for searches that span several backends (Firestore, TheMealDB, ...).
+// All sources start at once; the search finishes when every source has answered or the deadline
+// passes, whichever comes first. Sources still running at the deadline are cancelled and their
+// results dropped, so search latency is bounded by the deadline rather than the slowest backend.
+// Listeners may also take partial results as each source lands, to render the fastest backend first.
+// Per-source latency / failure / timeout counters are kept for snapshot() and dump().
+// Must be used from the main thread.
+public class SearchOrchestrator {
+
+    private static final String TAG = "SearchOrchestrator";
+
+    private static SearchOrchestrator instance;
+
+    private final AppExecutors.MainThreadExecutor mainThread;
+    private final Map<String, SourceStats> stats = new HashMap<>();
+
+    // One backend taking part in a search
+    public interface SearchSource {
+        String getName();
+
+        // Must call exactly one of the callback methods, on the main thread.
+        // The returned handle is cancelled if the deadline passes first.
+        Cancellable search(SourceCallback callback);
+    }
+
+    public interface SourceCallback {
+        void onResults(List<Recipe> recipes);
+        void onError(String error);
+    }
+
+    public interface OnSearchFinishedListener {
+        void onSearchFinished(SearchResult result);
+
+        // Called each time a source answers while others are still running, with everything so far
+        default void onPartialResult(SearchResult partial) {
+        }
+    }
+
+    SearchOrchestrator(AppExecutors.MainThreadExecutor mainThread) {
+        this.mainThread = mainThread;
+    }
+
+    public static synchronized SearchOrchestrator getInstance() {
+        if (instance == null) {
+            instance = new SearchOrchestrator(AppExecutors.getInstance().main());
+        }
+        return instance;
+    }
+
+    // Results are concatenated in the order the sources are given. Cancelling the returned handle
+    // cancels every running source and suppresses the listener.
+    public Cancellable search(List<SearchSource> sources, long deadlineMs, OnSearchFinishedListener listener) {
+        Run run = new Run(sources, listener);
+        run.start(deadlineMs);
+        return run;
+    }
+
+    public Map<String, SourceStats> snapshot() {
+        Map<String, SourceStats> copy = new HashMap<>();
+        for (Map.Entry<String, SourceStats> entry : stats.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy());
+        }
+        return copy;
+    }
+
+    public void dump() {
+        for (SourceStats sourceStats : stats.values()) {
+            Log.i(TAG, sourceStats.toString());
+        }
+    }
+
+    private SourceStats statsFor(String source) {
+        SourceStats sourceStats = stats.get(source);
+        if (sourceStats == null) {
+            sourceStats = new SourceStats(source);
+            stats.put(source, sourceStats);
+        }
+        return sourceStats;
+    }
+
+    private final class Run implements Cancellable {
+        private final List<SearchSource> sources;
+        private final OnSearchFinishedListener listener;
+        private final long startedAt = SystemClock.elapsedRealtime();
+
+        // Per-source state, indexed like sources
+        private final List<List<Recipe>> results = new ArrayList<>();
+        private final List<Cancellable> handles = new ArrayList<>();
+        private final boolean[] done;
+        private final List<String> failed = new ArrayList<>();
+        private int pending;
+        private boolean finished = false;
+
+        private final Runnable deadline = this::onDeadline;
+
+        Run(List<SearchSource> sources, OnSearchFinishedListener listener) {
+            this.sources = new ArrayList<>(sources);
+            this.listener = listener;
+            this.done = new boolean[sources.size()];
+            this.pending = sources.size();
+        }
+
+        void start(long deadlineMs) {
+            for (int i = 0; i < sources.size(); i++) {
+                results.add(null);
+                handles.add(null);
+            }
+            mainThread.executeDelayed(deadline, deadlineMs);
+            for (int i = 0; i < sources.size(); i++) {
+                final int index = i;
+                Cancellable handle = sources.get(i).search(new SourceCallback() {
+                    @Override
+                    public void onResults(List<Recipe> recipes) {
+                        onSourceDone(index, recipes, null);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        onSourceDone(index, null, error);
+                    }
+                });
+                if (finished) return; // every source answered synchronously
+                handles.set(index, handle);
+            }
+            if (sources.isEmpty()) finish();
+        }
+
+        private void onSourceDone(int index, List<Recipe> recipes, String error) {
+            if (finished || done[index]) return;
+            done[index] = true;
+            pending--;
+
+            SearchSource source = sources.get(index);
+            SourceStats sourceStats = statsFor(source.getName());
+            sourceStats.record(SystemClock.elapsedRealtime() - startedAt, error != null);
+            if (error != null) {
+                Log.w(TAG, source.getName() + " failed: " + error);
+                failed.add(source.getName());
+            } else {
+                results.set(index, recipes);
+            }
+
+            if (pending == 0) {
+                finish();
+            } else if (error == null) {
+                listener.onPartialResult(snapshot(new ArrayList<>(), false));
+            }
+        }
+
+        private void onDeadline() {
+            if (finished) return;
+            List<String> timedOut = new ArrayList<>();
+            for (int i = 0; i < sources.size(); i++) {
+                if (done[i]) continue;
+                timedOut.add(sources.get(i).getName());
+                statsFor(sources.get(i).getName()).recordTimeout();
+                if (handles.get(i) != null) handles.get(i).cancel();
+            }
+            Log.w(TAG, "Deadline hit, returning partial results without " + timedOut);
+            finish(timedOut);
+        }
+
+        private void finish() {
+            finish(new ArrayList<>());
+        }
+
+        private void finish(List<String> timedOut) {
+            finished = true;
+            mainThread.cancel(deadline);
+            listener.onSearchFinished(snapshot(timedOut, true));
+        }
+
+        // Merged in source order (not arrival order), so rows keep their place as sources land
+        private SearchResult snapshot(List<String> timedOut, boolean isFinal) {
+            List<Recipe> merged = new ArrayList<>();
+            List<String> waitingFor = new ArrayList<>();
+            for (int i = 0; i < sources.size(); i++) {
+                if (results.get(i) != null) merged.addAll(results.get(i));
+                if (!isFinal && !done[i]) waitingFor.add(sources.get(i).getName());
+            }
+            return new SearchResult(merged, new ArrayList<>(failed), timedOut, waitingFor,
+                    SystemClock.elapsedRealtime() - startedAt);
+        }
+
+        @Override
+        public void cancel() {
+            if (finished) return;
+            finished = true;
+            mainThread.cancel(deadline);
+            for (int i = 0; i < sources.size(); i++) {
+                if (!done[i] && handles.get(i) != null) handles.get(i).cancel();
+            }
+        }
+    }
+
+    public static class SearchResult {
+        private final List<Recipe> recipes;
+        private final List<String> failedSources;
+        private final List<String> timedOutSources;
+        private final List<String> pendingSources;
+        private final long elapsedMs;
+
+        SearchResult(List<Recipe> recipes, List<String> failedSources, List<String> timedOutSources,
+                     List<String> pendingSources, long elapsedMs) {
+            this.recipes = recipes;
+            this.failedSources = failedSources;
+            this.timedOutSources = timedOutSources;
+            this.pendingSources = pendingSources;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public List<Recipe> getRecipes() { return recipes; }
+        public List<String> getFailedSources() { return failedSources; }
+        public List<String> getTimedOutSources() { return timedOutSources; }
+        // Sources still running (always empty for the final result)
+        public List<String> getPendingSources() { return pendingSources; }
+        public long getElapsedMs() { return elapsedMs; }
+
+        // Every source answered successfully in time
+        public boolean isComplete() {
+            return failedSources.isEmpty() && timedOutSources.isEmpty() && pendingSources.isEmpty();
+        }
+    }
+
+    public static class SourceStats {
+        private final String source;
+        private long calls;
+        private long failures;
+        private long timeouts;
+        private long totalLatencyMs;
+        private long maxLatencyMs;
+
+        SourceStats(String source) {
+            this.source = source;
+        }
+
+        void record(long latencyMs, boolean failure) {
+            calls++;
+            if (failure) failures++;
+            totalLatencyMs += latencyMs;
+            maxLatencyMs = Math.max(maxLatencyMs, latencyMs);
+        }
+
+        void recordTimeout() {
+            calls++;
+            timeouts++;
+        }
+
+        SourceStats copy() {
+            SourceStats copy = new SourceStats(source);
+            copy.calls = calls;
+            copy.failures = failures;
+            copy.timeouts = timeouts;
+            copy.totalLatencyMs = totalLatencyMs;
+            copy.maxLatencyMs = maxLatencyMs;
+            return copy;
+        }
+
+        public String getSource() { return source; }
+        public long getCalls() { return calls; }
+        public long getFailures() { return failures; }
+        public long getTimeouts() { return timeouts; }
+        public long getMaxLatencyMs() { return maxLatencyMs; }
+
+        // Average over sources that answered (timeouts have no latency)
+        public long getAverageLatencyMs() {
+            long answered = calls - timeouts;
+            return answered == 0 ? 0 : totalLatencyMs / answered;
+        }
+
+        @Override
+        public String toString() {
+            return source + ": calls=" + calls + " failures=" + failures + " timeouts=" + timeouts
+                    + " avg=" + getAverageLatencyMs() + "ms max=" + maxLatencyMs + "ms";
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.cookbook.data;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.example.cookbook.CookBookApplication;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.model.RecipeFilter;
+import com.example.cookbook.util.AppExecutors;
+import com.example.cookbook.util.FirebaseManager;
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Combined (Firestore + TheMealDB) search results keyed by filter type, values, query and user.
+// Two tiers: a small LRU in memory (answers within the same frame) and one JSON file per key
+// in the cache dir (survives restarts). Entries expire after TTL_MS, and everything is dropped
+// when FirebaseManager reports that the user's recipes changed.
+// get/put are called on the main thread; disk work runs on the serial disk executor.
+public class SearchResultCache {
+
+    private static final String TAG = "SearchResultCache";
+    private static final String CACHE_DIR = "search_cache";
+    private static final int MEMORY_ENTRIES = 32;
+    private static final int DISK_ENTRIES = 64;
+    private static final long TTL_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private static SearchResultCache instance;
+
+    private final AppExecutors executors;
+    private final Gson gson = new Gson();
+    private final File cacheDir;
+    private final LruCache<String, Entry> memory = new LruCache<>(MEMORY_ENTRIES);
+
+    // Bumped on invalidation; results of searches started before it are not stored
+    private int version = 0;
+
+    public interface OnCachedResultListener {
+        // null when nothing fresh is cached
+        void onCachedResult(List<Recipe> recipes);
+    }
+
+    private SearchResultCache(AppExecutors executors, Context context) {
+        this.executors = executors;
+        this.cacheDir = context != null ? new File(context.getCacheDir(), CACHE_DIR) : null;
+    }
+
+    public static synchronized SearchResultCache getInstance() {
+        if (instance == null) {
+            instance = new SearchResultCache(AppExecutors.getInstance(), CookBookApplication.getInstance());
+            FirebaseManager.getInstance().addOnRecipesChangedListener(instance::invalidateAll);
+        }
+        return instance;
+    }
+
+    // Normalised so "Dessert" / " dessert" and [Beef, Onion] / [onion, beef] share an entry
+    public Key keyFor(RecipeFilter filter, String query, String userId) {
+        StringBuilder key = new StringBuilder();
+        if (filter != null && filter.getValue() != null) {
+            List<String> terms = new ArrayList<>();
+            for (RecipeFilter term : filter.getTerms()) {
+                terms.add(term.getType().name() + ":" + normalise(term.getValue()));
+            }
+            Collections.sort(terms);
+            key.append(filter.getMatch().name()).append(terms);
+        }
+        key.append('|').append(query != null ? normalise(query) : "");
+        key.append('|').append(userId != null ? userId : "");
+        return new Key(key.toString(), version);
+    }
+
+    public void get(Key key, OnCachedResultListener listener) {
+        Entry cached = memory.get(key.value);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                listener.onCachedResult(new ArrayList<>(cached.recipes));
+                return;
+            }
+            memory.remove(key.value);
+        }
+
+        if (cacheDir == null) {
+            listener.onCachedResult(null);
+            return;
+        }
+        int requestedVersion = version;
+        executors.diskSerial().execute(() -> {
+            Entry fromDisk = readFromDisk(key.value);
+            executors.main().execute(() -> {
+                if (fromDisk == null || requestedVersion != version) {
+                    listener.onCachedResult(null);
+                    return;
+                }
+                memory.put(key.value, fromDisk);
+                listener.onCachedResult(new ArrayList<>(fromDisk.recipes));
+            });
+        });
+    }
+
+    public void put(Key key, List<Recipe> recipes) {
+        if (key.version != version) return; // results predate an edit
+        Entry entry = new Entry(key.value, System.currentTimeMillis(), new ArrayList<>(recipes));
+        memory.put(key.value, entry);
+        writeToDisk(entry);
+    }
+
+    public void invalidateAll() {
+        version++;
+        memory.evictAll();
+        if (cacheDir == null) return;
+        executors.diskSerial().execute(() -> {
+            File[] files = cacheDir.listFiles();
+            if (files == null) return;
+            for (File file : files) {
+                if (!file.delete()) Log.w(TAG, "Could not delete " + file.getName());
+            }
+        });
+    }
+
+    private static String normalise(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private File fileFor(String key) {
+        return new File(cacheDir, Integer.toHexString(key.hashCode()) + ".json");
+    }
+
+    private Entry readFromDisk(String key) {
+        File file = fileFor(key);
+        if (!file.exists()) return null;
+        try (Reader reader = new FileReader(file)) {
+            Entry entry = gson.fromJson(reader, Entry.class);
+            // The file name is only a hash: make sure it really is this key
+            if (entry == null || !key.equals(entry.key) || entry.recipes == null) return null;
+            if (entry.isExpired()) {
+                file.delete();
+                return null;
+            }
+            return entry;
+        } catch (Exception e) {
+            Log.w(TAG, "Could not read cached search", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void writeToDisk(Entry entry) {
+        if (cacheDir == null) return;
+        executors.diskSerial().execute(() -> {
+            if (!cacheDir.exists() && !cacheDir.mkdirs()) return;
+            File file = fileFor(entry.key);
+            File temp = new File(file.getPath() + ".tmp");
+            try (Writer writer = new FileWriter(temp)) {
+                gson.toJson(entry, writer);
+            } catch (Exception e) {
+                Log.w(TAG, "Could not write cached search", e);
+                return;
+            }
+            if (!temp.renameTo(file)) {
+                Log.w(TAG, "Could not replace cached search");
+            }
+            trimDisk();
+        });
+    }
+
+    // Keeps the newest DISK_ENTRIES files
+    private void trimDisk() {
+        File[] files = cacheDir.listFiles();
+        if (files == null || files.length <= DISK_ENTRIES) return;
+        Arrays.sort(files, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+        for (int i = DISK_ENTRIES; i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    public static class Key {
+        private final String value;
+        private final int version;
+
+        private Key(String value, int version) {
+            this.value = value;
+            this.version = version;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    private static class Entry {
+        String key;
+        long storedAt;
+        List<Recipe> recipes;
+
+        Entry(String key, long storedAt, List<Recipe> recipes) {
+            this.key = key;
+            this.storedAt = storedAt;
+            this.recipes = recipes;
+        }
+
+        boolean isExpired() {
+            long age = System.currentTimeMillis() - storedAt;
+            return age < 0 || age > TTL_MS;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.cookbook.data.catalog;
+
+import android.util.Log;
+
+import com.example.cookbook.CookBookApplication;
+import com.example.cookbook.api.ApiMetrics;
+import com.example.cookbook.api.ApiPriority;
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.model.RecipeFilter;
+import com.example.cookbook.util.AppExecutors;
+import com.example.cookbook.util.FirebaseManager;
+import com.example.cookbook.util.IntSet;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+// Complete on-device copy of TheMealDB (a few hundred meals) so search, filter and
+// random picks need no network at all. A sync (scheduled by CatalogSyncWorker) crawls
+// search.php?f=a..z at BACKGROUND priority, a couple of letters at a time. TheMealDB has no
+// modification timestamps, so every meal is downloaded, but only those whose content hash changed
+// are written. Each run's cost is recorded in SyncStats.
+// Queries are only answered after a crawl has completed once - a partial mirror would miss results.
+public class CatalogMirror {
+
+    private static final String TAG = "CatalogMirror";
+    private static final String DIR = "catalog";
+    private static final String META_FILE = "catalog.meta";
+    private static final String HISTORY_FILE = "sync_history";
+    private static final int HISTORY_RUNS = 30;
+    private static final String CRAWL_ENDPOINT = "searchRecipesByFirstLetter";
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final int CRAWL_CONCURRENCY = 2;
+
+    private static CatalogMirror instance;
+
+    private final CatalogStore store;
+    private final File metaFile;
+    private final File historyFile;
+    private final AppExecutors executors;
+    private final Random random = new Random();
+
+    private volatile boolean opened = false;
+    private volatile boolean complete = false;
+    // Main thread only
+    private Crawl currentCrawl;
+
+    public interface OnCatalogResultListener {
+        // Empty when the mirror is not ready or nothing matched
+        void onCatalogResult(List<ApiRecipe> recipes);
+    }
+
+    public interface OnSyncFinishedListener {
+        void onSyncFinished(SyncStats stats);
+    }
+
+    private CatalogMirror(File dir, AppExecutors executors) {
+        this.store = new CatalogStore(dir);
+        this.metaFile = new File(dir, META_FILE);
+        this.historyFile = new File(dir, HISTORY_FILE);
+        this.executors = executors;
+        executors.diskSerial().execute(this::open);
+    }
+
+    public static synchronized CatalogMirror getInstance() {
+        if (instance == null) {
+            instance = new CatalogMirror(new File(CookBookApplication.getInstance().getFilesDir(), DIR),
+                    AppExecutors.getInstance());
+        }
+        return instance;
+    }
+
+    // True once a full crawl has landed; until then callers should go to the network
+    public boolean isReady() {
+        return opened && complete;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    // --- Queries ---
+
+    // Blocking, for callers already off the main thread. Null when the mirror cannot answer.
+    public List<ApiRecipe> queryNow(RecipeFilter.FilterType type, String value) {
+        if (!isReady() || value == null) return null;
+        return store.filter(type, value);
+    }
+
+    // Blocking; null when the mirror is not ready or does not know the id
+    public ApiRecipe getNow(String id) {
+        return isReady() ? store.get(id) : null;
+    }
+
+    public void pickRandom(int count, OnCatalogResultListener listener) {
+        runQuery(() -> {
+            synchronized (random) {
+                return store.random(count, random);
+            }
+        }, listener);
+    }
+
+    private interface Query {
+        List<ApiRecipe> run();
+    }
+
+    private void runQuery(Query query, OnCatalogResultListener listener) {
+        executors.io().execute(() -> {
+            List<ApiRecipe> results = isReady() ? query.run() : new ArrayList<>();
+            executors.main().execute(() -> listener.onCatalogResult(results));
+        });
+    }
+
+    // --- Sync ---
+
+    // Crawls the whole catalog; meals missing from a complete crawl are dropped from the mirror.
+    // Joins the running sync if there is one. Main thread only.
+    public void sync(OnSyncFinishedListener listener) {
+        if (currentCrawl != null) {
+            if (listener != null) currentCrawl.listeners.add(listener);
+            return;
+        }
+        Crawl crawl = new Crawl(crawlBytes());
+        if (listener != null) crawl.listeners.add(listener);
+        currentCrawl = crawl;
+        for (int i = 0; i < CRAWL_CONCURRENCY; i++) {
+            crawlNext(crawl);
+        }
+    }
+
+    private void crawlNext(Crawl crawl) {
+        Character letter = crawl.pending.poll();
+        if (letter == null) {
+            if (crawl.inFlight == 0) finishCrawl(crawl);
+            return;
+        }
+        crawl.inFlight++;
+        FirebaseManager.getInstance().fetchRecipesByFirstLetter(letter, ApiPriority.BACKGROUND,
+                new FirebaseManager.OnApiRecipesLoadedListener() {
+                    @Override
+                    public void onApiRecipesLoaded(List<ApiRecipe> recipes) {
+                        crawl.fetched += recipes.size();
+                        for (ApiRecipe recipe : recipes) {
+                            crawl.seenIds.add(CatalogStore.parseId(recipe.getId()));
+                        }
+                        executors.diskSerial().execute(() -> {
+                            try {
+                                crawl.changed += store.append(recipes);
+                            } catch (IOException e) {
+                                Log.w(TAG, "Could not store letter " + letter, e);
+                                crawl.storeFailed = true;
+                            }
+                        });
+                        onLetterDone();
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        Log.w(TAG, "Letter " + letter + " failed: " + error);
+                        crawl.failed = true;
+                        onLetterDone();
+                    }
+
+                    private void onLetterDone() {
+                        crawl.inFlight--;
+                        crawlNext(crawl);
+                    }
+                });
+    }
+
+    private void finishCrawl(Crawl crawl) {
+        boolean fetchedAll = !crawl.failed;
+        // Runs after every letter's append, which were queued on the same executor
+        executors.diskSerial().execute(() -> {
+            long bytesFetched = crawlBytes() - crawl.bytesAtStart;
+            boolean succeeded = fetchedAll && !crawl.storeFailed;
+            int removed = 0;
+            if (succeeded) {
+                try {
+                    removed = store.retainOnly(crawl.seenIds);
+                    store.compactIfNeeded();
+                    writeMeta(System.currentTimeMillis());
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not finish catalog sync", e);
+                    succeeded = false;
+                }
+            }
+            // On failure the previous complete mirror (if any) stays in use and the next sync retries
+            SyncStats stats = new SyncStats(crawl.startedAt, System.currentTimeMillis() - crawl.startedAt,
+                    bytesFetched, crawl.fetched, crawl.changed, removed, store.size(), succeeded);
+            Log.i(TAG, stats.toString());
+            appendHistory(stats);
+            executors.main().execute(() -> {
+                currentCrawl = null;
+                for (OnSyncFinishedListener listener : crawl.listeners) {
+                    listener.onSyncFinished(stats);
+                }
+            });
+        });
+    }
+
+    // Response bytes of the crawl endpoint so far (it is used by nothing else)
+    private static long crawlBytes() {
+        ApiMetrics.EndpointStats stats = ApiMetrics.getInstance().snapshot().get(CRAWL_ENDPOINT);
+        return stats != null ? stats.getResponseBytes() : 0;
+    }
+
+    // --- Sync history ---
+
+    // Most recent runs, oldest first. Blocking (reads a small file).
+    private List<SyncStats> getSyncHistory() {
+        List<SyncStats> history = new ArrayList<>();
+        if (!historyFile.exists()) return history;
+        try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                SyncStats stats = SyncStats.fromLine(line);
+                if (stats != null) history.add(stats);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not read sync history", e);
+        }
+        return history;
+    }
+
+    // diskSerial only
+    private void appendHistory(SyncStats stats) {
+        List<SyncStats> history = getSyncHistory();
+        history.add(stats);
+        int from = Math.max(0, history.size() - HISTORY_RUNS);
+        File temp = new File(historyFile.getPath() + ".tmp");
+        try (Writer writer = new FileWriter(temp)) {
+            for (SyncStats run : history.subList(from, history.size())) {
+                writer.write(run.toLine());
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not write sync history", e);
+            return;
+        }
+        if (!temp.renameTo(historyFile)) {
+            Log.w(TAG, "Could not replace sync history");
+        }
+    }
+
+    // Cost of one sync run
+    public static class SyncStats {
+        private final long startedAt;
+        private final long durationMs;
+        private final long bytesFetched;
+        private final int recordsFetched;
+        private final int recordsChanged;
+        private final int recordsRemoved;
+        private final int catalogSize;
+        private final boolean complete;
+
+        SyncStats(long startedAt, long durationMs, long bytesFetched, int recordsFetched, int recordsChanged,
+                  int recordsRemoved, int catalogSize, boolean complete) {
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.bytesFetched = bytesFetched;
+            this.recordsFetched = recordsFetched;
+            this.recordsChanged = recordsChanged;
+            this.recordsRemoved = recordsRemoved;
+            this.catalogSize = catalogSize;
+            this.complete = complete;
+        }
+
+        public long getStartedAt() { return startedAt; }
+        public long getDurationMs() { return durationMs; }
+        public long getBytesFetched() { return bytesFetched; }
+        public int getRecordsFetched() { return recordsFetched; }
+        public int getRecordsChanged() { return recordsChanged; }
+        public int getRecordsRemoved() { return recordsRemoved; }
+        public int getCatalogSize() { return catalogSize; }
+        public boolean isComplete() { return complete; }
+
+        String toLine() {
+            return startedAt + "," + durationMs + "," + bytesFetched + "," + recordsFetched + ","
+                    + recordsChanged + "," + recordsRemoved + "," + catalogSize + "," + complete;
+        }
+
+        static SyncStats fromLine(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 8) return null;
+            try {
+                return new SyncStats(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                        Integer.parseInt(parts[3]), Integer.parseInt(parts[4]), Integer.parseInt(parts[5]),
+                        Integer.parseInt(parts[6]), Boolean.parseBoolean(parts[7]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "sync " + (complete ? "complete" : "incomplete") + " in " + durationMs + "ms: "
+                    + bytesFetched + "B fetched, " + recordsFetched + " records, " + recordsChanged + " changed, "
+                    + recordsRemoved + " removed, catalog " + catalogSize;
+        }
+    }
+
+    // --- Meta ---
+
+    private void open() {
+        try {
+            store.open();
+            if (metaFile.exists()) {
+                try (DataInputStream in = new DataInputStream(new FileInputStream(metaFile))) {
+                    in.readLong(); // time of that crawl
+                    complete = true;
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Could not open catalog mirror", e);
+        }
+        opened = true;
+    }
+
+    // Only written after a complete crawl, so its presence means the mirror can answer queries
+    private void writeMeta(long time) throws IOException {
+        File temp = new File(metaFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+            out.writeLong(time);
+        }
+        if (!temp.renameTo(metaFile)) throw new IOException("Could not replace catalog meta");
+        complete = true;
+    }
+
+    // State of one sync
+    private static class Crawl {
+        final long startedAt = System.currentTimeMillis();
+        final long bytesAtStart;
+        // Main thread
+        final List<OnSyncFinishedListener> listeners = new ArrayList<>();
+        final Queue<Character> pending = new ArrayDeque<>();
+        final IntSet seenIds = new IntSet(512);
+        int inFlight = 0;
+        int fetched = 0;
+        boolean failed = false;
+        // diskSerial
+        int changed = 0;
+        boolean storeFailed = false;
+
+        Crawl(long bytesAtStart) {
+            this.bytesAtStart = bytesAtStart;
+            for (int i = 0; i < LETTERS.length(); i++) pending.add(LETTERS.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package com.example.cookbook.data.catalog;
+
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.model.Ingredient;
+import com.example.cookbook.model.RecipeFilter;
+import com.example.cookbook.util.IntSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+// The whole TheMealDB catalog in two files:
+//  - catalog.dat: append-only records; a changed meal gets a new record and the old one is dead space
+//  - catalog.idx: id -> offset and content hash of each meal's newest record, loaded into sorted arrays
+// Reads go through a read-only memory-mapped buffer and decode only the fields a query looks at,
+// so the catalog itself never sits on the heap.
+//
+// Record: int length | int id | str title | str category | str area | str imageUrl
+//         | short ingredientCount | (str name | str amount | str unit)* | str instructions
+// str:    int byteLength (-1 for null) | UTF-8 bytes
+// A record holding only the id (length 4) is a tombstone for a meal removed upstream.
+// Syncs compare ApiRecipe.contentHash() with the indexed hash, so unchanged meals are never rewritten.
+//
+// Queries may run on any thread. Writes must come from one thread at a time (CatalogMirror uses diskSerial).
+class CatalogStore {
+
+    private static final String DATA_FILE = "catalog.dat";
+    private static final String INDEX_FILE = "catalog.idx";
+    private static final int INDEX_MAGIC = 0x43544c32;
+
+    // Compact once dead records take more than half the file
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    private final File dataFile;
+    private final File indexFile;
+
+    // Replaced as a whole after every write, so readers always see a consistent buffer + index
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    CatalogStore(File dir) {
+        dir.mkdirs();
+        this.dataFile = new File(dir, DATA_FILE);
+        this.indexFile = new File(dir, INDEX_FILE);
+    }
+
+    // Loads the index (rebuilt from catalog.dat if missing or behind) and maps the data file
+    void open() throws IOException {
+        long dataLength = dataFile.exists() ? dataFile.length() : 0;
+        TreeMap<Integer, IndexEntry> index = readIndex(dataLength);
+        if (index == null) {
+            index = rebuildIndex();
+            writeIndex(index);
+        }
+        publish(index);
+    }
+
+    int size() {
+        return snapshot.ids.length;
+    }
+
+    // --- Queries ---
+
+    ApiRecipe get(String id) {
+        Snapshot current = snapshot;
+        int mealId = parseId(id);
+        int slot = mealId < 0 ? -1 : Arrays.binarySearch(current.ids, mealId);
+        return slot >= 0 ? current.cursor(current.offsets[slot]).readRecipe() : null;
+    }
+
+    // Name contains the query, like search.php?s=
+    List<ApiRecipe> searchByName(String query) {
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        Snapshot current = snapshot;
+        List<ApiRecipe> results = new ArrayList<>();
+        for (int offset : current.offsets) {
+            Cursor cursor = current.cursor(offset);
+            String title = cursor.readString();
+            if (title != null && title.toLowerCase(Locale.ROOT).contains(needle)) {
+                results.add(current.cursor(offset).readRecipe());
+            }
+        }
+        return sortedByTitle(results);
+    }
+
+    // Exact (case-insensitive) category / area / ingredient match, like filter.php
+    List<ApiRecipe> filter(RecipeFilter.FilterType type, String value) {
+        if (type == RecipeFilter.FilterType.SEARCH) return searchByName(value);
+        String wanted = normalise(value);
+        Snapshot current = snapshot;
+        List<ApiRecipe> results = new ArrayList<>();
+        for (int offset : current.offsets) {
+            if (matches(current.cursor(offset), type, wanted)) {
+                results.add(current.cursor(offset).readRecipe());
+            }
+        }
+        return sortedByTitle(results);
+    }
+
+    // Distinct meals in random order
+    List<ApiRecipe> random(int count, Random random) {
+        Snapshot current = snapshot;
+        int[] offsets = current.offsets.clone();
+        int picks = Math.min(count, offsets.length);
+        List<ApiRecipe> results = new ArrayList<>(picks);
+        for (int i = 0; i < picks; i++) {
+            int j = i + random.nextInt(offsets.length - i);
+            int swap = offsets[i];
+            offsets[i] = offsets[j];
+            offsets[j] = swap;
+            results.add(current.cursor(offsets[i]).readRecipe());
+        }
+        return results;
+    }
+
+    // --- Writes ---
+
+    // Appends a record for every meal that is new or whose content hash changed.
+    // Returns the number of records written; they are visible to queries when this returns.
+    int append(List<ApiRecipe> recipes) throws IOException {
+        Snapshot current = snapshot;
+        TreeMap<Integer, IndexEntry> index = current.toMap();
+        long length = dataFile.exists() ? dataFile.length() : 0;
+        int written = 0;
+
+        try (FileOutputStream file = new FileOutputStream(dataFile, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            for (ApiRecipe recipe : recipes) {
+                int id = parseId(recipe.getId());
+                if (id < 0) continue;
+                long hash = recipe.contentHash();
+                IndexEntry existing = index.get(id);
+                if (existing != null && existing.hash == hash) continue;
+                byte[] record = encode(id, recipe);
+                if (length + 4 + record.length > Integer.MAX_VALUE) throw new IOException("Catalog file too large");
+
+                out.writeInt(record.length);
+                out.write(record);
+                index.put(id, new IndexEntry((int) length, hash));
+                length += 4 + record.length;
+                written++;
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        if (written > 0) {
+            writeIndex(index);
+            publish(index);
+        }
+        return written;
+    }
+
+    // Drops every meal not in the given set (removed upstream) by appending tombstones
+    int retainOnly(IntSet liveIds) throws IOException {
+        TreeMap<Integer, IndexEntry> index = snapshot.toMap();
+        List<Integer> removed = new ArrayList<>();
+        for (Integer id : index.keySet()) {
+            if (!liveIds.contains(id)) removed.add(id);
+        }
+        if (removed.isEmpty()) return 0;
+
+        try (FileOutputStream file = new FileOutputStream(dataFile, true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            for (Integer id : removed) {
+                out.writeInt(4);
+                out.writeInt(id);
+                index.remove(id);
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        writeIndex(index);
+        publish(index);
+        return removed.size();
+    }
+
+    // Rewrites catalog.dat with live records only when dead space dominates
+    boolean compactIfNeeded() throws IOException {
+        Snapshot current = snapshot;
+        long length = dataFile.exists() ? dataFile.length() : 0;
+        long live = current.liveBytes();
+        if (length < MIN_COMPACT_BYTES || live * 2 > length) return false;
+
+        File temp = new File(dataFile.getPath() + ".tmp");
+        TreeMap<Integer, IndexEntry> index = new TreeMap<>();
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            int offset = 0;
+            for (int i = 0; i < current.ids.length; i++) {
+                byte[] record = current.recordBytes(current.offsets[i]);
+                out.writeInt(record.length);
+                out.write(record);
+                index.put(current.ids[i], new IndexEntry(offset, current.hashes[i]));
+                offset += 4 + record.length;
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        // Until the index is rewritten its data length no longer matches, so open() would rebuild it
+        if (!temp.renameTo(dataFile)) {
+            temp.delete();
+            throw new IOException("Could not replace catalog file");
+        }
+        writeIndex(index);
+        publish(index);
+        return true;
+    }
+
+    // --- Index ---
+
+    // Null when the index is missing, unreadable or does not describe the current data file
+    private TreeMap<Integer, IndexEntry> readIndex(long dataLength) {
+        if (!indexFile.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readLong() != dataLength) return null;
+            int count = in.readInt();
+            TreeMap<Integer, IndexEntry> index = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                index.put(id, new IndexEntry(in.readInt(), in.readLong()));
+            }
+            return index;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeIndex(TreeMap<Integer, IndexEntry> index) throws IOException {
+        File temp = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(dataFile.exists() ? dataFile.length() : 0);
+            out.writeInt(index.size());
+            for (Map.Entry<Integer, IndexEntry> entry : index.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().offset);
+                out.writeLong(entry.getValue().hash);
+            }
+        }
+        if (!temp.renameTo(indexFile)) {
+            throw new IOException("Could not replace catalog index");
+        }
+    }
+
+    // Scans catalog.dat; the newest record of each id wins. A torn record at the end is cut off.
+    private TreeMap<Integer, IndexEntry> rebuildIndex() throws IOException {
+        TreeMap<Integer, IndexEntry> index = new TreeMap<>();
+        if (!dataFile.exists()) return index;
+        try (RandomAccessFile file = new RandomAccessFile(dataFile, "rw")) {
+            long length = file.length();
+            long offset = 0;
+            while (offset + 8 <= length) {
+                file.seek(offset);
+                int recordLength = file.readInt();
+                if (recordLength < 4 || offset + 4 + recordLength > length) break;
+                byte[] record = new byte[recordLength];
+                file.readFully(record);
+                int id = ByteBuffer.wrap(record).getInt();
+                if (recordLength == 4) {
+                    index.remove(id);
+                } else {
+                    ByteBuffer view = ByteBuffer.wrap(record);
+                    view.position(4);
+                    index.put(id, new IndexEntry((int) offset, new Cursor(view, id).readRecipe().contentHash()));
+                }
+                offset += 4 + recordLength;
+            }
+            if (offset < length) file.setLength(offset);
+        }
+        return index;
+    }
+
+    private void publish(TreeMap<Integer, IndexEntry> index) throws IOException {
+        int[] ids = new int[index.size()];
+        int[] offsets = new int[index.size()];
+        long[] hashes = new long[index.size()];
+        int i = 0;
+        for (Map.Entry<Integer, IndexEntry> entry : index.entrySet()) {
+            ids[i] = entry.getKey();
+            offsets[i] = entry.getValue().offset;
+            hashes[i] = entry.getValue().hash;
+            i++;
+        }
+
+        MappedByteBuffer buffer = null;
+        if (dataFile.exists() && dataFile.length() > 0) {
+            try (RandomAccessFile file = new RandomAccessFile(dataFile, "r");
+                 FileChannel channel = file.getChannel()) {
+                // The mapping stays valid after the channel is closed
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        snapshot = new Snapshot(buffer, ids, offsets, hashes);
+    }
+
+    // --- Encoding ---
+
+    private static byte[] encode(int id, ApiRecipe recipe) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(id);
+        writeString(out, recipe.getTitle());
+        writeString(out, recipe.getCategory());
+        writeString(out, recipe.getArea());
+        writeString(out, recipe.getImageUrl());
+        List<Ingredient> ingredients = recipe.getIngredients();
+        out.writeShort(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            writeString(out, ingredient.getName());
+            writeString(out, ingredient.getAmount());
+            writeString(out, ingredient.getUnit());
+        }
+        writeString(out, recipe.getInstructions());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static boolean matches(Cursor cursor, RecipeFilter.FilterType type, String wanted) {
+        cursor.skipString(); // title
+        if (type == RecipeFilter.FilterType.CATEGORY) return wanted.equals(normalise(cursor.readString()));
+        cursor.skipString(); // category
+        if (type == RecipeFilter.FilterType.AREA) return wanted.equals(normalise(cursor.readString()));
+        cursor.skipString(); // area
+        cursor.skipString(); // image
+        int count = cursor.readShort();
+        for (int i = 0; i < count; i++) {
+            if (wanted.equals(normalise(cursor.readString()))) return true;
+            cursor.skipString();
+            cursor.skipString();
+        }
+        return false;
+    }
+
+    // filter.php accepts "chicken_breast" for "Chicken Breast"
+    private static String normalise(String value) {
+        return value == null ? "" : value.replace('_', ' ').trim().toLowerCase(Locale.ROOT);
+    }
+
+    static int parseId(String id) {
+        if (id == null) return -1;
+        try {
+            return Integer.parseInt(id.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static List<ApiRecipe> sortedByTitle(List<ApiRecipe> recipes) {
+        Collections.sort(recipes, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(
+                a.getTitle() != null ? a.getTitle() : "", b.getTitle() != null ? b.getTitle() : ""));
+        return recipes;
+    }
+
+    private static class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(null, new int[0], new int[0], new long[0]);
+
+        final MappedByteBuffer buffer;
+        final int[] ids;      // sorted
+        final int[] offsets;  // record start (its length prefix) for ids[i]
+        final long[] hashes;  // content hash of that record
+
+        Snapshot(MappedByteBuffer buffer, int[] ids, int[] offsets, long[] hashes) {
+            this.buffer = buffer;
+            this.ids = ids;
+            this.offsets = offsets;
+            this.hashes = hashes;
+        }
+
+        // Positioned after the record's length and id
+        Cursor cursor(int offset) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(offset + 8);
+            return new Cursor(view, buffer.getInt(offset + 4));
+        }
+
+        byte[] recordBytes(int offset) {
+            ByteBuffer view = buffer.duplicate();
+            byte[] record = new byte[buffer.getInt(offset)];
+            view.position(offset + 4);
+            view.get(record);
+            return record;
+        }
+
+        long liveBytes() {
+            long total = 0;
+            for (int offset : offsets) total += 4 + buffer.getInt(offset);
+            return total;
+        }
+
+        TreeMap<Integer, IndexEntry> toMap() {
+            TreeMap<Integer, IndexEntry> index = new TreeMap<>();
+            for (int i = 0; i < ids.length; i++) index.put(ids[i], new IndexEntry(offsets[i], hashes[i]));
+            return index;
+        }
+    }
+
+    private static class IndexEntry {
+        final int offset;
+        final long hash;
+
+        IndexEntry(int offset, long hash) {
+            this.offset = offset;
+            this.hash = hash;
+        }
+    }
+
+    // Sequential reader over one record
+    private static class Cursor {
+        private final ByteBuffer view;
+        private final int id;
+
+        Cursor(ByteBuffer view, int id) {
+            this.view = view;
+            this.id = id;
+        }
+
+        String readString() {
+            int length = view.getInt();
+            if (length < 0) return null;
+            byte[] utf8 = new byte[length];
+            view.get(utf8);
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        void skipString() {
+            int length = view.getInt();
+            if (length > 0) view.position(view.position() + length);
+        }
+
+        int readShort() {
+            return view.getShort() & 0xffff;
+        }
+
+        ApiRecipe readRecipe() {
+            String title = readString();
+            String category = readString();
+            String area = readString();
+            String imageUrl = readString();
+            int count = readShort();
+            List<Ingredient> ingredients = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ingredients.add(new Ingredient(readString(), readString(), readString()));
+            }
+            String instructions = readString();
+            return new ApiRecipe(String.valueOf(id), title, imageUrl, instructions, category, area, ingredients);
+        }
+    }
+}
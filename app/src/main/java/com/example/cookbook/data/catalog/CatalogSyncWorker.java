@@ -0,0 +1,77 @@
+package com.example.cookbook.data.catalog;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.cookbook.util.AppExecutors;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Daily CatalogMirror sync, only on an unmetered network while the device is idle.
+// The run's SyncStats are returned as output data (and kept in the mirror's sync history).
+public class CatalogSyncWorker extends Worker {
+
+    private static final String WORK_NAME = "catalog-delta-sync";
+    private static final long SYNC_TIMEOUT_MINUTES = 10;
+
+    public static final String KEY_DURATION_MS = "durationMs";
+    public static final String KEY_BYTES_FETCHED = "bytesFetched";
+    public static final String KEY_RECORDS_FETCHED = "recordsFetched";
+    public static final String KEY_RECORDS_CHANGED = "recordsChanged";
+    public static final String KEY_RECORDS_REMOVED = "recordsRemoved";
+
+    public CatalogSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresDeviceIdle(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(CatalogSyncWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        CountDownLatch done = new CountDownLatch(1);
+        CatalogMirror.SyncStats[] result = new CatalogMirror.SyncStats[1];
+        // The crawl is driven from the main thread; this worker thread just waits for it
+        AppExecutors.getInstance().main().execute(() -> CatalogMirror.getInstance().sync(stats -> {
+            result[0] = stats;
+            done.countDown();
+        }));
+
+        try {
+            if (!done.await(SYNC_TIMEOUT_MINUTES, TimeUnit.MINUTES)) return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+
+        CatalogMirror.SyncStats stats = result[0];
+        if (!stats.isComplete()) return Result.retry();
+        return Result.success(new Data.Builder()
+                .putLong(KEY_DURATION_MS, stats.getDurationMs())
+                .putLong(KEY_BYTES_FETCHED, stats.getBytesFetched())
+                .putInt(KEY_RECORDS_FETCHED, stats.getRecordsFetched())
+                .putInt(KEY_RECORDS_CHANGED, stats.getRecordsChanged())
+                .putInt(KEY_RECORDS_REMOVED, stats.getRecordsRemoved())
+                .build());
+    }
+}
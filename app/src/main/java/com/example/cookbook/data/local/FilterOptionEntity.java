@@ -0,0 +1,23 @@
+package com.example.cookbook.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+// One row of the category / area / ingredient lists
+@Entity(tableName = "filter_options", primaryKeys = {"kind", "position"})
+public class FilterOptionEntity {
+    public static final String KIND_CATEGORY = "category";
+    public static final String KIND_AREA = "area";
+    public static final String KIND_INGREDIENT = "ingredient";
+
+    @NonNull
+    public String kind = "";
+    public int position;
+
+    public String itemId;
+    public String name;
+    public String thumbnail;
+    public String description;
+    public String type;
+    public long fetchedAt;
+}
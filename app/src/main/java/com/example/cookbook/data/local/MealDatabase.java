@@ -0,0 +1,28 @@
+package com.example.cookbook.data.local;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+// Offline copy of everything received from TheMealDB. It is a cache, so schema changes just rebuild it.
+@Database(entities = {MealEntity.class, MealIngredientEntity.class, QueryResultEntity.class, FilterOptionEntity.class},
+        version = 2, exportSchema = false)
+public abstract class MealDatabase extends RoomDatabase {
+
+    private static final String NAME = "mealdb_cache.db";
+
+    private static MealDatabase instance;
+
+    public abstract RecipeCacheDao recipeCacheDao();
+
+    public static synchronized MealDatabase getInstance(Context context) {
+        if (instance == null) {
+            instance = Room.databaseBuilder(context.getApplicationContext(), MealDatabase.class, NAME)
+                    .fallbackToDestructiveMigration()
+                    .build();
+        }
+        return instance;
+    }
+}
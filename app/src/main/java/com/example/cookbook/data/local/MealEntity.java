@@ -0,0 +1,24 @@
+package com.example.cookbook.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// One TheMealDB meal. Summaries from filter.php only fill id, title and imageUrl (hasDetails = false)
+// and never overwrite a stored full record.
+@Entity(tableName = "meals")
+public class MealEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+
+    public String title;
+    public String imageUrl;
+    public String instructions;
+    public String category;
+    public String area;
+    public boolean hasDetails;
+    // ApiRecipe.contentHash() of the stored full record
+    public long contentHash;
+    public long fetchedAt;
+}
@@ -0,0 +1,6 @@
+package com.example.cookbook.data.local;
+
+public class MealHash {
+    public String id;
+    public long contentHash;
+}
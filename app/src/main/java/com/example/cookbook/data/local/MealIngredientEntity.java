@@ -0,0 +1,22 @@
+package com.example.cookbook.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+// Ingredient slot of a stored meal, in slot order
+@Entity(tableName = "meal_ingredients",
+        primaryKeys = {"mealId", "position"},
+        foreignKeys = @ForeignKey(entity = MealEntity.class, parentColumns = "id", childColumns = "mealId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index("name")})
+public class MealIngredientEntity {
+    @NonNull
+    public String mealId = "";
+    public int position;
+
+    public String name;
+    public String amount;
+    public String unit;
+}
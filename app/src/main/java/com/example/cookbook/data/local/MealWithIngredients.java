@@ -0,0 +1,15 @@
+package com.example.cookbook.data.local;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+
+import java.util.List;
+
+public class MealWithIngredients {
+    @Embedded
+    public MealEntity meal;
+
+    // Not ordered - sort by position
+    @Relation(parentColumn = "id", entityColumn = "mealId")
+    public List<MealIngredientEntity> ingredients;
+}
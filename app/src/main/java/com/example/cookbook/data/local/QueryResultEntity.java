@@ -0,0 +1,17 @@
+package com.example.cookbook.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// Answer of one search.php / filter.php call: the meal ids in response order
+@Entity(tableName = "query_results")
+public class QueryResultEntity {
+    @PrimaryKey
+    @NonNull
+    public String queryKey = "";
+
+    // Comma separated
+    public String mealIds;
+    public long fetchedAt;
+}
@@ -0,0 +1,80 @@
+package com.example.cookbook.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Upsert;
+
+import java.util.List;
+
+@Dao
+public abstract class RecipeCacheDao {
+
+    // --- Meals ---
+
+    @Transaction
+    @Query("SELECT * FROM meals WHERE id IN (:ids)")
+    public abstract List<MealWithIngredients> getMeals(List<String> ids);
+
+    @Transaction
+    @Query("SELECT * FROM meals WHERE id = :id AND hasDetails = 1")
+    public abstract MealWithIngredients getFullMeal(String id);
+
+    @Query("SELECT id, contentHash FROM meals WHERE id IN (:ids) AND hasDetails = 1")
+    public abstract List<MealHash> getContentHashes(List<String> ids);
+
+    // Confirms unchanged records as fresh without rewriting them
+    @Query("UPDATE meals SET fetchedAt = :fetchedAt WHERE id IN (:ids)")
+    public abstract void touchMeals(List<String> ids, long fetchedAt);
+
+    // Summaries must not clobber full records
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    public abstract void insertSummaries(List<MealEntity> meals);
+
+    @Upsert
+    abstract void upsertMeals(List<MealEntity> meals);
+
+    @Query("DELETE FROM meal_ingredients WHERE mealId IN (:mealIds)")
+    abstract void deleteIngredients(List<String> mealIds);
+
+    @Insert
+    abstract void insertIngredients(List<MealIngredientEntity> ingredients);
+
+    // Upsert keeps the row, so the old ingredient slots are dropped by hand
+    @Transaction
+    public void saveFullMeals(List<MealEntity> meals, List<String> mealIds, List<MealIngredientEntity> ingredients) {
+        upsertMeals(meals);
+        deleteIngredients(mealIds);
+        insertIngredients(ingredients);
+    }
+
+    // --- Query results ---
+
+    @Query("SELECT * FROM query_results WHERE queryKey = :queryKey")
+    public abstract QueryResultEntity getQueryResult(String queryKey);
+
+    @Upsert
+    public abstract void putQueryResult(QueryResultEntity result);
+
+    @Query("DELETE FROM query_results WHERE fetchedAt < :cutoff")
+    public abstract int deleteQueryResultsOlderThan(long cutoff);
+
+    // --- Filter lists ---
+
+    @Query("SELECT * FROM filter_options WHERE kind = :kind ORDER BY position")
+    public abstract List<FilterOptionEntity> getFilterOptions(String kind);
+
+    @Query("DELETE FROM filter_options WHERE kind = :kind")
+    abstract void deleteFilterOptions(String kind);
+
+    @Insert
+    abstract void insertFilterOptions(List<FilterOptionEntity> options);
+
+    @Transaction
+    public void replaceFilterOptions(String kind, List<FilterOptionEntity> options) {
+        deleteFilterOptions(kind);
+        insertFilterOptions(options);
+    }
+}
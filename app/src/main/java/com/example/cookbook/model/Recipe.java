@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.ArrayList;
 import com.google.firebase.firestore.PropertyName;
+import com.google.firebase.firestore.ServerTimestamp;
+import java.util.Date;
 
 
 public class Recipe implements Serializable {
@@ -19,6 +21,9 @@ public class Recipe implements Serializable {
     private boolean favorite;
     private long createdAt;
     private boolean importedFromApi;
+    // Set by Firestore on every write; the search service follows changes by it
+    @ServerTimestamp
+    private Date updatedAt;
 
 
     public Recipe() {
@@ -99,4 +104,10 @@ public class Recipe implements Serializable {
     
 
     public void setImportedFromApi(boolean importedFromApi) { this.importedFromApi = importedFromApi; }
-} 
\ No newline at end of file
+
+
+    public Date getUpdatedAt() { return updatedAt; }
+    
+
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -13,9 +13,17 @@ public class RecipeFilter {
         SEARCH
     }
 
+    // How several values / combined filters are joined
+    public enum Match {
+        ALL, // recipe must match every value (intersection)
+        ANY  // recipe may match any value (union)
+    }
+
     private FilterType type;
     private String value;
     private List<String> values; // support for multiple selections
+    private Match match = Match.ALL;
+    private List<RecipeFilter> combined = new ArrayList<>(); // filters of other types, e.g. category + area
 
     // constructor for single value
     public RecipeFilter(FilterType type, String value) {
@@ -38,6 +46,36 @@ public class RecipeFilter {
     public FilterType getType() { return type; }
     public String getValue() { return value; }
     public List<String> getValues() { return values; }
+    public Match getMatch() { return match; }
+    public List<RecipeFilter> getCombined() { return combined; }
+
+    public RecipeFilter withMatch(Match match) {
+        this.match = match;
+        return this;
+    }
+
+    // Adds a filter of another type, joined with this filter's match mode
+    public RecipeFilter and(RecipeFilter other) {
+        if (other != null) combined.add(other);
+        return this;
+    }
+
+    // More than one filter.php call is needed to answer this filter
+    public boolean isMultiValue() {
+        return getTerms().size() > 1;
+    }
+
+    // Every (type, single value) pair in this filter, including combined ones
+    public List<RecipeFilter> getTerms() {
+        List<RecipeFilter> terms = new ArrayList<>();
+        for (String v : values) {
+            if (v != null && !v.trim().isEmpty()) terms.add(new RecipeFilter(type, v));
+        }
+        for (RecipeFilter other : combined) {
+            terms.addAll(other.getTerms());
+        }
+        return terms;
+    }
 
 
     public static RecipeFilter byCategory(String category) {
@@ -52,6 +90,10 @@ public class RecipeFilter {
         return new RecipeFilter(FilterType.INGREDIENT, ingredient);
     }
 
+    public static RecipeFilter byIngredients(List<String> ingredients, Match match) {
+        return new RecipeFilter(FilterType.INGREDIENT, ingredients).withMatch(match);
+    }
+
     public static RecipeFilter bySearch(String query) {
         return new RecipeFilter(FilterType.SEARCH, query);
     }
@@ -24,6 +24,7 @@ import com.example.cookbook.databinding.ActivityAddRecipeBinding;
 import com.example.cookbook.model.Ingredient;
 import com.example.cookbook.model.Recipe;
 import com.example.cookbook.ui.adapters.IngredientAdapter;
+import com.example.cookbook.util.AppExecutors;
 import com.example.cookbook.util.FirebaseManager;
 
 import java.util.ArrayList;
@@ -38,6 +39,7 @@ public class AddRecipeActivity extends AppCompatActivity implements IngredientAd
 
     private ActivityAddRecipeBinding binding;
     private FirebaseManager firebaseManager;
+    private AppExecutors executors;
     private Uri selectedImageUri;
     private List<Ingredient> ingredients = new ArrayList<>();
     private Recipe editingRecipe = null;
@@ -59,6 +61,7 @@ public class AddRecipeActivity extends AppCompatActivity implements IngredientAd
         }
 
         firebaseManager = FirebaseManager.getInstance();
+        executors = AppExecutors.getInstance();
 
         // Initialize Cloudinary - wrapped in try-catch in case it's already initialized
         try {
@@ -216,12 +219,13 @@ public class AddRecipeActivity extends AppCompatActivity implements IngredientAd
                     public void onSuccess(String requestId, Map resultData) {
                         String imageUrl = (String) resultData.get("secure_url");
                         Log.d(TAG, "Image uploaded: " + imageUrl);
-                        saveDataToFirestore(imageUrl);
+                        // Cloudinary calls back on its own worker thread
+                        executors.main().execute(() -> saveDataToFirestore(imageUrl));
                     }
 
                     @Override
                     public void onError(String requestId, ErrorInfo error) {
-                        runOnUiThread(() -> {
+                        executors.main().execute(() -> {
                             binding.progressBar.setVisibility(View.GONE);
                             binding.btnSave.setEnabled(true);
                             Toast.makeText(AddRecipeActivity.this, "Image upload failed", Toast.LENGTH_SHORT).show();
@@ -13,6 +13,10 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 
 import com.example.cookbook.R;
+import com.example.cookbook.data.FilterOptionsRepository;
+import com.example.cookbook.data.RandomRecipeBuffer;
+import com.example.cookbook.data.catalog.CatalogSyncWorker;
+import com.example.cookbook.ui.fragments.DiscoverFragment;
 import com.example.cookbook.ui.fragments.FavoritesFragment;
 import com.example.cookbook.ui.fragments.HomeFragment;
 import com.example.cookbook.ui.fragments.ProfileFragment;
@@ -118,6 +122,13 @@ public class MainActivity extends AppCompatActivity implements NavigationBarView
         BottomNavigationView bottomNavigation = findViewById(R.id.bottom_navigation);
         bottomNavigation.setOnItemSelectedListener(this);
 
+        // Warm filter lists in the background so the filter dialog opens instantly
+        FilterOptionsRepository.getInstance().warmUp();
+        // Keep the on-device catalog current so searches can skip the network
+        CatalogSyncWorker.schedule(this);
+        // Start filling the Discover feed before it is opened
+        RandomRecipeBuffer.getInstance().warmUp();
+
         // Load Home Fragment by default on first launch
         if (savedInstanceState == null) {
             loadFragment(new HomeFragment());
@@ -149,6 +160,8 @@ public class MainActivity extends AppCompatActivity implements NavigationBarView
         // Match IDs with bottom_navigation_menu.xml
         if (itemId == R.id.navigation_home) {
             fragment = new HomeFragment();
+        } else if (itemId == R.id.navigation_discover) {
+            fragment = new DiscoverFragment();
         } else if (itemId == R.id.navigation_favorites) {
             fragment = new FavoritesFragment();
         } else if (itemId == R.id.navigation_profile) {
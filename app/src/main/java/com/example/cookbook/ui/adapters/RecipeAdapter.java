@@ -10,15 +10,20 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.example.cookbook.R;
+import com.example.cookbook.data.RecipeDetailCache;
+import com.example.cookbook.data.RecipeDetailPrefetcher;
 import com.example.cookbook.model.Recipe;
 import com.example.cookbook.ui.activities.RecipeDetailActivity;
 import com.example.cookbook.util.FirebaseManager;
 
 import java.util.List;
+import java.util.Objects;
 
 public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeViewHolder> {
 
@@ -28,6 +33,17 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
     private final FirebaseManager firebaseManager;
     private final OnFavoriteChangedListener favoriteChangedListener;
 
+    // Full details for visible API rows are fetched ahead of the tap
+    private final RecipeDetailCache detailCache = RecipeDetailCache.getInstance();
+    private final RecipeDetailPrefetcher prefetcher = new RecipeDetailPrefetcher();
+    private RecyclerView attachedRecyclerView;
+    private final RecyclerView.OnScrollListener prefetchScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            prefetchVisibleRows();
+        }
+    };
+
     // Interface to notify when favorite status changes
     public interface OnFavoriteChangedListener {
         void onFavoriteChanged();
@@ -66,6 +82,89 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
     public void updateRecipes(List<Recipe> newRecipes) {
         this.recipes = newRecipes;
         notifyDataSetChanged();
+        // Visible positions are only known after the next layout pass
+        if (attachedRecyclerView != null) attachedRecyclerView.post(this::prefetchVisibleRows);
+    }
+
+    // Swaps in a new list with minimal item changes, so rows already on screen stay put
+    // while later search sources are merged in
+    public void submitRecipes(List<Recipe> newRecipes) {
+        List<Recipe> oldRecipes = this.recipes;
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new RecipeDiffCallback(oldRecipes, newRecipes));
+        this.recipes = newRecipes;
+        diff.dispatchUpdatesTo(this);
+        if (attachedRecyclerView != null) attachedRecyclerView.post(this::prefetchVisibleRows);
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        attachedRecyclerView = recyclerView;
+        recyclerView.addOnScrollListener(prefetchScrollListener);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        recyclerView.removeOnScrollListener(prefetchScrollListener);
+        attachedRecyclerView = null;
+        prefetcher.cancelAll();
+    }
+
+    private void prefetchVisibleRows() {
+        if (attachedRecyclerView == null
+                || !(attachedRecyclerView.getLayoutManager() instanceof LinearLayoutManager)) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) attachedRecyclerView.getLayoutManager();
+        prefetcher.onVisibleRangeChanged(recipes,
+                layoutManager.findFirstVisibleItemPosition(), layoutManager.findLastVisibleItemPosition());
+    }
+
+    private static class RecipeDiffCallback extends DiffUtil.Callback {
+        private final List<Recipe> oldList;
+        private final List<Recipe> newList;
+
+        RecipeDiffCallback(List<Recipe> oldList, List<Recipe> newList) {
+            this.oldList = oldList;
+            this.newList = newList;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            Recipe oldRecipe = oldList.get(oldPosition);
+            Recipe newRecipe = newList.get(newPosition);
+            // Local and API recipes can share an id format, so the source is part of the identity
+            return oldRecipe.isImportedFromApi() == newRecipe.isImportedFromApi()
+                    && Objects.equals(oldRecipe.getId(), newRecipe.getId())
+                    && (oldRecipe.getId() != null || Objects.equals(oldRecipe.getTitle(), newRecipe.getTitle()));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            Recipe oldRecipe = oldList.get(oldPosition);
+            Recipe newRecipe = newList.get(newPosition);
+            // Only what bind() shows
+            return Objects.equals(oldRecipe.getTitle(), newRecipe.getTitle())
+                    && Objects.equals(oldRecipe.getCategory(), newRecipe.getCategory())
+                    && Objects.equals(oldRecipe.getImageUrl(), newRecipe.getImageUrl())
+                    && oldRecipe.isFavorite() == newRecipe.isFavorite()
+                    && ingredientCount(oldRecipe) == ingredientCount(newRecipe);
+        }
+
+        private static int ingredientCount(Recipe recipe) {
+            return recipe.getIngredients() != null ? recipe.getIngredients().size() : 0;
+        }
     }
 
     class RecipeViewHolder extends RecyclerView.ViewHolder {
@@ -109,12 +208,15 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
 
             // 1. Item Click (Open Details)
             itemView.setOnClickListener(v -> {
-                // If it's an API recipe with missing details, fetch them first
-                boolean missingDetails = recipe.isImportedFromApi() &&
-                        (recipe.getInstructions() == null || recipe.getInstructions().length() < 10);
-
-                if (missingDetails) {
-                    fetchAndOpenRecipe(recipe);
+                // If it's an API recipe with missing details, use the prefetched copy or fetch them first
+                if (RecipeDetailCache.needsFullDetails(recipe)) {
+                    Recipe cached = detailCache.get(recipe.getId());
+                    if (cached != null) {
+                        cached.setFavorite(recipe.isFavorite());
+                        openDetailActivity(cached);
+                    } else {
+                        fetchAndOpenRecipe(recipe);
+                    }
                 } else {
                     openDetailActivity(recipe);
                 }
@@ -146,6 +248,7 @@ public class RecipeAdapter extends RecyclerView.Adapter<RecipeAdapter.RecipeView
                 @Override
                 public void onRecipesLoaded(List<Recipe> recipes) {
                     if (recipes != null && !recipes.isEmpty()) {
+                        detailCache.put(recipes.get(0));
                         openDetailActivity(recipes.get(0));
                     } else {
                         Toast.makeText(context, "Recipe details not found", Toast.LENGTH_SHORT).show();
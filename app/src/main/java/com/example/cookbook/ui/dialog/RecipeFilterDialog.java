@@ -3,7 +3,6 @@ package com.example.cookbook.ui.dialog;
 import android.app.Dialog;
 import android.content.Context;
 import android.os.Bundle;
-import android.os.Handler;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -15,6 +14,7 @@ import android.widget.Spinner;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.DialogFragment;
 
@@ -22,8 +22,8 @@ import com.example.cookbook.R;
 import com.example.cookbook.api.model.AreaResponse;
 import com.example.cookbook.api.model.CategoryResponse;
 import com.example.cookbook.api.model.IngredientResponse;
+import com.example.cookbook.data.FilterOptionsRepository;
 import com.example.cookbook.model.RecipeFilter;
-import com.example.cookbook.util.FirebaseManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,13 +31,17 @@ import java.util.List;
 public class RecipeFilterDialog extends DialogFragment {
 
     private static final String TAG = "RecipeFilterDialog";
-    private FirebaseManager firebaseManager;
+    private static final String ARG_ALLOWED_CATEGORIES = "allowed_categories";
+    // First entry of the optional spinners
+    private static final String NONE = "(none)";
+
     private OnFilterAppliedListener listener;
 
     // UI Components
-    private RadioGroup radioGroupFilterType, radioGroupDietary;
+    private RadioGroup radioGroupFilterType, radioGroupDietary, radioGroupIngredientMatch;
     private LinearLayout layoutCategory, layoutArea, layoutIngredient, layoutDietary;
     private Spinner spinnerCategory, spinnerArea, spinnerIngredient;
+    private Spinner spinnerCategoryArea, spinnerIngredient2; // optional second criterion
     private Button btnApply, btnCancel;
 
     // Data Lists
@@ -54,16 +58,12 @@ public class RecipeFilterDialog extends DialogFragment {
         void onFilterApplied(RecipeFilter filter);
     }
 
-    // Factory method to create a new instance with arguments
-    public static RecipeFilterDialog newInstance(
-            ArrayList<CategoryResponse.Category> categories,
-            ArrayList<AreaResponse.Area> areas,
-            ArrayList<IngredientResponse.Ingredient> ingredients) {
+    // Factory method to create a new instance.
+    // The option lists come from FilterOptionsRepository; only the (short) category whitelist is passed along.
+    public static RecipeFilterDialog newInstance(@Nullable ArrayList<String> allowedCategories) {
         RecipeFilterDialog dialog = new RecipeFilterDialog();
         Bundle args = new Bundle();
-        args.putSerializable("categories", categories);
-        args.putSerializable("areas", areas);
-        args.putSerializable("ingredients", ingredients);
+        args.putStringArrayList(ARG_ALLOWED_CATEGORIES, allowedCategories);
         dialog.setArguments(args);
         return dialog;
     }
@@ -82,25 +82,15 @@ public class RecipeFilterDialog extends DialogFragment {
     @NonNull
     @Override
     public Dialog onCreateDialog(Bundle savedInstanceState) {
-        firebaseManager = FirebaseManager.getInstance();
-
         AlertDialog.Builder builder = new AlertDialog.Builder(requireContext());
         LayoutInflater inflater = requireActivity().getLayoutInflater();
         View view = inflater.inflate(R.layout.dialog_recipe_filter, null);
 
         initViews(view);
-        loadArguments();
         setupListeners();
 
-        // Check if data is already loaded or fetch it
-        if (categoriesLoaded && areasLoaded && ingredientsLoaded) {
-            setupCategorySpinner();
-            setupAreaSpinner();
-            setupIngredientSpinner();
-            checkCanEnableApplyButton();
-        } else {
-            loadFilterOptions();
-        }
+        // Usually answered synchronously from memory
+        loadFilterOptions();
 
         builder.setView(view);
         return builder.create();
@@ -109,6 +99,7 @@ public class RecipeFilterDialog extends DialogFragment {
     private void initViews(View view) {
         radioGroupFilterType = view.findViewById(R.id.radioGroupFilterType);
         radioGroupDietary = view.findViewById(R.id.radioGroupDietary);
+        radioGroupIngredientMatch = view.findViewById(R.id.radioGroupIngredientMatch);
 
         layoutCategory = view.findViewById(R.id.layoutCategory);
         layoutArea = view.findViewById(R.id.layoutArea);
@@ -118,33 +109,13 @@ public class RecipeFilterDialog extends DialogFragment {
         spinnerCategory = view.findViewById(R.id.spinnerCategory);
         spinnerArea = view.findViewById(R.id.spinnerArea);
         spinnerIngredient = view.findViewById(R.id.spinnerIngredient);
+        spinnerCategoryArea = view.findViewById(R.id.spinnerCategoryArea);
+        spinnerIngredient2 = view.findViewById(R.id.spinnerIngredient2);
 
         btnApply = view.findViewById(R.id.btnApply);
         btnCancel = view.findViewById(R.id.btnCancel);
     }
 
-    private void loadArguments() {
-        Bundle args = getArguments();
-        if (args != null) {
-            ArrayList<CategoryResponse.Category> argCategories = (ArrayList<CategoryResponse.Category>) args.getSerializable("categories");
-            ArrayList<AreaResponse.Area> argAreas = (ArrayList<AreaResponse.Area>) args.getSerializable("areas");
-            ArrayList<IngredientResponse.Ingredient> argIngredients = (ArrayList<IngredientResponse.Ingredient>) args.getSerializable("ingredients");
-
-            if (argCategories != null && !argCategories.isEmpty()) {
-                categories = argCategories;
-                categoriesLoaded = true;
-            }
-            if (argAreas != null && !argAreas.isEmpty()) {
-                areas = argAreas;
-                areasLoaded = true;
-            }
-            if (argIngredients != null && !argIngredients.isEmpty()) {
-                ingredients = argIngredients;
-                ingredientsLoaded = true;
-            }
-        }
-    }
-
     private void setupListeners() {
         // Toggle visibility based on selected filter type
         radioGroupFilterType.setOnCheckedChangeListener((group, checkedId) -> {
@@ -175,73 +146,39 @@ public class RecipeFilterDialog extends DialogFragment {
     }
 
     private void loadFilterOptions() {
-        // Set a timeout to use default data if API is slow
-        new Handler().postDelayed(() -> {
-            if (!categoriesLoaded) {
-                categories = getDefaultCategories();
-                categoriesLoaded = true;
-                setupCategorySpinner();
-            }
-            if (!areasLoaded) {
-                areas = getDefaultAreas();
-                areasLoaded = true;
-                setupAreaSpinner();
-            }
-            if (!ingredientsLoaded) {
-                ingredients = getDefaultIngredients();
-                ingredientsLoaded = true;
-                setupIngredientSpinner();
-            }
-            checkCanEnableApplyButton();
-        }, 5000);
-
-        // Fetch Categories
-        firebaseManager.getCategories(new FirebaseManager.OnCategoriesLoadedListener() {
-            @Override
-            public void onCategoriesLoaded(List<CategoryResponse.Category> data) {
-                categories = data;
-                categoriesLoaded = true;
-                setupCategorySpinner();
-                checkCanEnableApplyButton();
+        FilterOptionsRepository.getInstance().getFilterOptions(options -> {
+            if (!isAdded()) return;
+
+            // Fall back to the built-in lists for anything the API could not provide
+            List<CategoryResponse.Category> loadedCategories = keepAllowedCategories(options.getCategories());
+            categories = loadedCategories.isEmpty() ? getDefaultCategories() : loadedCategories;
+            areas = options.getAreas().isEmpty() ? getDefaultAreas() : options.getAreas();
+            ingredients = options.getIngredients().isEmpty() ? getDefaultIngredients() : options.getIngredients();
+            if (options.getCategories().isEmpty() || options.getAreas().isEmpty() || options.getIngredients().isEmpty()) {
+                Log.w(TAG, "Using default filter options for lists that failed to load");
             }
 
-            @Override
-            public void onError(String error) {
-                Log.e(TAG, "Failed to load categories: " + error);
-            }
+            categoriesLoaded = true;
+            areasLoaded = true;
+            ingredientsLoaded = true;
+            setupCategorySpinner();
+            setupAreaSpinner();
+            setupIngredientSpinner();
+            checkCanEnableApplyButton();
         });
+    }
 
-        // Fetch Areas
-        firebaseManager.getAreas(new FirebaseManager.OnAreasLoadedListener() {
-            @Override
-            public void onAreasLoaded(List<AreaResponse.Area> data) {
-                areas = data;
-                areasLoaded = true;
-                setupAreaSpinner();
-                checkCanEnableApplyButton();
-            }
-
-            @Override
-            public void onError(String error) {
-                Log.e(TAG, "Failed to load areas: " + error);
-            }
-        });
+    private List<CategoryResponse.Category> keepAllowedCategories(List<CategoryResponse.Category> all) {
+        ArrayList<String> allowed = getArguments() != null
+                ? getArguments().getStringArrayList(ARG_ALLOWED_CATEGORIES) : null;
+        if (allowed == null || allowed.isEmpty()) return all;
 
-        // Fetch Ingredients
-        firebaseManager.getIngredients(new FirebaseManager.OnIngredientsLoadedListener() {
-            @Override
-            public void onIngredientsLoaded(List<IngredientResponse.Ingredient> data) {
-                ingredients = data;
-                ingredientsLoaded = true;
-                setupIngredientSpinner();
-                checkCanEnableApplyButton();
-            }
-
-            @Override
-            public void onError(String error) {
-                Log.e(TAG, "Failed to load ingredients: " + error);
-            }
-        });
+        List<CategoryResponse.Category> result = new ArrayList<>();
+        for (CategoryResponse.Category category : all) {
+            if (allowed.contains(category.getName())) result.add(category);
+        }
+        // If none of the whitelisted names exist, show everything rather than nothing
+        return result.isEmpty() ? all : result;
     }
 
     private void checkCanEnableApplyButton() {
@@ -286,6 +223,7 @@ public class RecipeFilterDialog extends DialogFragment {
         ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_spinner_item, names);
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerArea.setAdapter(adapter);
+        spinnerCategoryArea.setAdapter(optionalAdapter(names));
     }
 
     private void setupIngredientSpinner() {
@@ -297,6 +235,23 @@ public class RecipeFilterDialog extends DialogFragment {
         ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_spinner_item, names);
         adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
         spinnerIngredient.setAdapter(adapter);
+        spinnerIngredient2.setAdapter(optionalAdapter(names));
+    }
+
+    // Same list with a leading "(none)" entry
+    private ArrayAdapter<String> optionalAdapter(List<String> names) {
+        List<String> withNone = new ArrayList<>();
+        withNone.add(NONE);
+        withNone.addAll(names);
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(), android.R.layout.simple_spinner_item, withNone);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        return adapter;
+    }
+
+    @Nullable
+    private String optionalSelection(Spinner spinner) {
+        Object selected = spinner.getSelectedItem();
+        return selected == null || NONE.equals(selected.toString()) ? null : selected.toString();
     }
 
     private void applyFilter() {
@@ -306,6 +261,8 @@ public class RecipeFilterDialog extends DialogFragment {
         if (checkedId == R.id.radioCategory) {
             if (spinnerCategory.getSelectedItem() != null) {
                 filter = RecipeFilter.byCategory(spinnerCategory.getSelectedItem().toString());
+                String area = optionalSelection(spinnerCategoryArea);
+                if (area != null) filter.and(RecipeFilter.byArea(area));
             }
         } else if (checkedId == R.id.radioArea) {
             if (spinnerArea.getSelectedItem() != null) {
@@ -313,7 +270,13 @@ public class RecipeFilterDialog extends DialogFragment {
             }
         } else if (checkedId == R.id.radioIngredient) {
             if (spinnerIngredient.getSelectedItem() != null) {
-                filter = RecipeFilter.byIngredient(spinnerIngredient.getSelectedItem().toString());
+                List<String> picked = new ArrayList<>();
+                picked.add(spinnerIngredient.getSelectedItem().toString());
+                String second = optionalSelection(spinnerIngredient2);
+                if (second != null && !picked.contains(second)) picked.add(second);
+                RecipeFilter.Match match = radioGroupIngredientMatch.getCheckedRadioButtonId() == R.id.radioMatchAny
+                        ? RecipeFilter.Match.ANY : RecipeFilter.Match.ALL;
+                filter = RecipeFilter.byIngredients(picked, match);
             }
         } else if (checkedId == R.id.radioDietary) {
             int dietaryId = radioGroupDietary.getCheckedRadioButtonId();
@@ -18,7 +18,7 @@ import androidx.fragment.app.DialogFragment;
 import com.example.cookbook.R;
 import com.example.cookbook.api.model.AreaResponse;
 import com.example.cookbook.api.model.IngredientResponse;
-import com.example.cookbook.util.FirebaseManager;
+import com.example.cookbook.data.FilterOptionsRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +32,7 @@ public class SimpleFilterDialog extends DialogFragment {
         DIETARY
     }
 
-    private FirebaseManager firebaseManager;
+    private FilterOptionsRepository filterOptionsRepository;
     private OnFilterSelectedListener listener;
     private FilterType filterType;
     private Spinner spinner;
@@ -64,7 +64,7 @@ public class SimpleFilterDialog extends DialogFragment {
     @NonNull
     @Override
     public Dialog onCreateDialog(Bundle savedInstanceState) {
-        firebaseManager = FirebaseManager.getInstance();
+        filterOptionsRepository = FilterOptionsRepository.getInstance();
 
         AlertDialog.Builder builder = new AlertDialog.Builder(requireContext());
         LayoutInflater inflater = requireActivity().getLayoutInflater();
@@ -123,48 +123,40 @@ public class SimpleFilterDialog extends DialogFragment {
     }
 
     private void loadCuisines() {
-        firebaseManager.getAreas(new FirebaseManager.OnAreasLoadedListener() {
-            @Override
-            public void onAreasLoaded(List<AreaResponse.Area> areas) {
-                filterOptions.clear();
-                for (AreaResponse.Area area : areas) {
-                    filterOptions.add(area.getName());
-                }
-                setupSpinner();
-            }
-
-            @Override
-            public void onError(String error) {
+        filterOptionsRepository.getFilterOptions(options -> {
+            if (options.getAreas().isEmpty()) {
                 // Fallback hardcoded list if API fails
                 String[] fallbackCuisines = {
                         "American", "British", "Chinese", "French", "Indian",
                         "Italian", "Japanese", "Mexican", "Spanish", "Thai"
                 };
                 useFallbackOptions(fallbackCuisines);
+                return;
+            }
+            filterOptions.clear();
+            for (AreaResponse.Area area : options.getAreas()) {
+                filterOptions.add(area.getName());
             }
+            setupSpinner();
         });
     }
 
     private void loadIngredients() {
-        firebaseManager.getIngredients(new FirebaseManager.OnIngredientsLoadedListener() {
-            @Override
-            public void onIngredientsLoaded(List<IngredientResponse.Ingredient> ingredients) {
-                filterOptions.clear();
-                for (IngredientResponse.Ingredient ingredient : ingredients) {
-                    filterOptions.add(ingredient.getName());
-                }
-                setupSpinner();
-            }
-
-            @Override
-            public void onError(String error) {
+        filterOptionsRepository.getFilterOptions(options -> {
+            if (options.getIngredients().isEmpty()) {
                 // Fallback hardcoded list
                 String[] fallbackIngredients = {
                         "Chicken", "Beef", "Pork", "Fish", "Rice", "Pasta",
                         "Tomato", "Onion", "Garlic", "Cheese", "Eggs", "Milk"
                 };
                 useFallbackOptions(fallbackIngredients);
+                return;
+            }
+            filterOptions.clear();
+            for (IngredientResponse.Ingredient ingredient : options.getIngredients()) {
+                filterOptions.add(ingredient.getName());
             }
+            setupSpinner();
         });
     }
 
@@ -0,0 +1,131 @@
+package com.example.cookbook.ui.fragments;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ProgressBar;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.cookbook.R;
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.data.RandomRecipeBuffer;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.ui.adapters.RecipeAdapter;
+import com.example.cookbook.util.AppExecutors;
+import com.example.cookbook.util.FirebaseManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Endless feed of random meals; every page comes straight from RandomRecipeBuffer
+public class DiscoverFragment extends Fragment implements RandomRecipeBuffer.OnRecipesAvailableListener {
+
+    private static final int PAGE_SIZE = 10;
+    // Rows from the end at which the next page is appended
+    private static final int LOAD_MORE_THRESHOLD = 4;
+
+    private FirebaseManager firebaseManager;
+    private AppExecutors executors;
+    private RandomRecipeBuffer buffer;
+    private RecipeAdapter recipeAdapter;
+    private LinearLayoutManager layoutManager;
+    private final List<Recipe> displayedRecipes = new ArrayList<>();
+    private boolean converting = false;
+
+    // UI Components
+    private RecyclerView recyclerView;
+    private ProgressBar progressBar;
+
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_discover, container, false);
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        recyclerView = view.findViewById(R.id.recyclerView);
+        progressBar = view.findViewById(R.id.progressBar);
+
+        firebaseManager = FirebaseManager.getInstance();
+        executors = AppExecutors.getInstance();
+        buffer = RandomRecipeBuffer.getInstance();
+
+        setupRecyclerView();
+        buffer.setOnRecipesAvailableListener(this);
+        loadMore();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        buffer.setOnRecipesAvailableListener(null);
+    }
+
+    private void setupRecyclerView() {
+        recipeAdapter = new RecipeAdapter(requireContext(), new ArrayList<>(),
+                recipe -> {
+                    // Click is handled inside the Adapter
+                },
+                () -> {
+                    // Favorites are not shown here, nothing to refresh
+                });
+
+        layoutManager = new LinearLayoutManager(requireContext());
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(recipeAdapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) return;
+                if (layoutManager.findLastVisibleItemPosition() >= displayedRecipes.size() - LOAD_MORE_THRESHOLD) {
+                    loadMore();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onRecipesAvailable() {
+        // Only fill up while the user is already near the end (or nothing is shown yet)
+        if (displayedRecipes.isEmpty()
+                || layoutManager.findLastVisibleItemPosition() >= displayedRecipes.size() - LOAD_MORE_THRESHOLD) {
+            loadMore();
+        }
+    }
+
+    // Appends whatever the buffer holds right now, never waiting for the network.
+    // Conversion runs on the CPU pool (as in OnlineRecipePagingSource) so scrolling stays smooth.
+    private void loadMore() {
+        if (converting) return; // the next scroll or buffer refill asks again
+        List<ApiRecipe> taken = buffer.take(PAGE_SIZE);
+        if (taken.isEmpty()) {
+            updateVisibility();
+            return;
+        }
+        converting = true;
+        executors.cpu().execute(() -> {
+            List<Recipe> page = firebaseManager.convertApiRecipesToLocalRecipes(taken);
+            executors.main().execute(() -> {
+                converting = false;
+                if (!isAdded()) return;
+                displayedRecipes.addAll(page);
+                recipeAdapter.submitRecipes(new ArrayList<>(displayedRecipes));
+                updateVisibility();
+            });
+        });
+    }
+
+    private void updateVisibility() {
+        boolean waiting = displayedRecipes.isEmpty();
+        progressBar.setVisibility(waiting ? View.VISIBLE : View.GONE);
+        recyclerView.setVisibility(waiting ? View.GONE : View.VISIBLE);
+    }
+}
@@ -2,7 +2,6 @@ package com.example.cookbook.ui.fragments;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,17 +18,24 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.cookbook.R;
-import com.example.cookbook.api.model.AreaResponse;
-import com.example.cookbook.api.model.CategoryResponse;
-import com.example.cookbook.api.model.IngredientResponse;
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.api.SearchServiceClient;
+import com.example.cookbook.data.OnlineRecipePagingSource;
+import com.example.cookbook.data.RecipeEnricher;
+import com.example.cookbook.data.SearchOrchestrator;
+import com.example.cookbook.data.SearchResultCache;
+import com.example.cookbook.model.Ingredient;
 import com.example.cookbook.model.Recipe;
 import com.example.cookbook.model.RecipeFilter;
 import com.example.cookbook.ui.activities.AddRecipeActivity;
 import com.example.cookbook.ui.adapters.RecipeAdapter;
 import com.example.cookbook.ui.dialog.RecipeFilterDialog;
+import com.example.cookbook.util.AppExecutors;
 import com.example.cookbook.util.FirebaseManager;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
+import com.google.android.gms.tasks.Task;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -38,7 +44,17 @@ import java.util.List;
 public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilterAppliedListener {
 
     private static final String TAG = "HomeFragment";
+    // Typing pause before a search is sent
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+    // Longest a search may keep the spinner up; slower sources are dropped from the result
+    private static final long SEARCH_DEADLINE_MS = 3000;
+    private static final int COMMUNITY_RESULT_LIMIT = 20;
+    // Rows from the end of the list at which the next online page is requested
+    private static final int PAGE_PREFETCH_DISTANCE = 4;
+
     private FirebaseManager firebaseManager;
+    private SearchResultCache searchCache;
+    private final AppExecutors.MainThreadExecutor mainThread = AppExecutors.getInstance().main();
     private RecipeAdapter recipeAdapter;
     private List<Recipe> allRecipes = new ArrayList<>();
 
@@ -54,11 +70,18 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
     private RecipeFilter currentFilter = null;
     private String currentSearchQuery = "";
 
-    // Data for Filter Dialog
-    private ArrayList<CategoryResponse.Category> filterCategories = new ArrayList<>();
-    private ArrayList<AreaResponse.Area> filterAreas = new ArrayList<>();
-    private ArrayList<IngredientResponse.Ingredient> filterIngredients = new ArrayList<>();
-    private boolean filterOptionsLoaded = false;
+    // Bumped for every new search or reload; results from older generations are dropped
+    private int searchGeneration = 0;
+    private Cancellable activeSearch;
+    // Remaining TheMealDB results of the current search, paged in on scroll
+    private OnlineRecipePagingSource onlinePaging;
+    // Fills in summary rows from filter.php with their full records
+    private RecipeEnricher enricher;
+    private List<Recipe> displayedRecipes = new ArrayList<>();
+    private final Runnable debouncedSearch = this::searchWithFilterOrQuery;
+
+    // Categories offered in the filter dialog
+    private static final List<String> FILTER_CATEGORIES = Arrays.asList("Dessert", "Side", "Starter", "Breakfast", "Goat");
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -71,6 +94,7 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
         super.onViewCreated(view, savedInstanceState);
 
         firebaseManager = FirebaseManager.getInstance();
+        searchCache = SearchResultCache.getInstance();
 
         // Initialize Views
         recyclerView = view.findViewById(R.id.recyclerView);
@@ -89,6 +113,15 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
         loadRecipes();
     }
 
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        // Drop the pending keystroke search and whatever is still in flight
+        mainThread.cancel(debouncedSearch);
+        startSearchGeneration();
+        enricher.cancel();
+    }
+
     @Override
     public void onResume() {
         super.onResume();
@@ -110,6 +143,12 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
 
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         recyclerView.setAdapter(recipeAdapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                maybeLoadNextPage();
+            }
+        });
     }
 
     private void setupSearchView() {
@@ -117,6 +156,8 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
             @Override
             public boolean onQueryTextSubmit(String query) {
                 currentSearchQuery = query;
+                // Submit skips the debounce window
+                mainThread.cancel(debouncedSearch);
                 searchWithFilterOrQuery();
                 return true;
             }
@@ -124,8 +165,10 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
             @Override
             public boolean onQueryTextChange(String newText) {
                 currentSearchQuery = newText;
+                // Restart the debounce window on every keystroke; only the last query is sent
+                mainThread.cancel(debouncedSearch);
                 if (newText.length() > 2) {
-                    searchWithFilterOrQuery();
+                    mainThread.executeDelayed(debouncedSearch, SEARCH_DEBOUNCE_MS);
                 } else if (newText.isEmpty()) {
                     currentSearchQuery = "";
                     searchWithFilterOrQuery();
@@ -136,6 +179,7 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
 
         // Handle the "X" button on search view
         searchView.setOnCloseListener(() -> {
+            mainThread.cancel(debouncedSearch);
             currentSearchQuery = "";
             currentFilter = null;
             btnClearFilter.setVisibility(View.GONE);
@@ -157,7 +201,27 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
 
     // --- Search & Filter Logic ---
 
+    // Starts a new generation: cancels the previous search so its results can never land
+    private int startSearchGeneration() {
+        if (activeSearch != null) {
+            activeSearch.cancel();
+            activeSearch = null;
+        }
+        if (onlinePaging != null) {
+            onlinePaging.cancel();
+            onlinePaging = null;
+        }
+        if (enricher != null) enricher.cancel();
+        enricher = new RecipeEnricher(this::applyEnrichedRecipe);
+        return ++searchGeneration;
+    }
+
+    private boolean isStale(int generation) {
+        return generation != searchGeneration || !isAdded();
+    }
+
     private void searchWithFilterOrQuery() {
+        mainThread.cancel(debouncedSearch);
         progressBar.setVisibility(View.VISIBLE);
 
         // If nothing is searched/filtered, show default user recipes
@@ -166,103 +230,263 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
             return;
         }
 
-        List<Recipe> combinedResults = new ArrayList<>();
-        final int[] completedSearches = {0};
-        final int totalSearches = 2; // We search both Local DB and Online API
+        final int generation = startSearchGeneration();
+        final SearchResultCache.Key cacheKey = searchCache.keyFor(currentFilter, currentSearchQuery,
+                firebaseManager.getCurrentUserId());
+
+        // Repeat searches render straight from the cache (same frame when it is in memory)
+        searchCache.get(cacheKey, cached -> {
+            if (isStale(generation)) return;
+            if (cached != null) {
+                updateRecipeList(cached);
+                progressBar.setVisibility(View.GONE);
+                // The cache holds what was on screen; further pages are fetched again when scrolled to
+                onlinePaging = new OnlineRecipePagingSource(currentFilter, currentSearchQuery);
+                onlinePaging.startAt(countApiRecipes(cached));
+            } else {
+                runSearch(generation, cacheKey);
+            }
+        });
+    }
+
+    private void runSearch(int generation, SearchResultCache.Key cacheKey) {
+        // Local DB, other users' recipes and Online API run side by side; whatever has arrived by the
+        // deadline is shown. Only the first online page takes part; the rest is paged in on scroll.
+        onlinePaging = new OnlineRecipePagingSource(currentFilter, currentSearchQuery);
+        List<SearchOrchestrator.SearchSource> sources = new ArrayList<>();
+        sources.add(localSearchSource(currentFilter, currentSearchQuery));
+        if (SearchServiceClient.isConfigured() && currentSearchQuery != null && !currentSearchQuery.isEmpty()) {
+            sources.add(communitySearchSource(currentSearchQuery));
+        }
+        sources.add(onlineSearchSource(onlinePaging));
+
+        activeSearch = SearchOrchestrator.getInstance().search(sources, SEARCH_DEADLINE_MS,
+                new SearchOrchestrator.OnSearchFinishedListener() {
+                    @Override
+                    public void onPartialResult(SearchOrchestrator.SearchResult partial) {
+                        // Show the fastest source right away; the spinner stays until the rest land
+                        if (isStale(generation) || partial.getRecipes().isEmpty()) return;
+                        updateRecipeList(partial.getRecipes());
+                    }
+
+                    @Override
+                    public void onSearchFinished(SearchOrchestrator.SearchResult result) {
+                        if (isStale(generation)) return;
+                        activeSearch = null;
+                        // Only complete answers are worth replaying
+                        if (result.isComplete()) searchCache.put(cacheKey, result.getRecipes());
+                        updateRecipeList(result.getRecipes());
+                        progressBar.setVisibility(View.GONE);
+                        // A short first page may not fill the screen, so no scroll event would ask for more
+                        recyclerView.post(() -> maybeLoadNextPage());
+                    }
+                });
+    }
 
-        // 1. Local Search (Firestore)
-        performLocalSearch(combinedResults, completedSearches, totalSearches);
+    private void maybeLoadNextPage() {
+        OnlineRecipePagingSource paging = onlinePaging;
+        if (paging == null || activeSearch != null || paging.isLoading() || !paging.hasMore()) return;
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
 
-        // 2. API Search (Online)
-        firebaseManager.searchOnlineRecipesByFilterOrQuery(currentFilter, currentSearchQuery, new FirebaseManager.OnRecipesLoadedListener() {
+        int lastVisible = ((LinearLayoutManager) recyclerView.getLayoutManager()).findLastVisibleItemPosition();
+        if (lastVisible < recipeAdapter.getItemCount() - PAGE_PREFETCH_DISTANCE) return;
+        // Restored from cache and nothing on screen came from the API: there is nothing to continue
+        if (!paging.isStarted() && countApiRecipes(displayedRecipes) == 0) return;
+
+        final int generation = searchGeneration;
+        paging.loadNextPage(new OnlineRecipePagingSource.OnPageLoadedListener() {
             @Override
-            public void onRecipesLoaded(List<Recipe> apiRecipes) {
-                combinedResults.addAll(apiRecipes);
-                checkSearchCompletion(combinedResults, completedSearches, totalSearches);
+            public void onPageLoaded(List<Recipe> page, boolean hasMore) {
+                if (isStale(generation) || page.isEmpty()) return;
+                List<Recipe> shown = new ArrayList<>(displayedRecipes);
+                shown.addAll(page);
+                updateRecipeList(shown);
             }
 
             @Override
             public void onError(String error) {
-                Log.e(TAG, "API search failed: " + error);
-                checkSearchCompletion(combinedResults, completedSearches, totalSearches);
+                // Next scroll retries
             }
         });
     }
 
-    private void performLocalSearch(List<Recipe> results, int[] completed, int total) {
-        // Only search locally if we have a text query or specific filters supported locally
-        if (currentSearchQuery != null && !currentSearchQuery.isEmpty()) {
-            firebaseManager.searchRecipesByName(currentSearchQuery)
-                    .addOnSuccessListener(queryDocumentSnapshots -> {
-                        for (QueryDocumentSnapshot doc : queryDocumentSnapshots) {
-                            Recipe r = doc.toObject(Recipe.class);
-                            r.setId(doc.getId());
-                            if (!r.isImportedFromApi()) results.add(r);
-                        }
-                        checkSearchCompletion(results, completed, total);
-                    })
-                    .addOnFailureListener(e -> checkSearchCompletion(results, completed, total));
-        } else if (currentFilter != null) {
-            // Handle local filtering
-            if (currentFilter.getType() == RecipeFilter.FilterType.CATEGORY) {
-                firebaseManager.searchRecipesByCategory(currentFilter.getValue())
-                        .addOnSuccessListener(queryDocumentSnapshots -> {
-                            for (QueryDocumentSnapshot doc : queryDocumentSnapshots) {
-                                Recipe r = doc.toObject(Recipe.class);
-                                r.setId(doc.getId());
-                                if (!r.isImportedFromApi()) results.add(r);
+    private static int countApiRecipes(List<Recipe> recipes) {
+        int count = 0;
+        for (Recipe recipe : recipes) {
+            if (recipe.isImportedFromApi()) count++;
+        }
+        return count;
+    }
+
+    private SearchOrchestrator.SearchSource onlineSearchSource(OnlineRecipePagingSource paging) {
+        return new SearchOrchestrator.SearchSource() {
+            @Override
+            public String getName() {
+                return "themealdb";
+            }
+
+            @Override
+            public Cancellable search(SearchOrchestrator.SourceCallback callback) {
+                OnlineRecipePagingSource.OnPageLoadedListener firstPage = new OnlineRecipePagingSource.OnPageLoadedListener() {
+                    @Override
+                    public void onPageLoaded(List<Recipe> page, boolean hasMore) {
+                        callback.onResults(page);
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                        callback.onError(error);
+                    }
+                };
+                paging.loadNextPage(firstPage);
+                // Past the deadline only the wait is dropped: a slow first page is kept for the next
+                // scroll. startSearchGeneration() cancels the paging itself when the search is replaced.
+                return () -> paging.abandon(firstPage);
+            }
+        };
+    }
+
+    private SearchOrchestrator.SearchSource communitySearchSource(String query) {
+        return new SearchOrchestrator.SearchSource() {
+            @Override
+            public String getName() {
+                return "community";
+            }
+
+            @Override
+            public Cancellable search(SearchOrchestrator.SourceCallback callback) {
+                return firebaseManager.searchPublicRecipes(query, COMMUNITY_RESULT_LIMIT,
+                        new FirebaseManager.OnRecipesLoadedListener() {
+                            @Override
+                            public void onRecipesLoaded(List<Recipe> recipes) {
+                                callback.onResults(recipes);
                             }
-                            checkSearchCompletion(results, completed, total);
-                        })
-                        .addOnFailureListener(e -> checkSearchCompletion(results, completed, total));
-            } else if (currentFilter.getType() == RecipeFilter.FilterType.INGREDIENT) {
-                firebaseManager.searchRecipesByIngredient(currentFilter.getValue())
-                        .addOnSuccessListener(queryDocumentSnapshots -> {
+
+                            @Override
+                            public void onError(String error) {
+                                callback.onError(error);
+                            }
+                        });
+            }
+        };
+    }
+
+    private SearchOrchestrator.SearchSource localSearchSource(RecipeFilter filter, String query) {
+        return new SearchOrchestrator.SearchSource() {
+            @Override
+            public String getName() {
+                return "firestore";
+            }
+
+            @Override
+            public Cancellable search(SearchOrchestrator.SourceCallback callback) {
+                // Only search locally if we have a text query or specific filters supported locally
+                Task<QuerySnapshot> task = null;
+                if (query != null && !query.isEmpty()) {
+                    task = firebaseManager.searchRecipesByName(query);
+                } else if (filter != null && filter.isMultiValue()) {
+                    // Firestore can't AND/OR these; match the user's recipes in memory instead
+                    task = firebaseManager.getUserRecipes();
+                } else if (filter != null) {
+                    if (filter.getType() == RecipeFilter.FilterType.CATEGORY) {
+                        task = firebaseManager.searchRecipesByCategory(filter.getValue());
+                    } else if (filter.getType() == RecipeFilter.FilterType.INGREDIENT) {
+                        task = firebaseManager.searchRecipesByIngredient(filter.getValue());
+                    }
+                    // Area/Cuisine not supported locally
+                }
+                if (task == null) {
+                    callback.onResults(new ArrayList<>());
+                    return () -> { };
+                }
+
+                task.addOnSuccessListener(queryDocumentSnapshots -> {
+                            List<Recipe> results = new ArrayList<>();
+                            boolean matchInMemory = (query == null || query.isEmpty())
+                                    && filter != null && filter.isMultiValue();
                             for (QueryDocumentSnapshot doc : queryDocumentSnapshots) {
                                 Recipe r = doc.toObject(Recipe.class);
                                 r.setId(doc.getId());
-                                if (!r.isImportedFromApi()) results.add(r);
+                                if (r.isImportedFromApi()) continue;
+                                if (!matchInMemory || matchesFilter(r, filter)) results.add(r);
                             }
-                            checkSearchCompletion(results, completed, total);
+                            callback.onResults(results);
                         })
-                        .addOnFailureListener(e -> checkSearchCompletion(results, completed, total));
-            } else {
-                // Area/Cuisine not supported locally
-                checkSearchCompletion(results, completed, total);
+                        .addOnFailureListener(e -> callback.onError(e.getMessage()));
+                // Firestore tasks can't be cancelled; the orchestrator ignores late answers
+                return () -> { };
             }
-        } else {
-            checkSearchCompletion(results, completed, total);
+        };
+    }
+
+    private static boolean matchesFilter(Recipe recipe, RecipeFilter filter) {
+        boolean matchAll = filter.getMatch() == RecipeFilter.Match.ALL;
+        for (RecipeFilter term : filter.getTerms()) {
+            boolean matches = matchesTerm(recipe, term);
+            if (matchAll && !matches) return false;
+            if (!matchAll && matches) return true;
         }
+        return matchAll;
     }
 
-    private void checkSearchCompletion(List<Recipe> results, int[] completed, int total) {
-        completed[0]++;
-        if (completed[0] == total) {
-            updateRecipeList(results);
-            progressBar.setVisibility(View.GONE);
+    // Local recipes have no cuisine, so AREA terms never match
+    private static boolean matchesTerm(Recipe recipe, RecipeFilter term) {
+        switch (term.getType()) {
+            case CATEGORY:
+                return term.getValue().equalsIgnoreCase(recipe.getCategory());
+            case INGREDIENT:
+                if (recipe.getIngredients() == null) return false;
+                for (Ingredient ingredient : recipe.getIngredients()) {
+                    if (ingredient.getName() != null && ingredient.getName().trim().equalsIgnoreCase(term.getValue())) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
         }
     }
 
     private void updateRecipeList(List<Recipe> recipes) {
         List<Recipe> validRecipes = new ArrayList<>();
 
-        // Filter out broken recipes
+        // Filter out broken recipes. A later source resubmits summary rows that were already
+        // enriched; keep showing their full records.
         for (Recipe r : recipes) {
             if (r != null && r.getTitle() != null && !r.getTitle().trim().isEmpty()) {
-                validRecipes.add(r);
+                validRecipes.add(enricher != null ? enricher.withKnownDetails(r) : r);
             }
         }
 
-        recipeAdapter.updateRecipes(validRecipes);
+        // Diffed so rows shown by an earlier source are not rebound when later ones arrive
+        displayedRecipes = validRecipes;
+        recipeAdapter.submitRecipes(validRecipes);
         updateEmptyState(validRecipes.isEmpty());
+        if (enricher != null) enricher.enqueue(validRecipes);
+    }
+
+    // Swaps a summary row for its full record; the diff rebinds just that row
+    private void applyEnrichedRecipe(Recipe full) {
+        if (!isAdded()) return;
+        for (int i = 0; i < displayedRecipes.size(); i++) {
+            Recipe row = displayedRecipes.get(i);
+            if (row.isImportedFromApi() && full.getId().equals(row.getId())) {
+                List<Recipe> shown = new ArrayList<>(displayedRecipes);
+                shown.set(i, full);
+                updateRecipeList(shown);
+                return;
+            }
+        }
     }
 
     // --- Data Loading ---
 
     private void loadRecipes() {
+        final int generation = startSearchGeneration();
         progressBar.setVisibility(View.VISIBLE);
         firebaseManager.getUserRecipes()
                 .addOnSuccessListener(queryDocumentSnapshots -> {
+                    if (isStale(generation)) return;
                     allRecipes.clear();
                     for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
                         Recipe recipe = document.toObject(Recipe.class);
@@ -284,6 +508,7 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
                     progressBar.setVisibility(View.GONE);
                 })
                 .addOnFailureListener(e -> {
+                    if (isStale(generation)) return;
                     Toast.makeText(getContext(), "Failed to load recipes", Toast.LENGTH_SHORT).show();
                     progressBar.setVisibility(View.GONE);
                     updateEmptyState(true);
@@ -293,58 +518,9 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
     // --- Filter Dialog Logic ---
 
     private void showFilterDialogWithOptions() {
-        progressBar.setVisibility(View.VISIBLE);
-        filterOptionsLoaded = false;
-        filterCategories.clear();
-        filterAreas.clear();
-        filterIngredients.clear();
-
-        // Load Categories
-        firebaseManager.getCategories(new FirebaseManager.OnCategoriesLoadedListener() {
-            @Override
-            public void onCategoriesLoaded(List<CategoryResponse.Category> categories) {
-                // Filter to show only specific categories
-                List<String> allowed = Arrays.asList("Dessert", "Side", "Starter", "Breakfast", "Goat");
-                for (CategoryResponse.Category cat : categories) {
-                    if (allowed.contains(cat.getName())) filterCategories.add(cat);
-                }
-                checkAndShowDialog();
-            }
-            @Override
-            public void onError(String error) { checkAndShowDialog(); }
-        });
-
-        // Load Areas
-        firebaseManager.getAreas(new FirebaseManager.OnAreasLoadedListener() {
-            @Override
-            public void onAreasLoaded(List<AreaResponse.Area> areas) {
-                filterAreas.addAll(areas);
-                checkAndShowDialog();
-            }
-            @Override
-            public void onError(String error) { checkAndShowDialog(); }
-        });
-
-        // Load Ingredients
-        firebaseManager.getIngredients(new FirebaseManager.OnIngredientsLoadedListener() {
-            @Override
-            public void onIngredientsLoaded(List<IngredientResponse.Ingredient> ingredients) {
-                filterIngredients.addAll(ingredients);
-                checkAndShowDialog();
-            }
-            @Override
-            public void onError(String error) { checkAndShowDialog(); }
-        });
-    }
-
-    private void checkAndShowDialog() {
-        // Only show dialog if we have data (or if some failed, we still try to show what we have)
-        if (!filterCategories.isEmpty() && !filterAreas.isEmpty() && !filterIngredients.isEmpty() && !filterOptionsLoaded) {
-            filterOptionsLoaded = true;
-            progressBar.setVisibility(View.GONE);
-            RecipeFilterDialog dialog = RecipeFilterDialog.newInstance(filterCategories, filterAreas, filterIngredients);
-            dialog.show(getChildFragmentManager(), "filter_dialog");
-        }
+        // Options are served from FilterOptionsRepository (memory/disk), so the dialog opens right away
+        RecipeFilterDialog dialog = RecipeFilterDialog.newInstance(new ArrayList<>(FILTER_CATEGORIES));
+        dialog.show(getChildFragmentManager(), "filter_dialog");
     }
 
     @Override
@@ -355,6 +531,7 @@ public class HomeFragment extends Fragment implements RecipeFilterDialog.OnFilte
     }
 
     private void clearFilter() {
+        mainThread.cancel(debouncedSearch);
         currentFilter = null;
         currentSearchQuery = "";
         searchView.setQuery("", false);
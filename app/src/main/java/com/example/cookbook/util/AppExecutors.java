@@ -0,0 +1,181 @@
+package com.example.cookbook.util;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+// App-wide thread pools. Everything off the main thread should run on one of these
+// instead of creating its own Thread or Handler, so thread count stays bounded and
+// queue depth / run time can be inspected with dump().
+public class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+
+    private static final int IO_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static AppExecutors instance;
+
+    private final MeteredThreadPoolExecutor io;
+    private final MeteredThreadPoolExecutor cpu;
+    private final MeteredThreadPoolExecutor diskSerial;
+    private final MainThreadExecutor main;
+    private final ScheduledExecutorService scheduler;
+
+    private AppExecutors() {
+        int cpuThreads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+        // Unbounded as well: io tasks are mostly Room and file access, which must never fall back to
+        // running on the caller (often the main thread, where Room throws). Depth shows in dump().
+        io = new MeteredThreadPoolExecutor("io", IO_THREADS, new LinkedBlockingQueue<>());
+        cpu = new MeteredThreadPoolExecutor("cpu", cpuThreads, new LinkedBlockingQueue<>(QUEUE_CAPACITY));
+        // Unbounded: a full queue would make the rejection policy run the write on the caller, out of
+        // order with the queued ones and possibly on the main thread. Writes are small; depth shows in dump().
+        diskSerial = new MeteredThreadPoolExecutor("disk", 1, new LinkedBlockingQueue<>());
+        main = new MainThreadExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized AppExecutors getInstance() {
+        if (instance == null) {
+            instance = new AppExecutors();
+        }
+        return instance;
+    }
+
+    // Blocking network / file work that does not need ordering
+    public Executor io() {
+        return io;
+    }
+
+    // JSON conversion, sorting, merging
+    public Executor cpu() {
+        return cpu;
+    }
+
+    // Disk writes that must happen in order (caches, persisted buffers)
+    public Executor diskSerial() {
+        return diskSerial;
+    }
+
+    public MainThreadExecutor main() {
+        return main;
+    }
+
+    // Timers (retry backoff, hedging, deadlines). Tasks must be short and hand real work elsewhere.
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    public void dump() {
+        Log.i(TAG, io.snapshot().toString());
+        Log.i(TAG, cpu.snapshot().toString());
+        Log.i(TAG, diskSerial.snapshot().toString());
+        Log.i(TAG, main.snapshot().toString());
+    }
+
+    public MeteredThreadPoolExecutor.Stats[] snapshot() {
+        return new MeteredThreadPoolExecutor.Stats[] {io.snapshot(), cpu.snapshot(), diskSerial.snapshot(),
+                main.snapshot()};
+    }
+
+    // One shared main-thread Handler instead of a new Handler per callback.
+    // Keeps the same counters as the pools; "wait" is how late a callback ran after it was due.
+    public static class MainThreadExecutor implements Executor {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+        // Callback -> posts of it still queued, so cancel() keeps the queue depth right
+        private final Map<Runnable, Integer> queued = new HashMap<>();
+        private int queueDepth = 0;
+        private int maxQueueDepth = 0;
+        private volatile boolean running = false;
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalWaitMs = new AtomicLong();
+        private final AtomicLong totalRunMs = new AtomicLong();
+        private final AtomicLong maxRunMs = new AtomicLong();
+
+        @Override
+        public void execute(Runnable command) {
+            post(command, 0);
+        }
+
+        public void executeDelayed(Runnable command, long delayMs) {
+            post(command, delayMs);
+        }
+
+        public void cancel(Runnable command) {
+            // Posts are tokened with the caller's Runnable, so this removes every pending post of it
+            handler.removeCallbacksAndMessages(command);
+            synchronized (queued) {
+                Integer count = queued.remove(command);
+                if (count != null) queueDepth -= count;
+            }
+        }
+
+        public MeteredThreadPoolExecutor.Stats snapshot() {
+            synchronized (queued) {
+                return new MeteredThreadPoolExecutor.Stats("main", submitted.get(), completed.get(), rejected.get(),
+                        queueDepth, maxQueueDepth, running ? 1 : 0, totalWaitMs.get(), totalRunMs.get(),
+                        maxRunMs.get());
+            }
+        }
+
+        private void post(Runnable command, long delayMs) {
+            long dueAt = SystemClock.uptimeMillis() + delayMs;
+            submitted.incrementAndGet();
+            synchronized (queued) {
+                queued.merge(command, 1, Integer::sum);
+                queueDepth++;
+                maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+            }
+            Runnable timed = () -> {
+                dequeue(command);
+                long start = SystemClock.uptimeMillis();
+                totalWaitMs.addAndGet(Math.max(0, start - dueAt));
+                running = true;
+                try {
+                    command.run();
+                } finally {
+                    running = false;
+                    long runMs = SystemClock.uptimeMillis() - start;
+                    totalRunMs.addAndGet(runMs);
+                    // Only the main thread runs these, so no compare-and-set loop is needed
+                    if (runMs > maxRunMs.get()) maxRunMs.set(runMs);
+                    completed.incrementAndGet();
+                }
+            };
+            // Fails only once the main looper is quitting
+            if (!handler.postAtTime(timed, command, dueAt)) {
+                rejected.incrementAndGet();
+                dequeue(command);
+            }
+        }
+
+        private void dequeue(Runnable command) {
+            synchronized (queued) {
+                Integer count = queued.get(command);
+                if (count == null) return; // cancelled while it was being dispatched
+                if (count == 1) {
+                    queued.remove(command);
+                } else {
+                    queued.put(command, count - 1);
+                }
+                queueDepth--;
+            }
+        }
+    }
+}
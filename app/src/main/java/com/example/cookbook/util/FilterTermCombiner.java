@@ -0,0 +1,73 @@
+package com.example.cookbook.util;
+
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.model.RecipeFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Joins the per-term answers of a multi-value filter (one filter.php call per term) by meal id
+class FilterTermCombiner {
+
+    private FilterTermCombiner() {
+    }
+
+    // Returns the recipes that satisfy the filter's match mode, in the order of the first term's results;
+    // null if any term failed. A union missing a term would look like a complete answer and be cached
+    // as one, so ANY mode fails too.
+    static List<ApiRecipe> combine(RecipeFilter filter, List<List<ApiRecipe>> perTerm) {
+        boolean matchAll = filter.getMatch() == RecipeFilter.Match.ALL;
+        IntSet surviving = null;
+        for (List<ApiRecipe> results : perTerm) {
+            if (results == null) return null;
+            IntSet ids = new IntSet(results.size());
+            for (ApiRecipe recipe : results) {
+                ids.add(parseMealId(recipe.getId()));
+            }
+            if (surviving == null) {
+                surviving = ids;
+            } else if (matchAll) {
+                surviving.retainAll(ids);
+            } else {
+                surviving.addAll(ids);
+            }
+        }
+        if (surviving == null) return null; // no terms
+
+        // A category term in ALL mode tells us the category of every survivor for free
+        String knownCategory = null;
+        if (matchAll) {
+            for (RecipeFilter term : filter.getTerms()) {
+                if (term.getType() == RecipeFilter.FilterType.CATEGORY) knownCategory = term.getValue();
+            }
+        }
+
+        List<ApiRecipe> combined = new ArrayList<>();
+        IntSet emitted = new IntSet(surviving.size());
+        for (List<ApiRecipe> results : perTerm) {
+            for (ApiRecipe recipe : results) {
+                int id = parseMealId(recipe.getId());
+                if (surviving.contains(id) && emitted.add(id)) {
+                    combined.add(knownCategory != null && recipe.getCategory() == null
+                            ? withCategory(recipe, knownCategory) : recipe);
+                }
+            }
+        }
+        return combined;
+    }
+
+    // TheMealDB ids are numeric ("52772"); anything else gets a stable stand-in
+    private static int parseMealId(String id) {
+        if (id == null) return 0;
+        try {
+            return Integer.parseInt(id.trim());
+        } catch (NumberFormatException e) {
+            return id.hashCode();
+        }
+    }
+
+    private static ApiRecipe withCategory(ApiRecipe recipe, String category) {
+        return new ApiRecipe(recipe.getId(), recipe.getTitle(), recipe.getImageUrl(), recipe.getInstructions(),
+                category, recipe.getArea(), recipe.getIngredients());
+    }
+}
@@ -5,12 +5,19 @@ import android.net.Uri;
 import android.util.Log;
 
 import com.example.cookbook.CookBookApplication;
+import com.example.cookbook.api.ApiCallCoalescer;
 import com.example.cookbook.api.ApiClient;
+import com.example.cookbook.api.ApiPriority;
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.api.SearchServiceClient;
 import com.example.cookbook.api.model.ApiRecipe;
 import com.example.cookbook.api.model.ApiRecipeResponse;
 import com.example.cookbook.api.model.AreaResponse;
 import com.example.cookbook.api.model.CategoryResponse;
 import com.example.cookbook.api.model.IngredientResponse;
+import com.example.cookbook.api.model.RecipeSearchResponse;
+import com.example.cookbook.data.OfflineRecipeStore;
+import com.example.cookbook.data.catalog.CatalogMirror;
 import com.example.cookbook.model.Ingredient;
 import com.example.cookbook.model.Recipe;
 import com.example.cookbook.model.RecipeFilter;
@@ -22,6 +29,8 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.google.firebase.firestore.QuerySnapshot;
@@ -32,8 +41,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -44,18 +57,33 @@ public class FirebaseManager {
     private static final String USERS_COLLECTION = "users";
     private static final String RECIPES_COLLECTION = "recipes";
 
+    // Stored TheMealDB answers older than this are refreshed in the background after being shown
+    private static final long QUERY_REVALIDATE_MS = TimeUnit.MINUTES.toMillis(15);
+    private static final long DETAIL_REVALIDATE_MS = TimeUnit.DAYS.toMillis(1);
+    // Firestore caps whereIn at 10 values on older SDKs
+    private static final int WHERE_IN_LIMIT = 10;
+
     private final FirebaseAuth auth;
     private final FirebaseFirestore db;
     private final Context context;
+    private final ApiCallCoalescer apiCalls;
+    private final AppExecutors executors;
+    private final OfflineRecipeStore offlineStore;
+    private final CatalogMirror catalogMirror;
+    private final List<OnRecipesChangedListener> recipesChangedListeners = new ArrayList<>();
 
     private static FirebaseManager instance;
 
     // Singleton Constructor
-    private FirebaseManager() {
+    private FirebaseManager(AppExecutors executors) {
+        this.executors = executors;
         try {
             auth = FirebaseAuth.getInstance();
             db = FirebaseFirestore.getInstance();
             context = CookBookApplication.getInstance();
+            apiCalls = ApiCallCoalescer.getInstance();
+            offlineStore = OfflineRecipeStore.getInstance();
+            catalogMirror = CatalogMirror.getInstance();
         } catch (Exception e) {
             Log.e(TAG, "Error initializing Firebase services", e);
             throw e;
@@ -64,7 +92,7 @@ public class FirebaseManager {
 
     public static synchronized FirebaseManager getInstance() {
         if (instance == null) {
-            instance = new FirebaseManager();
+            instance = new FirebaseManager(AppExecutors.getInstance());
         }
         return instance;
     }
@@ -134,13 +162,27 @@ public class FirebaseManager {
 
     // --- Recipe Methods (Firestore) ---
 
+    // Caches of search results register here; called on the main thread after every successful write
+    public void addOnRecipesChangedListener(OnRecipesChangedListener listener) {
+        recipesChangedListeners.add(listener);
+    }
+
+    private <T> Task<T> notifyRecipesChangedOnSuccess(Task<T> task) {
+        return task.addOnSuccessListener(result -> {
+            for (OnRecipesChangedListener listener : new ArrayList<>(recipesChangedListeners)) {
+                listener.onRecipesChanged();
+            }
+        });
+    }
+
     // Internal use: Returns Task (used by favoriteApiRecipe)
     public Task<DocumentReference> addRecipe(Recipe recipe) {
         String userId = getCurrentUserId();
         if (userId != null) {
             recipe.setUserId(userId);
         }
-        return db.collection(RECIPES_COLLECTION).add(recipe);
+        recipe.setUpdatedAt(null); // filled in by the server
+        return notifyRecipesChangedOnSuccess(db.collection(RECIPES_COLLECTION).add(recipe));
     }
 
     // External use: Accepts a listener (used by Activities)
@@ -149,8 +191,8 @@ public class FirebaseManager {
         if (userId == null) return;
 
         recipe.setUserId(userId);
-        db.collection(RECIPES_COLLECTION)
-                .add(recipe)
+        recipe.setUpdatedAt(null); // filled in by the server
+        notifyRecipesChangedOnSuccess(db.collection(RECIPES_COLLECTION).add(recipe))
                 .addOnCompleteListener(listener);
     }
 
@@ -158,15 +200,17 @@ public class FirebaseManager {
         if (recipe.getId() == null) {
             return Tasks.forException(new Exception("Recipe ID is missing"));
         }
-        return db.collection(RECIPES_COLLECTION)
+        // Cleared so the server stamps the new write instead of keeping the loaded time
+        recipe.setUpdatedAt(null);
+        return notifyRecipesChangedOnSuccess(db.collection(RECIPES_COLLECTION)
                 .document(recipe.getId())
-                .set(recipe);
+                .set(recipe));
     }
 
     public Task<Void> deleteRecipe(String recipeId) {
-        return db.collection(RECIPES_COLLECTION)
+        return notifyRecipesChangedOnSuccess(db.collection(RECIPES_COLLECTION)
                 .document(recipeId)
-                .delete();
+                .delete());
     }
 
     public Task<QuerySnapshot> getUserRecipes() {
@@ -206,12 +250,106 @@ public class FirebaseManager {
                 .get();
     }
 
+    // Other users' recipes, ranked by the search service (see search-service); the current user's own
+    // recipes are left to searchRecipesByName. Only ids come from the service - the recipes themselves
+    // are read from Firestore, so rows match what the detail screen would load.
+    // The service needs the user's ID token, fetched first (cached by Firebase until it nears expiry).
+    // Requires SearchServiceClient.isConfigured(). The listener is not called once cancelled.
+    public Cancellable searchPublicRecipes(String query, int limit, OnRecipesLoadedListener listener) {
+        OfflineFirstRequest request = new OfflineFirstRequest();
+        FirebaseUser user = auth.getCurrentUser();
+        if (user == null) {
+            postToMain(() -> listener.onError("Not logged in"));
+            return request;
+        }
+        String userId = user.getUid();
+        user.getIdToken(false)
+                .addOnSuccessListener(token -> {
+                    if (request.isCancelled()) return;
+                    Call<RecipeSearchResponse> call = SearchServiceClient.getService()
+                            .search("Bearer " + token.getToken(), query, limit);
+                    request.setNetworkCall(call::cancel);
+                    call.enqueue(publicSearchCallback(request, userId, listener));
+                })
+                .addOnFailureListener(e -> {
+                    if (!request.isCancelled()) listener.onError(e.getMessage());
+                });
+        return request;
+    }
+
+    private Callback<RecipeSearchResponse> publicSearchCallback(OfflineFirstRequest request, String userId,
+                                                               OnRecipesLoadedListener listener) {
+        return new Callback<RecipeSearchResponse>() {
+            @Override
+            public void onResponse(Call<RecipeSearchResponse> call, Response<RecipeSearchResponse> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    postToMain(() -> {
+                        if (!request.isCancelled()) listener.onError("Community search failed");
+                    });
+                    return;
+                }
+                List<String> ids = new ArrayList<>();
+                List<RecipeSearchResponse.Hit> hits = response.body().getResults();
+                if (hits != null) {
+                    for (RecipeSearchResponse.Hit hit : hits) {
+                        if (hit.getUserId() == null || !hit.getUserId().equals(userId)) ids.add(hit.getId());
+                    }
+                }
+                postToMain(() -> {
+                    if (!request.isCancelled()) loadRecipesInOrder(request, ids, listener);
+                });
+            }
+
+            @Override
+            public void onFailure(Call<RecipeSearchResponse> call, Throwable t) {
+                postToMain(() -> {
+                    if (!request.isCancelled()) listener.onError(t.getMessage());
+                });
+            }
+        };
+    }
+
+    // Reads the recipes with these ids and returns them in the given order (ids no longer there are skipped)
+    private void loadRecipesInOrder(OfflineFirstRequest request, List<String> ids, OnRecipesLoadedListener listener) {
+        if (ids.isEmpty()) {
+            listener.onRecipesLoaded(new ArrayList<>());
+            return;
+        }
+        List<Task<QuerySnapshot>> reads = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += WHERE_IN_LIMIT) {
+            reads.add(db.collection(RECIPES_COLLECTION)
+                    .whereIn(FieldPath.documentId(), ids.subList(from, Math.min(ids.size(), from + WHERE_IN_LIMIT)))
+                    .get());
+        }
+        Tasks.whenAllSuccess(reads)
+                .addOnSuccessListener(snapshots -> {
+                    if (request.isCancelled()) return;
+                    Map<String, Recipe> byId = new HashMap<>();
+                    for (Object snapshot : snapshots) {
+                        for (QueryDocumentSnapshot document : (QuerySnapshot) snapshot) {
+                            Recipe recipe = document.toObject(Recipe.class);
+                            recipe.setId(document.getId());
+                            byId.put(recipe.getId(), recipe);
+                        }
+                    }
+                    List<Recipe> recipes = new ArrayList<>();
+                    for (String id : ids) {
+                        Recipe recipe = byId.get(id);
+                        if (recipe != null && !recipe.isImportedFromApi()) recipes.add(recipe);
+                    }
+                    listener.onRecipesLoaded(recipes);
+                })
+                .addOnFailureListener(e -> {
+                    if (!request.isCancelled()) listener.onError(e.getMessage());
+                });
+    }
+
     // --- Favorites ---
 
     public Task<Void> toggleFavoriteRecipe(String recipeId, boolean isFavorite) {
-        return db.collection(RECIPES_COLLECTION)
+        return notifyRecipesChangedOnSuccess(db.collection(RECIPES_COLLECTION)
                 .document(recipeId)
-                .update("favorite", isFavorite);
+                .update("favorite", isFavorite, "updatedAt", FieldValue.serverTimestamp()));
     }
 
     public Task<QuerySnapshot> getFavoriteRecipes() {
@@ -233,7 +371,7 @@ public class FirebaseManager {
                             recipe.setId(recipeId);
                             // Update the ID inside the document
                             return task.getResult().getParent().document(recipeId)
-                                    .update("favorite", true);
+                                    .update("favorite", true, "updatedAt", FieldValue.serverTimestamp());
                         } else {
                             throw task.getException();
                         }
@@ -245,142 +383,379 @@ public class FirebaseManager {
 
     // --- External API (TheMealDB) Integration ---
 
-    public void searchOnlineRecipesByFilterOrQuery(RecipeFilter filter, String query, OnRecipesLoadedListener listener) {
+    // Online searches return a handle so a superseded search can be cancelled;
+    // a cancelled search never calls its listener.
+    // The complete result set is handed over unconverted - callers convert only the rows they show
+    // (see OnlineRecipePagingSource).
+    public Cancellable searchOnlineRecipes(RecipeFilter filter, String query, OnApiRecipesLoadedListener listener) {
         // If query exists, search by query
         if (query != null && !query.isEmpty()) {
-            searchOnlineRecipes(query, listener);
-            return;
+            return searchOnlineRecipesWithFilter(RecipeFilter.bySearch(query), listener);
         }
         // If filter exists, search by filter
         if (filter != null && filter.getValue() != null && !filter.getValue().isEmpty()) {
-            searchOnlineRecipesWithFilter(filter, listener);
-            return;
+            return searchOnlineRecipesWithFilter(filter, listener);
         }
-        listener.onRecipesLoaded(new ArrayList<>());
+        listener.onApiRecipesLoaded(new ArrayList<>());
+        return () -> { };
     }
 
-    public void searchOnlineRecipes(String query, OnRecipesLoadedListener listener) {
-        searchOnlineRecipesWithFilter(RecipeFilter.bySearch(query), listener);
+    public Cancellable searchOnlineRecipesWithFilter(RecipeFilter filter, OnApiRecipesLoadedListener listener) {
+        if (filter.getType() != RecipeFilter.FilterType.SEARCH && filter.isMultiValue()) {
+            return searchOnlineRecipesWithTerms(filter, listener);
+        }
+        return fetchApiRecipes(filter.getType(), filter.getValue(), new OnApiRecipesLoadedListener() {
+            @Override
+            public void onApiRecipesLoaded(List<ApiRecipe> recipes) {
+                postToMain(() -> listener.onApiRecipesLoaded(recipes));
+            }
+
+            @Override
+            public void onError(String error) {
+                postToMain(() -> listener.onError(error));
+            }
+        });
     }
 
-    public void searchOnlineRecipesWithFilter(RecipeFilter filter, OnRecipesLoadedListener listener) {
-        Call<ApiRecipeResponse> call;
+    // Offline first: a synced catalog mirror answers without any network call. Otherwise a stored answer
+    // is handed over straight away (and refreshed in the background once older than QUERY_REVALIDATE_MS);
+    // without one the network answers and the result is stored.
+    // The listener runs on a background thread.
+    private Cancellable fetchApiRecipes(RecipeFilter.FilterType type, String value, OnApiRecipesLoadedListener listener) {
+        String queryKey = OfflineRecipeStore.queryKey(type, value);
+        // search.php returns full records, filter.php only summaries
+        boolean fullRecords = type == RecipeFilter.FilterType.SEARCH;
+        OfflineFirstRequest request = new OfflineFirstRequest();
+
+        executors.io().execute(() -> {
+            if (request.isCancelled()) return;
+            List<ApiRecipe> mirrored = catalogMirror.queryNow(type, value);
+            if (mirrored != null) {
+                listener.onApiRecipesLoaded(mirrored);
+                return;
+            }
+            OfflineRecipeStore.Cached<List<ApiRecipe>> stored = offlineStore.getQueryResult(queryKey);
+            if (stored != null) {
+                if (!request.isCancelled()) listener.onApiRecipesLoaded(stored.value);
+                if (stored.isOlderThan(QUERY_REVALIDATE_MS)) {
+                    // Not tied to the request: the fresh answer is for the next time this is searched
+                    apiCalls.enqueue(filterCallFor(type, value), ApiPriority.BACKGROUND,
+                            storingCallback(queryKey, fullRecords, null));
+                }
+                return;
+            }
+            request.setNetworkCall(apiCalls.enqueue(filterCallFor(type, value),
+                    storingCallback(queryKey, fullRecords, listener)));
+        });
+        return request;
+    }
+
+    // Stores a search / filter answer, then hands it to the listener (if any)
+    private Callback<ApiRecipeResponse> storingCallback(String queryKey, boolean fullRecords, OnApiRecipesLoadedListener listener) {
+        return new Callback<ApiRecipeResponse>() {
+            @Override
+            public void onResponse(Call<ApiRecipeResponse> call, Response<ApiRecipeResponse> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    // "No meals" comes back as null, which is a valid empty answer
+                    List<ApiRecipe> results = response.body().getResults() != null
+                            ? response.body().getResults() : new ArrayList<>();
+                    offlineStore.saveQueryResult(queryKey, results, fullRecords);
+                    if (listener != null) listener.onApiRecipesLoaded(results);
+                } else if (listener != null) {
+                    listener.onError("Failed to load recipes");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiRecipeResponse> call, Throwable t) {
+                if (listener != null) listener.onError(t.getMessage());
+            }
+        };
+    }
 
-        switch (filter.getType()) {
+    private Call<ApiRecipeResponse> filterCallFor(RecipeFilter.FilterType type, String value) {
+        switch (type) {
             case CATEGORY:
-                call = ApiClient.getRecipeService().filterByCategory(filter.getValue());
-                break;
+                return ApiClient.getRecipeService().filterByCategory(value);
             case AREA:
-                call = ApiClient.getRecipeService().filterByArea(filter.getValue());
-                break;
+                return ApiClient.getRecipeService().filterByArea(value);
             case INGREDIENT:
-                call = ApiClient.getRecipeService().filterByIngredient(filter.getValue());
-                break;
+                return ApiClient.getRecipeService().filterByIngredient(value);
             case SEARCH:
             default:
-                call = ApiClient.getRecipeService().searchRecipes(filter.getValue());
-                break;
+                return ApiClient.getRecipeService().searchRecipes(value);
         }
+    }
 
-        call.enqueue(new Callback<ApiRecipeResponse>() {
+    // Multi-value filter (two ingredients, category + area, ...): one filter.php call per term in parallel,
+    // then the id sets are intersected (Match.ALL) or joined (Match.ANY). Only the surviving
+    // summaries are handed on.
+    private Cancellable searchOnlineRecipesWithTerms(RecipeFilter filter, OnApiRecipesLoadedListener listener) {
+        List<RecipeFilter> terms = filter.getTerms();
+        TermResults collected = new TermResults(terms.size());
+        List<Cancellable> calls = new ArrayList<>();
+
+        for (int i = 0; i < terms.size(); i++) {
+            final int index = i;
+            RecipeFilter term = terms.get(i);
+            calls.add(fetchApiRecipes(term.getType(), term.getValue(), new OnApiRecipesLoadedListener() {
+                @Override
+                public void onApiRecipesLoaded(List<ApiRecipe> results) {
+                    onTermDone(index, results);
+                }
+
+                @Override
+                public void onError(String error) {
+                    Log.w(TAG, "Filter term " + term.getType() + "=" + term.getValue() + " failed: " + error);
+                    onTermDone(index, null);
+                }
+
+                // Callbacks arrive on background threads, possibly concurrently
+                private void onTermDone(int termIndex, List<ApiRecipe> results) {
+                    if (!collected.set(termIndex, results)) return;
+                    List<ApiRecipe> combined = FilterTermCombiner.combine(filter, collected.results);
+                    if (combined == null) {
+                        postToMain(() -> listener.onError("Failed to load recipes"));
+                        return;
+                    }
+                    postToMain(() -> listener.onApiRecipesLoaded(combined));
+                }
+            }));
+        }
+
+        return () -> {
+            for (Cancellable call : calls) call.cancel();
+        };
+    }
+
+    // Per-term answers of a multi-value filter; a null entry means that term failed
+    private static class TermResults {
+        final List<List<ApiRecipe>> results = new ArrayList<>();
+        private int remaining;
+
+        TermResults(int terms) {
+            for (int i = 0; i < terms; i++) results.add(null);
+            remaining = terms;
+        }
+
+        // Returns true once, for the call that completes the last term
+        synchronized boolean set(int index, List<ApiRecipe> termResults) {
+            results.set(index, termResults);
+            return --remaining == 0;
+        }
+    }
+
+    public Cancellable fetchFullRecipeById(String id, OnRecipesLoadedListener listener) {
+        return fetchFullRecipeById(id, ApiPriority.INTERACTIVE, listener);
+    }
+
+    // The returned handle drops this caller; the listener is not called once the lookup has been cancelled.
+    // A stored full record answers without touching the network (refreshed in the background once a day).
+    public Cancellable fetchFullRecipeById(String id, ApiPriority priority, OnRecipesLoadedListener listener) {
+        OfflineFirstRequest request = new OfflineFirstRequest();
+        executors.io().execute(() -> {
+            if (request.isCancelled()) return;
+            ApiRecipe mirrored = catalogMirror.getNow(id);
+            if (mirrored != null) {
+                List<Recipe> recipes = convertApiRecipesToLocalRecipes(Collections.singletonList(mirrored));
+                postToMain(() -> {
+                    if (!request.isCancelled()) listener.onRecipesLoaded(recipes);
+                });
+                return;
+            }
+            OfflineRecipeStore.Cached<ApiRecipe> stored = offlineStore.getFullRecipe(id);
+            if (stored != null) {
+                List<Recipe> recipes = convertApiRecipesToLocalRecipes(Collections.singletonList(stored.value));
+                postToMain(() -> {
+                    if (!request.isCancelled()) listener.onRecipesLoaded(recipes);
+                });
+                if (stored.isOlderThan(DETAIL_REVALIDATE_MS)) {
+                    apiCalls.enqueue(ApiClient.getRecipeService().getRecipeInformation(id), ApiPriority.BACKGROUND,
+                            lookupCallback(null));
+                }
+                return;
+            }
+            request.setNetworkCall(apiCalls.enqueue(ApiClient.getRecipeService().getRecipeInformation(id), priority,
+                    lookupCallback(listener)));
+        });
+        return request;
+    }
+
+    // One letter of the catalog crawl (see CatalogMirror); full records, also kept in the offline store
+    public Cancellable fetchRecipesByFirstLetter(char letter, ApiPriority priority, OnApiRecipesLoadedListener listener) {
+        return apiCalls.enqueue(ApiClient.getRecipeService().searchRecipesByFirstLetter(String.valueOf(letter)), priority,
+                new Callback<ApiRecipeResponse>() {
+                    @Override
+                    public void onResponse(Call<ApiRecipeResponse> call, Response<ApiRecipeResponse> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            // Letters without meals come back as null
+                            List<ApiRecipe> results = response.body().getResults() != null
+                                    ? response.body().getResults() : new ArrayList<>();
+                            offlineStore.saveFullRecipes(results);
+                            postToMain(() -> listener.onApiRecipesLoaded(results));
+                        } else {
+                            postToMain(() -> listener.onError("Failed to load recipes"));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<ApiRecipeResponse> call, Throwable t) {
+                        postToMain(() -> listener.onError(t.getMessage()));
+                    }
+                });
+    }
+
+    // One random meal (random.php); full record, also kept in the offline store
+    public Cancellable fetchRandomRecipe(ApiPriority priority, OnApiRecipesLoadedListener listener) {
+        return apiCalls.enqueue(ApiClient.getRecipeService().getRandomRecipes(), priority, new Callback<ApiRecipeResponse>() {
             @Override
             public void onResponse(Call<ApiRecipeResponse> call, Response<ApiRecipeResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
+                if (response.isSuccessful() && response.body() != null && response.body().getResults() != null) {
                     List<ApiRecipe> results = response.body().getResults();
-                    if (results != null) {
-                        List<Recipe> recipes = convertApiRecipesToLocalRecipes(results);
-                        // Limit to 10 results
-                        if (recipes.size() > 10) recipes = recipes.subList(0, 10);
-                        listener.onRecipesLoaded(recipes);
-                    } else {
-                        listener.onRecipesLoaded(new ArrayList<>());
-                    }
+                    offlineStore.saveFullRecipes(results);
+                    postToMain(() -> listener.onApiRecipesLoaded(results));
                 } else {
-                    listener.onError("Failed to load recipes");
+                    postToMain(() -> listener.onError("Failed to load a random recipe"));
                 }
             }
 
             @Override
             public void onFailure(Call<ApiRecipeResponse> call, Throwable t) {
-                listener.onError(t.getMessage());
+                postToMain(() -> listener.onError(t.getMessage()));
             }
         });
     }
 
-    public void fetchFullRecipeById(String id, OnRecipesLoadedListener listener) {
-        ApiClient.getRecipeService().getRecipeInformation(id).enqueue(new Callback<ApiRecipeResponse>() {
+    // Stores lookup.php records, then hands them to the listener (if any) on the main thread
+    private Callback<ApiRecipeResponse> lookupCallback(OnRecipesLoadedListener listener) {
+        return new Callback<ApiRecipeResponse>() {
             @Override
             public void onResponse(Call<ApiRecipeResponse> call, Response<ApiRecipeResponse> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().getResults() != null) {
+                    offlineStore.saveFullRecipes(response.body().getResults());
+                    if (listener == null) return;
                     List<Recipe> recipes = convertApiRecipesToLocalRecipes(response.body().getResults());
-                    listener.onRecipesLoaded(recipes);
-                } else {
-                    listener.onError("Recipe details not found");
+                    postToMain(() -> listener.onRecipesLoaded(recipes));
+                } else if (listener != null) {
+                    postToMain(() -> listener.onError("Recipe details not found"));
                 }
             }
             @Override
             public void onFailure(Call<ApiRecipeResponse> call, Throwable t) {
-                listener.onError(t.getMessage());
+                if (listener != null) postToMain(() -> listener.onError(t.getMessage()));
             }
-        });
+        };
+    }
+
+    // Handle for a fetch with a step before the network call (offline store read, ID token): covers
+    // that step and, once it has been made, the network call
+    private static class OfflineFirstRequest implements Cancellable {
+        private volatile boolean cancelled = false;
+        private Cancellable networkCall;
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void setNetworkCall(Cancellable call) {
+            synchronized (this) {
+                if (!cancelled) {
+                    networkCall = call;
+                    return;
+                }
+            }
+            call.cancel();
+        }
+
+        @Override
+        public void cancel() {
+            Cancellable call;
+            synchronized (this) {
+                cancelled = true;
+                call = networkCall;
+                networkCall = null;
+            }
+            if (call != null) call.cancel();
+        }
     }
 
     // --- API Loading Callbacks ---
 
     public void getCategories(OnCategoriesLoadedListener listener) {
-        ApiClient.getRecipeService().getCategories().enqueue(new Callback<CategoryResponse>() {
+        getCategories(ApiPriority.INTERACTIVE, listener);
+    }
+
+    public void getCategories(ApiPriority priority, OnCategoriesLoadedListener listener) {
+        apiCalls.enqueue(ApiClient.getRecipeService().getCategories(), priority, new Callback<CategoryResponse>() {
             @Override
             public void onResponse(Call<CategoryResponse> call, Response<CategoryResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    listener.onCategoriesLoaded(response.body().getCategories());
+                    List<CategoryResponse.Category> items = response.body().getCategories();
+                    postToMain(() -> listener.onCategoriesLoaded(items));
                 } else {
-                    listener.onError("Failed");
+                    postToMain(() -> listener.onError("Failed"));
                 }
             }
             @Override
             public void onFailure(Call<CategoryResponse> call, Throwable t) {
-                listener.onError(t.getMessage());
+                postToMain(() -> listener.onError(t.getMessage()));
             }
         });
     }
 
     public void getAreas(OnAreasLoadedListener listener) {
-        ApiClient.getRecipeService().getAreas("list").enqueue(new Callback<AreaResponse>() {
+        getAreas(ApiPriority.INTERACTIVE, listener);
+    }
+
+    public void getAreas(ApiPriority priority, OnAreasLoadedListener listener) {
+        apiCalls.enqueue(ApiClient.getRecipeService().getAreas("list"), priority, new Callback<AreaResponse>() {
             @Override
             public void onResponse(Call<AreaResponse> call, Response<AreaResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    listener.onAreasLoaded(response.body().getAreas());
+                    List<AreaResponse.Area> items = response.body().getAreas();
+                    postToMain(() -> listener.onAreasLoaded(items));
                 } else {
-                    listener.onError("Failed");
+                    postToMain(() -> listener.onError("Failed"));
                 }
             }
             @Override
             public void onFailure(Call<AreaResponse> call, Throwable t) {
-                listener.onError(t.getMessage());
+                postToMain(() -> listener.onError(t.getMessage()));
             }
         });
     }
 
     public void getIngredients(OnIngredientsLoadedListener listener) {
-        ApiClient.getRecipeService().getIngredients("list").enqueue(new Callback<IngredientResponse>() {
+        getIngredients(ApiPriority.INTERACTIVE, listener);
+    }
+
+    public void getIngredients(ApiPriority priority, OnIngredientsLoadedListener listener) {
+        apiCalls.enqueue(ApiClient.getRecipeService().getIngredients("list"), priority, new Callback<IngredientResponse>() {
             @Override
             public void onResponse(Call<IngredientResponse> call, Response<IngredientResponse> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    listener.onIngredientsLoaded(response.body().getIngredients());
+                    List<IngredientResponse.Ingredient> items = response.body().getIngredients();
+                    postToMain(() -> listener.onIngredientsLoaded(items));
                 } else {
-                    listener.onError("Failed");
+                    postToMain(() -> listener.onError("Failed"));
                 }
             }
             @Override
             public void onFailure(Call<IngredientResponse> call, Throwable t) {
-                listener.onError(t.getMessage());
+                postToMain(() -> listener.onError(t.getMessage()));
             }
         });
     }
 
     // --- Helper Methods ---
 
-    private List<Recipe> convertApiRecipesToLocalRecipes(List<ApiRecipe> apiRecipes) {
+    // Retrofit callbacks arrive on a background executor (see ApiClient); listeners expect the UI thread
+    private void postToMain(Runnable action) {
+        executors.main().execute(action);
+    }
+
+    // CPU work for large lists - call it off the main thread
+    public List<Recipe> convertApiRecipesToLocalRecipes(List<ApiRecipe> apiRecipes) {
         List<Recipe> recipes = new ArrayList<>();
         for (ApiRecipe api : apiRecipes) {
             try {
@@ -402,24 +777,9 @@ public class FirebaseManager {
     }
 
     private List<Ingredient> extractIngredientsFromTheMealDB(ApiRecipe api) {
-        List<Ingredient> ingredients = new ArrayList<>();
-        // Helper arrays to iterate through the 20 possible ingredients
-        String[] ing = {api.getIngredient1(), api.getIngredient2(), api.getIngredient3(), api.getIngredient4(), api.getIngredient5(),
-                api.getIngredient6(), api.getIngredient7(), api.getIngredient8(), api.getIngredient9(), api.getIngredient10(),
-                api.getIngredient11(), api.getIngredient12(), api.getIngredient13(), api.getIngredient14(), api.getIngredient15(),
-                api.getIngredient16(), api.getIngredient17(), api.getIngredient18(), api.getIngredient19(), api.getIngredient20()};
-
-        String[] meas = {api.getMeasure1(), api.getMeasure2(), api.getMeasure3(), api.getMeasure4(), api.getMeasure5(),
-                api.getMeasure6(), api.getMeasure7(), api.getMeasure8(), api.getMeasure9(), api.getMeasure10(),
-                api.getMeasure11(), api.getMeasure12(), api.getMeasure13(), api.getMeasure14(), api.getMeasure15(),
-                api.getMeasure16(), api.getMeasure17(), api.getMeasure18(), api.getMeasure19(), api.getMeasure20()};
-
-        for (int i = 0; i < ing.length; i++) {
-            if (ing[i] != null && !ing[i].trim().isEmpty()) {
-                String measure = (meas[i] != null && !meas[i].trim().isEmpty()) ? meas[i].trim() : "1";
-                ingredients.add(new Ingredient(ing[i].trim(), measure, ""));
-            }
-        }
+        // ApiRecipeTypeAdapter already paired the strIngredientN / strMeasureN slots and dropped blanks
+        List<Ingredient> ingredients = api.getIngredients() != null
+                ? new ArrayList<>(api.getIngredients()) : new ArrayList<>();
 
         if (ingredients.isEmpty()) {
             ingredients.add(new Ingredient("Main Item", "1", "serving"));
@@ -454,6 +814,16 @@ public class FirebaseManager {
 
     // --- Interfaces ---
 
+    public interface OnRecipesChangedListener {
+        void onRecipesChanged();
+    }
+
+    // Raw TheMealDB results, before conversion to Recipe
+    public interface OnApiRecipesLoadedListener {
+        void onApiRecipesLoaded(List<ApiRecipe> recipes);
+        void onError(String error);
+    }
+
     public interface OnRecipesLoadedListener {
         void onRecipesLoaded(List<Recipe> recipes);
         void onError(String error);
@@ -1,7 +1,5 @@
 package com.example.cookbook.util;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 
 import org.json.JSONObject;
@@ -32,8 +30,12 @@ public class ImgBBUploadManager {
     }
 
     public static void uploadImage(final File imageFile, final UploadCallback callback) {
-        // Run network operation in a background thread
-        new Thread(() -> {
+        uploadImage(AppExecutors.getInstance(), imageFile, callback);
+    }
+
+    public static void uploadImage(final AppExecutors executors, final File imageFile, final UploadCallback callback) {
+        // Run network operation on the shared I/O pool
+        executors.io().execute(() -> {
             try {
                 // Build the request body with the image and API key
                 RequestBody requestBody = new MultipartBody.Builder()
@@ -52,7 +54,7 @@ public class ImgBBUploadManager {
                 // Execute the request
                 try (Response response = client.newCall(request).execute()) {
                     if (!response.isSuccessful()) {
-                        runOnMainThread(() -> callback.onError("Upload failed: " + response.code()));
+                        executors.main().execute(() -> callback.onError("Upload failed: " + response.code()));
                         return;
                     }
 
@@ -63,21 +65,16 @@ public class ImgBBUploadManager {
                     if (json.getBoolean("success")) {
                         String imageUrl = json.getJSONObject("data").getString("url");
                         // Return success on Main Thread
-                        runOnMainThread(() -> callback.onSuccess(imageUrl));
+                        executors.main().execute(() -> callback.onSuccess(imageUrl));
                     } else {
                         String errorMsg = json.optString("error", "Unknown error");
-                        runOnMainThread(() -> callback.onError("Upload failed: " + errorMsg));
+                        executors.main().execute(() -> callback.onError("Upload failed: " + errorMsg));
                     }
                 }
             } catch (Exception e) {
                 Log.e(TAG, "Error uploading image", e);
-                runOnMainThread(() -> callback.onError(e.getMessage()));
+                executors.main().execute(() -> callback.onError(e.getMessage()));
             }
-        }).start();
-    }
-
-    // Helper method to ensure callbacks run on the UI thread
-    private static void runOnMainThread(Runnable action) {
-        new Handler(Looper.getMainLooper()).post(action);
+        });
     }
 }
\ No newline at end of file
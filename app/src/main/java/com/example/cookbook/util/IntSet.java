@@ -0,0 +1,103 @@
+package com.example.cookbook.util;
+
+import java.util.Arrays;
+
+// Open-addressing hash set of ints (no boxing), used to combine TheMealDB id lists.
+// Not thread-safe.
+public class IntSet {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] slots;
+    private int size = 0;
+    private boolean containsEmptyMarker = false;
+
+    public IntSet() {
+        this(16);
+    }
+
+    public IntSet(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        slots = newTable(capacity);
+    }
+
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (containsEmptyMarker) return false;
+            containsEmptyMarker = true;
+            size++;
+            return true;
+        }
+        if ((size + 1) * 2 > slots.length) grow();
+        int index = indexOf(slots, value);
+        if (slots[index] == value) return false;
+        slots[index] = value;
+        size++;
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) return containsEmptyMarker;
+        return slots[indexOf(slots, value)] == value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Keeps only the values also present in other (set intersection)
+    public IntSet retainAll(IntSet other) {
+        IntSet result = new IntSet(Math.min(size, other.size));
+        for (int value : slots) {
+            if (value != EMPTY && other.contains(value)) result.add(value);
+        }
+        if (containsEmptyMarker && other.containsEmptyMarker) result.add(EMPTY);
+        slots = result.slots;
+        size = result.size;
+        containsEmptyMarker = result.containsEmptyMarker;
+        return this;
+    }
+
+    // Adds every value of other (set union)
+    public IntSet addAll(IntSet other) {
+        for (int value : other.slots) {
+            if (value != EMPTY) add(value);
+        }
+        if (other.containsEmptyMarker) add(EMPTY);
+        return this;
+    }
+
+    private void grow() {
+        int[] old = slots;
+        slots = newTable(old.length * 2);
+        for (int value : old) {
+            if (value != EMPTY) slots[indexOf(slots, value)] = value;
+        }
+    }
+
+    // Linear probing; returns the slot holding value or the empty slot where it belongs
+    private static int indexOf(int[] table, int value) {
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != EMPTY && table[index] != value) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.cookbook.util;
+
+import android.util.Log;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded thread pool that keeps cheap counters: queue depth, wait time in queue,
+// run time and rejections. Used for every executor in AppExecutors.
+public class MeteredThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final String TAG = "AppExecutors";
+
+    private final String name;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong totalRunMs = new AtomicLong();
+    private final AtomicLong maxRunMs = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public MeteredThreadPoolExecutor(String name, int threads, BlockingQueue<Runnable> queue) {
+        super(threads, threads, 30, TimeUnit.SECONDS, queue, namedThreads(name));
+        this.name = name;
+        allowCoreThreadTimeOut(true);
+        // A full queue should never drop work silently: count it and run it on the caller.
+        // Only safe for pools whose tasks need no ordering - give serial pools an unbounded queue.
+        setRejectedExecutionHandler(new MeteredRejection());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitted.incrementAndGet();
+        super.execute(new TimedRunnable(command));
+        int depth = getQueue().size();
+        int max;
+        while (depth > (max = maxQueueDepth.get()) && !maxQueueDepth.compareAndSet(max, depth)) {
+            // retry until the max is updated
+        }
+    }
+
+    public Stats snapshot() {
+        return new Stats(name, submitted.get(), completed.get(), rejected.get(), getQueue().size(),
+                maxQueueDepth.get(), getActiveCount(), totalWaitMs.get(), totalRunMs.get(), maxRunMs.get());
+    }
+
+    private static ThreadFactory namedThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class TimedRunnable implements Runnable {
+        private final Runnable delegate;
+        private final long enqueuedAt = System.nanoTime();
+
+        TimedRunnable(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            totalWaitMs.addAndGet((start - enqueuedAt) / 1_000_000);
+            try {
+                delegate.run();
+            } finally {
+                long runMs = (System.nanoTime() - start) / 1_000_000;
+                totalRunMs.addAndGet(runMs);
+                long max;
+                while (runMs > (max = maxRunMs.get()) && !maxRunMs.compareAndSet(max, runMs)) {
+                    // retry until the max is updated
+                }
+                completed.incrementAndGet();
+            }
+        }
+    }
+
+    private final class MeteredRejection implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            rejected.incrementAndGet();
+            Log.w(TAG, name + " queue full, running task on caller thread");
+            if (!executor.isShutdown()) {
+                runnable.run();
+            }
+        }
+    }
+
+    public static class Stats {
+        public final String name;
+        public final long submitted;
+        public final long completed;
+        public final long rejected;
+        public final int queueDepth;
+        public final int maxQueueDepth;
+        public final int activeThreads;
+        public final long totalWaitMs;
+        public final long totalRunMs;
+        public final long maxRunMs;
+
+        Stats(String name, long submitted, long completed, long rejected, int queueDepth, int maxQueueDepth,
+              int activeThreads, long totalWaitMs, long totalRunMs, long maxRunMs) {
+            this.name = name;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.activeThreads = activeThreads;
+            this.totalWaitMs = totalWaitMs;
+            this.totalRunMs = totalRunMs;
+            this.maxRunMs = maxRunMs;
+        }
+
+        @Override
+        public String toString() {
+            long avgRun = completed == 0 ? 0 : totalRunMs / completed;
+            long avgWait = completed == 0 ? 0 : totalWaitMs / completed;
+            return name + ": submitted=" + submitted + " completed=" + completed + " rejected=" + rejected
+                    + " queue=" + queueDepth + " (max " + maxQueueDepth + ") active=" + activeThreads
+                    + " avgWait=" + avgWait + "ms avgRun=" + avgRun + "ms maxRun=" + maxRunMs + "ms";
+        }
+    }
+}
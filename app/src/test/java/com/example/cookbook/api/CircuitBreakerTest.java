@@ -0,0 +1,74 @@
+package com.example.cookbook.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    private long now;
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        now = 1_000;
+        breaker = new CircuitBreaker(3, 500, () -> now);
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void successResetsTheFailureCount() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void halfOpenLetsOneTrialThroughAndItsResultDecides() {
+        open();
+        now += 500;
+
+        assertEquals(CircuitBreaker.Permit.TRIAL, breaker.tryAcquire());
+        assertEquals(CircuitBreaker.Permit.DENIED, breaker.tryAcquire());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.Permit.ALLOWED, breaker.tryAcquire());
+
+        open();
+        now += 500;
+        assertEquals(CircuitBreaker.Permit.TRIAL, breaker.tryAcquire());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void releasedTrialLetsTheNextCallTryWithoutClosing() {
+        open();
+        now += 500;
+        assertEquals(CircuitBreaker.Permit.TRIAL, breaker.tryAcquire());
+
+        breaker.releaseTrial();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.Permit.TRIAL, breaker.tryAcquire());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cookbook.api;
+
+import java.io.IOException;
+import java.util.Deque;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+// Retrofit call that answers from a shared script instead of the network. Each enqueue (the
+// original and every clone) takes the next outcome: a body, an IOException, or HANG to stay
+// pending until cancelled. An empty script also hangs.
+class FakeCall<T> implements Call<T> {
+
+    static final Object HANG = new Object();
+
+    private final Request request;
+    private final Deque<Object> script;
+    private boolean executed = false;
+    private volatile boolean canceled = false;
+
+    FakeCall(String url, Deque<Object> script) {
+        this.request = new Request.Builder().url(url).build();
+        this.script = script;
+    }
+
+    @Override
+    public Response<T> execute() throws IOException {
+        throw new UnsupportedOperationException("enqueue only");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void enqueue(Callback<T> callback) {
+        executed = true;
+        Object outcome;
+        synchronized (script) {
+            outcome = script.poll();
+        }
+        if (outcome == null || outcome == HANG) return;
+        if (outcome instanceof IOException) {
+            callback.onFailure(this, (IOException) outcome);
+        } else {
+            callback.onResponse(this, Response.success((T) outcome));
+        }
+    }
+
+    @Override
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    @Override
+    public Call<T> clone() {
+        return new FakeCall<>(request.url().toString(), script);
+    }
+
+    @Override
+    public Request request() {
+        return request;
+    }
+
+    @Override
+    public Timeout timeout() {
+        return Timeout.NONE;
+    }
+}
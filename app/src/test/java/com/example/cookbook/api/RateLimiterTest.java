@@ -0,0 +1,63 @@
+package com.example.cookbook.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private long now;
+    private RateLimiter limiter;
+
+    @Before
+    public void setUp() {
+        now = 5 * SECOND;
+        limiter = new RateLimiter(() -> now);
+    }
+
+    @Test
+    public void endpointBucketRefillsAtItsOwnRate() {
+        // searchRecipes: bursts of 3, one per second
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("searchRecipes", ApiPriority.INTERACTIVE));
+        }
+        assertFalse(limiter.tryAcquire("searchRecipes", ApiPriority.INTERACTIVE));
+        assertEquals(1000, limiter.millisUntilAvailable("searchRecipes", ApiPriority.INTERACTIVE));
+        // Other endpoints still have their own budget
+        assertTrue(limiter.tryAcquire("getRecipeInformation", ApiPriority.INTERACTIVE));
+
+        now += SECOND;
+        assertTrue(limiter.tryAcquire("searchRecipes", ApiPriority.INTERACTIVE));
+        assertFalse(limiter.tryAcquire("searchRecipes", ApiPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void globalBucketCapsEveryEndpointTogether() {
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire("unlisted", ApiPriority.INTERACTIVE));
+        }
+        assertFalse(limiter.tryAcquire("unlisted", ApiPriority.INTERACTIVE));
+        assertFalse(limiter.tryAcquire("getRecipeInformation", ApiPriority.INTERACTIVE));
+        // 4 per second
+        assertEquals(250, limiter.millisUntilAvailable("unlisted", ApiPriority.INTERACTIVE));
+
+        now += SECOND / 4;
+        assertTrue(limiter.tryAcquire("unlisted", ApiPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void backgroundCallsLeaveAReserveForTheUser() {
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.tryAcquire("unlisted", ApiPriority.BACKGROUND));
+        }
+        assertFalse(limiter.tryAcquire("unlisted", ApiPriority.BACKGROUND));
+        assertEquals(250, limiter.millisUntilAvailable("unlisted", ApiPriority.BACKGROUND));
+
+        assertTrue(limiter.tryAcquire("unlisted", ApiPriority.INTERACTIVE));
+        assertTrue(limiter.tryAcquire("unlisted", ApiPriority.VISIBLE_PREFETCH));
+        assertFalse(limiter.tryAcquire("unlisted", ApiPriority.INTERACTIVE));
+    }
+}
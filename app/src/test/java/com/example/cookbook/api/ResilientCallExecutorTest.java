@@ -0,0 +1,125 @@
+package com.example.cookbook.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class ResilientCallExecutorTest {
+
+    private static final String URL = "https://www.themealdb.com/api/json/v1/1/search.php?s=cake";
+
+    private long now;
+    private ScheduledExecutorService scheduler;
+    private CircuitBreaker breaker;
+    private ResilientCallExecutor executor;
+
+    @Before
+    public void setUp() {
+        now = 1_000;
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        breaker = new CircuitBreaker(2, 30_000, () -> now);
+        executor = new ResilientCallExecutor(scheduler, breaker);
+        executor.setHedgingEnabled(false);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void failedAttemptIsRetriedAndTheAnswerDeliveredOnce() throws Exception {
+        Recorder recorder = new Recorder();
+        executor.enqueue(call(new IOException("reset"), "cake"), recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals("cake", recorder.body.get());
+        assertEquals(1, recorder.calls.get());
+    }
+
+    @Test
+    public void openBreakerFailsFast() {
+        openBreaker();
+        Recorder recorder = new Recorder();
+
+        executor.enqueue(call("cake"), recorder);
+
+        assertTrue(recorder.error.get() instanceof ResilientCallExecutor.CircuitOpenException);
+    }
+
+    @Test
+    public void cancellingTheHalfOpenTrialLetsTheNextCallTry() {
+        openBreaker();
+        now += 30_000;
+
+        // Becomes the half-open trial, then is abandoned (debounced search, scrolled-away prefetch)
+        Cancellable trial = executor.enqueue(call(FakeCall.HANG), new Recorder());
+        assertFalse(breaker.allowRequest());
+        trial.cancel();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Recorder next = new Recorder();
+        executor.enqueue(call("cake"), next);
+        assertEquals("cake", next.body.get());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void cancelledCallsAreNotReported() throws Exception {
+        Recorder recorder = new Recorder();
+        Cancellable handle = executor.enqueue(call(new IOException("reset"), "cake"), recorder);
+        handle.cancel();
+
+        assertFalse(recorder.done.await(1500, TimeUnit.MILLISECONDS));
+        assertEquals(0, recorder.calls.get());
+    }
+
+    private void openBreaker() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static Call<String> call(Object... outcomes) {
+        Deque<Object> script = new ArrayDeque<>(Arrays.asList(outcomes));
+        return new FakeCall<>(URL, script);
+    }
+
+    private static class Recorder implements Callback<String> {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicReference<String> body = new AtomicReference<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void onResponse(Call<String> call, Response<String> response) {
+            calls.incrementAndGet();
+            body.set(response.body());
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<String> call, Throwable t) {
+            calls.incrementAndGet();
+            error.set(t);
+            done.countDown();
+        }
+    }
+}
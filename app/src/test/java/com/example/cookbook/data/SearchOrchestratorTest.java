@@ -0,0 +1,181 @@
+package com.example.cookbook.data;
+
+import com.example.cookbook.api.Cancellable;
+import com.example.cookbook.model.Recipe;
+import com.example.cookbook.util.AppExecutors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchOrchestratorTest {
+
+    private ManualMainThread mainThread;
+    private SearchOrchestrator orchestrator;
+    private ManualSource local;
+    private ManualSource online;
+    private final List<SearchOrchestrator.SearchResult> partials = new ArrayList<>();
+    private final List<SearchOrchestrator.SearchResult> finished = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mainThread = new ManualMainThread();
+        orchestrator = new SearchOrchestrator(mainThread);
+        local = new ManualSource("local");
+        online = new ManualSource("online");
+    }
+
+    @Test
+    public void partialResultsShowEachSourceAsItLands() {
+        search(local, online);
+
+        online.answer("Pho");
+        assertEquals(1, partials.size());
+        assertTitles(partials.get(0), "Pho");
+        assertEquals(Collections.singletonList("local"), partials.get(0).getPendingSources());
+        assertTrue(finished.isEmpty());
+
+        local.answer("Lemon Cake");
+        assertEquals(1, finished.size());
+        // Source order, not arrival order
+        assertTitles(finished.get(0), "Lemon Cake", "Pho");
+        assertTrue(finished.get(0).isComplete());
+        assertNull(mainThread.delayed);
+    }
+
+    @Test
+    public void deadlineReturnsWhatArrivedAndCancelsTheRest() {
+        search(local, online);
+        local.answer("Lemon Cake");
+
+        mainThread.fireDelayed();
+
+        assertEquals(1, finished.size());
+        SearchOrchestrator.SearchResult result = finished.get(0);
+        assertTitles(result, "Lemon Cake");
+        assertEquals(Collections.singletonList("online"), result.getTimedOutSources());
+        assertFalse(result.isComplete());
+        assertTrue(online.cancelled);
+        assertFalse(local.cancelled);
+        assertEquals(1, orchestrator.snapshot().get("online").getTimeouts());
+
+        // A late answer changes nothing
+        online.answer("Pho");
+        assertEquals(1, finished.size());
+    }
+
+    @Test
+    public void failedSourcesAreReportedAndTheRestStillShown() {
+        search(local, online);
+        online.fail("HTTP 500");
+        local.answer("Lemon Cake");
+
+        SearchOrchestrator.SearchResult result = finished.get(0);
+        assertTitles(result, "Lemon Cake");
+        assertEquals(Collections.singletonList("online"), result.getFailedSources());
+        assertFalse(result.isComplete());
+        // A failure alone is not worth a partial render
+        assertTrue(partials.isEmpty());
+    }
+
+    @Test
+    public void cancellingSuppressesTheListener() {
+        Cancellable handle = search(local, online);
+        local.answer("Lemon Cake");
+        partials.clear();
+
+        handle.cancel();
+        online.answer("Pho");
+
+        assertTrue(online.cancelled);
+        assertNull(mainThread.delayed);
+        assertTrue(partials.isEmpty());
+        assertTrue(finished.isEmpty());
+    }
+
+    private Cancellable search(ManualSource... sources) {
+        return orchestrator.search(Arrays.<SearchOrchestrator.SearchSource>asList(sources), 800,
+                new SearchOrchestrator.OnSearchFinishedListener() {
+                    @Override
+                    public void onSearchFinished(SearchOrchestrator.SearchResult result) {
+                        finished.add(result);
+                    }
+
+                    @Override
+                    public void onPartialResult(SearchOrchestrator.SearchResult partial) {
+                        partials.add(partial);
+                    }
+                });
+    }
+
+    private static void assertTitles(SearchOrchestrator.SearchResult result, String... titles) {
+        List<String> actual = new ArrayList<>();
+        for (Recipe recipe : result.getRecipes()) {
+            actual.add(recipe.getTitle());
+        }
+        assertEquals(Arrays.asList(titles), actual);
+    }
+
+    // Holds the one delayed task (the deadline) until the test fires it
+    private static class ManualMainThread extends AppExecutors.MainThreadExecutor {
+        Runnable delayed;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void executeDelayed(Runnable command, long delayMs) {
+            delayed = command;
+        }
+
+        @Override
+        public void cancel(Runnable command) {
+            if (delayed == command) delayed = null;
+        }
+
+        void fireDelayed() {
+            Runnable task = delayed;
+            delayed = null;
+            task.run();
+        }
+    }
+
+    private static class ManualSource implements SearchOrchestrator.SearchSource {
+        private final String name;
+        private SearchOrchestrator.SourceCallback callback;
+        boolean cancelled;
+
+        ManualSource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Cancellable search(SearchOrchestrator.SourceCallback callback) {
+            this.callback = callback;
+            return () -> cancelled = true;
+        }
+
+        void answer(String title) {
+            Recipe recipe = new Recipe();
+            recipe.setTitle(title);
+            callback.onResults(Collections.singletonList(recipe));
+        }
+
+        void fail(String error) {
+            callback.onError(error);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.cookbook.util;
+
+import com.example.cookbook.api.model.ApiRecipe;
+import com.example.cookbook.model.RecipeFilter;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FilterTermCombinerTest {
+
+    @Test
+    public void allKeepsRecipesInEveryTermInFirstTermOrder() {
+        RecipeFilter filter = RecipeFilter.byIngredients(Arrays.asList("Chicken", "Rice"), RecipeFilter.Match.ALL);
+
+        List<ApiRecipe> combined = FilterTermCombiner.combine(filter, Arrays.asList(
+                meals("52795", "52772", "52940"),
+                meals("52940", "52795", "53000")));
+
+        assertEquals(Arrays.asList("52795", "52940"), ids(combined));
+    }
+
+    @Test
+    public void anyJoinsTermsWithoutDuplicates() {
+        RecipeFilter filter = RecipeFilter.byIngredients(Arrays.asList("Chicken", "Rice"), RecipeFilter.Match.ANY);
+
+        List<ApiRecipe> combined = FilterTermCombiner.combine(filter, Arrays.asList(
+                meals("52795", "52772"),
+                meals("52772", "53000")));
+
+        assertEquals(Arrays.asList("52795", "52772", "53000"), ids(combined));
+    }
+
+    @Test
+    public void aFailedTermFailsTheWholeFilter() {
+        RecipeFilter filter = RecipeFilter.byIngredients(Arrays.asList("Chicken", "Rice"), RecipeFilter.Match.ANY);
+        List<List<ApiRecipe>> perTerm = new ArrayList<>();
+        perTerm.add(meals("52795"));
+        perTerm.add(null);
+
+        assertNull(FilterTermCombiner.combine(filter, perTerm));
+    }
+
+    @Test
+    public void categoryTermFillsInTheCategoryOfSurvivors() {
+        RecipeFilter filter = RecipeFilter.byCategory("Seafood").and(RecipeFilter.byArea("Japanese"));
+
+        List<ApiRecipe> combined = FilterTermCombiner.combine(filter, Arrays.asList(
+                meals("52959", "52819"),
+                meals("52819", "53033")));
+
+        assertEquals(Arrays.asList("52819"), ids(combined));
+        assertEquals("Seafood", combined.get(0).getCategory());
+    }
+
+    private static List<ApiRecipe> meals(String... ids) {
+        List<ApiRecipe> meals = new ArrayList<>();
+        for (String id : ids) meals.add(new ApiRecipe(id, "Meal " + id, null));
+        return meals;
+    }
+
+    private static List<String> ids(List<ApiRecipe> recipes) {
+        List<String> ids = new ArrayList<>();
+        for (ApiRecipe recipe : recipes) ids.add(recipe.getId());
+        return ids;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cookbook.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntSetTest {
+
+    @Test
+    public void addAndContainsSurviveGrowth() {
+        IntSet set = new IntSet(2);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.add(i * 7919));
+        }
+        assertFalse(set.add(7919));
+
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.contains(i * 7919));
+        }
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    public void theEmptySlotMarkerIsAnOrdinaryValue() {
+        IntSet set = new IntSet();
+        assertFalse(set.contains(Integer.MIN_VALUE));
+
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertFalse(set.add(Integer.MIN_VALUE));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void retainAllIntersectsAndAddAllJoins() {
+        IntSet a = of(1, 2, 3, Integer.MIN_VALUE);
+        IntSet b = of(2, 3, 4, Integer.MIN_VALUE);
+
+        a.retainAll(b);
+        assertEquals(3, a.size());
+        assertTrue(a.contains(2) && a.contains(3) && a.contains(Integer.MIN_VALUE));
+        assertFalse(a.contains(1));
+
+        a.addAll(of(5, 6));
+        assertEquals(5, a.size());
+        assertTrue(a.contains(5) && a.contains(6));
+        assertTrue(a.retainAll(new IntSet()).isEmpty());
+    }
+
+    private static IntSet of(int... values) {
+        IntSet set = new IntSet();
+        for (int value : values) set.add(value);
+        return set;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.cookbook.gateway;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// An upstream answer as it is cached and served: status plus compacted JSON body
+public class GatewayResponse {
+
+    private final int status;
+    private final byte[] body;
+    // Gzipped body, built on first use and then shared by every client that accepts gzip
+    private volatile byte[] gzipped;
+
+    public GatewayResponse(int status, byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    public static GatewayResponse error(int status, String message) {
+        String json = "{\"error\":\"" + message.replace("\"", "'") + "\"}";
+        return new GatewayResponse(status, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isSuccessful() {
+        return status == 200;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzippedBody() {
+        byte[] result = gzipped;
+        if (result == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            result = out.toByteArray();
+            gzipped = result;
+        }
+        return result;
+    }
+
+    // Rough heap cost, used for the cache budget (the gzipped copy is usually much smaller)
+    public int weight() {
+        return body.length + body.length / 4 + 64;
+    }
+}
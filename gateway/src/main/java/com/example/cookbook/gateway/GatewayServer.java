@@ -0,0 +1,151 @@
+package com.example.cookbook.gateway;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// HTTP front of RecipeGateway. Serves the same paths as TheMealDB under BASE_PATH, so the app only
+// swaps its base URL (MEALDB_BASE_URL in local.properties). GET /stats reports cache counters.
+//
+// Configuration (environment): GATEWAY_PORT (8080), MEALDB_UPSTREAM (TheMealDB v1 free key),
+// GATEWAY_CACHE_MB (64), GATEWAY_THREADS (16).
+public class GatewayServer {
+
+    public static final String BASE_PATH = "/api/json/v1/1/";
+    public static final String DEFAULT_UPSTREAM = "https://www.themealdb.com/api/json/v1/1/";
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    static {
+        // Headers and body go out as separate writes; without this, delayed ACKs add ~40 ms per response.
+        // Read once when the JDK server classes load, so it has to be set before the first HttpServer.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RecipeGateway gateway;
+    private final Gson gson = new Gson();
+
+    public GatewayServer(int port, RecipeGateway gateway, int threads) throws IOException {
+        this.gateway = gateway;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH, this::handleApi);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(env("GATEWAY_PORT", "8080"));
+        String upstream = env("MEALDB_UPSTREAM", DEFAULT_UPSTREAM);
+        long cacheBytes = Long.parseLong(env("GATEWAY_CACHE_MB", "64")) * 1024 * 1024;
+        int threads = Integer.parseInt(env("GATEWAY_THREADS", "16"));
+
+        RecipeGateway gateway = new RecipeGateway(new UpstreamClient(upstream), new ResponseCache(cacheBytes));
+        GatewayServer server = new GatewayServer(port, gateway, threads);
+        server.start();
+        System.out.println("Recipe gateway on :" + server.getPort() + BASE_PATH + " -> " + upstream);
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // --- Handlers ---
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            send(exchange, GatewayResponse.error(405, "Only GET is supported"), RecipeGateway.BYPASS, 0);
+            return;
+        }
+        String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+        Map<String, String> query;
+        try {
+            query = parseQuery(exchange.getRequestURI().getRawQuery());
+        } catch (IllegalArgumentException e) {
+            // Broken % escape
+            send(exchange, GatewayResponse.error(400, "Malformed query"), RecipeGateway.BYPASS, 0);
+            return;
+        }
+
+        // Answered on whichever thread completes the lookup; the exchange is not touched before that
+        gateway.handle(path, query).whenComplete((result, error) -> {
+            try {
+                if (error != null) {
+                    send(exchange, GatewayResponse.error(500, "Gateway error"), RecipeGateway.BYPASS, 0);
+                } else {
+                    send(exchange, result.response, result.cacheState, result.maxAgeSeconds);
+                }
+            } catch (IOException e) {
+                // Client went away
+                exchange.close();
+            }
+        });
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        byte[] body = gson.toJson(gateway.stats()).getBytes(StandardCharsets.UTF_8);
+        send(exchange, new GatewayResponse(200, body), RecipeGateway.BYPASS, 0);
+    }
+
+    private static void send(HttpExchange exchange, GatewayResponse response, String cacheState,
+                             long maxAgeSeconds) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("X-Cache", cacheState);
+        headers.set("Cache-Control", maxAgeSeconds > 0 ? "public, max-age=" + maxAgeSeconds : "no-store");
+        // The body is gzipped or not depending on Accept-Encoding; shared caches must keep both apart
+        headers.set("Vary", "Accept-Encoding");
+
+        byte[] body = response.getBody();
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length >= GZIP_MIN_BYTES && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = response.getGzippedBody();
+            headers.set("Content-Encoding", "gzip");
+        }
+
+        exchange.sendResponseHeaders(response.getStatus(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Throws IllegalArgumentException on a malformed % escape
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return query;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
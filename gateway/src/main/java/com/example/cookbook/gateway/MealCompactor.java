@@ -0,0 +1,70 @@
+package com.example.cookbook.gateway;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Shrinks TheMealDB responses before they are cached: most meals fill well under half of their
+// 20 strIngredientN / strMeasureN slots, and the rest come back as "" or null
+public class MealCompactor {
+
+    private static final String INGREDIENT_PREFIX = "strIngredient";
+    private static final String MEASURE_PREFIX = "strMeasure";
+
+    private final Gson gson = new Gson();
+
+    public byte[] compact(byte[] body) {
+        JsonElement root;
+        try {
+            root = JsonParser.parseString(new String(body, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            // Not JSON (e.g. an upstream error page): pass it on untouched
+            return body;
+        }
+        JsonArray meals = mealsOf(root);
+        if (meals == null) return body;
+
+        for (JsonElement meal : meals) {
+            if (meal.isJsonObject()) dropEmptySlots(meal.getAsJsonObject());
+        }
+        return gson.toJson(root).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // The "meals" array of a response, or null when there is none
+    public static JsonArray mealsOf(JsonElement root) {
+        if (root == null || !root.isJsonObject()) return null;
+        JsonElement meals = root.getAsJsonObject().get("meals");
+        return meals != null && meals.isJsonArray() ? meals.getAsJsonArray() : null;
+    }
+
+    private static void dropEmptySlots(JsonObject meal) {
+        List<String> empty = new ArrayList<>();
+        for (Map.Entry<String, JsonElement> field : meal.entrySet()) {
+            String name = field.getKey();
+            if (!isSlot(name, INGREDIENT_PREFIX) && !isSlot(name, MEASURE_PREFIX)) continue;
+            JsonElement value = field.getValue();
+            if (value.isJsonNull() || (value.isJsonPrimitive() && value.getAsString().trim().isEmpty())) {
+                empty.add(name);
+            }
+        }
+        for (String name : empty) {
+            meal.remove(name);
+        }
+    }
+
+    // strIngredient7 is a slot; list.php's plain "strIngredient" is not
+    private static boolean isSlot(String name, String prefix) {
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) return false;
+        for (int i = prefix.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) return false;
+        }
+        return true;
+    }
+}
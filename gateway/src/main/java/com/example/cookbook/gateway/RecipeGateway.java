@@ -0,0 +1,256 @@
+package com.example.cookbook.gateway;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// The endpoints of the app's RecipeApiService, answered from one cache shared by every client.
+// Misses go upstream once per distinct request (see RequestCoalescer) and are compacted before caching.
+// lookup.php also accepts a comma-separated id list and answers it in one response.
+public class RecipeGateway {
+
+    public static final int MAX_BATCH_IDS = 100;
+
+    public static final String HIT = "HIT";
+    public static final String MISS = "MISS";
+    public static final String COALESCED = "COALESCED";
+    public static final String BYPASS = "BYPASS";
+
+    private static final long LIST_TTL_MS = TimeUnit.HOURS.toMillis(24);
+    private static final long LOOKUP_TTL_MS = TimeUnit.HOURS.toMillis(24);
+    private static final long QUERY_TTL_MS = TimeUnit.HOURS.toMillis(1);
+
+    // What the gateway proxies: path, how long answers stay fresh (0 = never cached) and the
+    // query parameters that are forwarded, in the order used for the cache key
+    private static class Endpoint {
+        final String path;
+        final long ttlMs;
+        final List<String> params;
+
+        Endpoint(String path, long ttlMs, String... params) {
+            this.path = path;
+            this.ttlMs = ttlMs;
+            this.params = Arrays.asList(params);
+        }
+    }
+
+    private static final Map<String, Endpoint> ENDPOINTS = new HashMap<>();
+
+    static {
+        register(new Endpoint("search.php", QUERY_TTL_MS, "s", "f"));
+        register(new Endpoint("lookup.php", LOOKUP_TTL_MS, "i"));
+        // A different meal on every call: never cached, never merged
+        register(new Endpoint("random.php", 0));
+        register(new Endpoint("filter.php", QUERY_TTL_MS, "c", "a", "i"));
+        register(new Endpoint("categories.php", LIST_TTL_MS));
+        register(new Endpoint("list.php", LIST_TTL_MS, "c", "a", "i"));
+    }
+
+    private static void register(Endpoint endpoint) {
+        ENDPOINTS.put(endpoint.path, endpoint);
+    }
+
+    public static class Result {
+        public final GatewayResponse response;
+        public final String cacheState;
+        public final long maxAgeSeconds;
+        // How much longer the answer stays fresh; a cache hit only has what is left of its entry
+        final long freshForMs;
+
+        Result(GatewayResponse response, String cacheState, long freshForMs) {
+            this.response = response;
+            this.cacheState = cacheState;
+            this.freshForMs = response.isSuccessful() ? freshForMs : 0;
+            this.maxAgeSeconds = TimeUnit.MILLISECONDS.toSeconds(this.freshForMs);
+        }
+    }
+
+    private final UpstreamClient upstream;
+    private final ResponseCache cache;
+    // Wall clock in ms, for cache expiry
+    private final LongSupplier clock;
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final MealCompactor compactor = new MealCompactor();
+    private final Gson gson = new Gson();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    public RecipeGateway(UpstreamClient upstream, ResponseCache cache) {
+        this(upstream, cache, System::currentTimeMillis);
+    }
+
+    RecipeGateway(UpstreamClient upstream, ResponseCache cache, LongSupplier clock) {
+        this.upstream = upstream;
+        this.cache = cache;
+        this.clock = clock;
+    }
+
+    public CompletableFuture<Result> handle(String path, Map<String, String> query) {
+        Endpoint endpoint = ENDPOINTS.get(path);
+        if (endpoint == null) {
+            return CompletableFuture.completedFuture(
+                    new Result(GatewayResponse.error(404, "Unknown endpoint"), BYPASS, 0));
+        }
+
+        String ids = query.get("i");
+        if (endpoint.path.equals("lookup.php") && ids != null && ids.indexOf(',') >= 0) {
+            return lookupBatch(endpoint, ids);
+        }
+        return fetch(endpoint, normalize(endpoint, query));
+    }
+
+    // --- Single requests ---
+
+    private CompletableFuture<Result> fetch(Endpoint endpoint, Map<String, String> params) {
+        String key = cacheKey(endpoint, params);
+
+        if (endpoint.ttlMs == 0) {
+            bypassed.incrementAndGet();
+            return loadFromUpstream(key).thenApply(response -> new Result(response, BYPASS, 0));
+        }
+
+        long now = clock.getAsLong();
+        ResponseCache.Entry cached = cache.get(key, now);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(
+                    new Result(cached.getResponse(), HIT, cached.getExpiresAt() - now));
+        }
+
+        boolean[] joined = new boolean[1];
+        CompletableFuture<GatewayResponse> response = coalescer.load(key, () -> {
+            misses.incrementAndGet();
+            return loadFromUpstream(key).thenApply(loaded -> {
+                if (loaded.isSuccessful()) {
+                    cache.put(key, loaded, clock.getAsLong() + endpoint.ttlMs);
+                }
+                return loaded;
+            });
+        }, () -> {
+            coalesced.incrementAndGet();
+            joined[0] = true;
+        });
+        return response.thenApply(loaded -> new Result(loaded, joined[0] ? COALESCED : MISS, endpoint.ttlMs));
+    }
+
+    private CompletableFuture<GatewayResponse> loadFromUpstream(String pathAndQuery) {
+        return upstream.fetch(pathAndQuery)
+                .thenApply(response -> response.isSuccessful()
+                        ? new GatewayResponse(response.getStatus(), compactor.compact(response.getBody()))
+                        : response)
+                .exceptionally(error -> GatewayResponse.error(502, "Upstream unavailable"));
+    }
+
+    // --- Batch lookup ---
+
+    // Every id is looked up (and cached) on its own, so a batch shares entries with single lookups
+    private CompletableFuture<Result> lookupBatch(Endpoint endpoint, String idList) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : idList.split(",")) {
+            String trimmed = id.trim();
+            if (!trimmed.isEmpty()) ids.add(trimmed);
+        }
+        if (ids.size() > MAX_BATCH_IDS) {
+            return CompletableFuture.completedFuture(new Result(
+                    GatewayResponse.error(400, "At most " + MAX_BATCH_IDS + " ids per lookup"), BYPASS, 0));
+        }
+        batches.incrementAndGet();
+
+        List<CompletableFuture<Result>> parts = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Map<String, String> params = new HashMap<>();
+            params.put("i", id);
+            parts.add(fetch(endpoint, params));
+        }
+
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            JsonArray meals = new JsonArray();
+            boolean allCached = true;
+            // The batch is only as fresh as its stalest part
+            long freshForMs = endpoint.ttlMs;
+            for (CompletableFuture<Result> part : parts) {
+                Result result = part.join();
+                if (!result.response.isSuccessful()) {
+                    return new Result(GatewayResponse.error(502, "Lookup failed upstream"), MISS, 0);
+                }
+                allCached &= HIT.equals(result.cacheState);
+                freshForMs = Math.min(freshForMs, result.freshForMs);
+                JsonArray partMeals = MealCompactor.mealsOf(
+                        JsonParser.parseString(new String(result.response.getBody(), StandardCharsets.UTF_8)));
+                if (partMeals != null) meals.addAll(partMeals);
+            }
+
+            // Same shape as TheMealDB: "meals" is null when nothing matched
+            JsonObject root = new JsonObject();
+            root.add("meals", meals.size() > 0 ? meals : null);
+            byte[] body = gson.toJson(root).getBytes(StandardCharsets.UTF_8);
+            return new Result(new GatewayResponse(200, body), allCached ? HIT : MISS, freshForMs);
+        });
+    }
+
+    // --- Keys ---
+
+    // Keeps only forwarded parameters; search terms are case-insensitive upstream, so they share entries
+    private static Map<String, String> normalize(Endpoint endpoint, Map<String, String> query) {
+        Map<String, String> params = new HashMap<>();
+        for (String name : endpoint.params) {
+            String value = query.get(name);
+            if (value == null) continue;
+            value = value.trim();
+            if (endpoint.path.equals("search.php")) value = value.toLowerCase(Locale.ROOT);
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    // Doubles as the upstream path and query
+    private static String cacheKey(Endpoint endpoint, Map<String, String> params) {
+        StringBuilder key = new StringBuilder(endpoint.path);
+        char separator = '?';
+        for (String name : endpoint.params) {
+            String value = params.get(name);
+            if (value == null) continue;
+            key.append(separator).append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return key.toString();
+    }
+
+    // --- Stats ---
+
+    public JsonElement stats() {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("hits", hits.get());
+        stats.addProperty("misses", misses.get());
+        stats.addProperty("coalesced", coalesced.get());
+        stats.addProperty("bypassed", bypassed.get());
+        stats.addProperty("batches", batches.get());
+        stats.addProperty("upstreamCalls", upstream.getCalls());
+        stats.addProperty("upstreamBytes", upstream.getBytesReceived());
+        stats.addProperty("cacheEntries", cache.size());
+        stats.addProperty("cacheBytes", cache.sizeBytes());
+        stats.addProperty("inFlight", coalescer.inFlightCount());
+        return stats;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.cookbook.gateway;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Identical requests that arrive while one is already on its way upstream share that one call,
+// no matter which client sent them
+public class RequestCoalescer {
+
+    private final ConcurrentHashMap<String, CompletableFuture<GatewayResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public interface OnJoinedListener {
+        void onJoined();
+    }
+
+    public CompletableFuture<GatewayResponse> load(String key, Supplier<CompletableFuture<GatewayResponse>> loader,
+                                                   OnJoinedListener joinedListener) {
+        CompletableFuture<GatewayResponse> pending = new CompletableFuture<>();
+        CompletableFuture<GatewayResponse> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            joinedListener.onJoined();
+            return existing;
+        }
+
+        CompletableFuture<GatewayResponse> call;
+        try {
+            call = loader.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        // The loader stores into the cache first, so nobody slips in between removal and caching
+        call.whenComplete((response, error) -> {
+            inFlight.remove(key, pending);
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(response);
+            }
+        });
+        return pending;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.cookbook.gateway;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Shared LRU cache of upstream responses, bounded by total body size; entries expire per endpoint TTL
+public class ResponseCache {
+
+    public static class Entry {
+        final GatewayResponse response;
+        final long expiresAt;
+        final int weight;
+
+        Entry(GatewayResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+            this.weight = response.weight();
+        }
+
+        public GatewayResponse getResponse() {
+            return response;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private final long maxBytes;
+    // Access order: the eldest entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes = 0;
+
+    public ResponseCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized Entry get(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt <= now) {
+            entries.remove(key);
+            totalBytes -= entry.weight;
+            return null;
+        }
+        return entry;
+    }
+
+    public synchronized void put(String key, GatewayResponse response, long expiresAt) {
+        Entry entry = new Entry(response, expiresAt);
+        // Larger than the whole budget: not worth evicting everything else for
+        if (entry.weight > maxBytes) return;
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) totalBytes -= previous.weight;
+        totalBytes += entry.weight;
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= evicted.weight;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+}
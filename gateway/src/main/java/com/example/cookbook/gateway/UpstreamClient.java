@@ -0,0 +1,52 @@
+package com.example.cookbook.gateway;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Calls TheMealDB (or a stub of it); one shared HTTP/keep-alive client for every gateway request
+public class UpstreamClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public UpstreamClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    // pathAndQuery is relative to the base URL, e.g. "lookup.php?i=52772"
+    public CompletableFuture<GatewayResponse> fetch(String pathAndQuery) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        calls.incrementAndGet();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    bytesReceived.addAndGet(response.body().length);
+                    return new GatewayResponse(response.statusCode(), response.body());
+                });
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.cookbook.gateway;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Many clients hitting a skewed mix of searches and lookups, once straight at the stub and once
+// through the gateway. The stub sleeps like a remote API would. Run with ./gradlew :gateway:benchmark
+public class GatewayBenchmark {
+
+    private static final int CLIENTS = 32;
+    private static final int REQUESTS_PER_CLIENT = 100;
+    private static final long UPSTREAM_LATENCY_MS = 60;
+    private static final int DISTINCT_QUERIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        StubMealDb stub = new StubMealDb(UPSTREAM_LATENCY_MS);
+        RecipeGateway gateway = new RecipeGateway(new UpstreamClient(stub.baseUrl()),
+                new ResponseCache(64L * 1024 * 1024));
+        GatewayServer server = new GatewayServer(0, gateway, CLIENTS);
+        server.start();
+
+        try {
+            List<String> workload = workload();
+            run("direct", stub.baseUrl(), workload, stub);
+            run("gateway", "http://127.0.0.1:" + server.getPort() + GatewayServer.BASE_PATH, workload, stub);
+            System.out.println("gateway stats: " + gateway.stats());
+        } finally {
+            server.stop();
+            stub.stop();
+        }
+    }
+
+    // Zipf-like popularity: a few queries are asked by nearly everyone, most are rare
+    private static List<String> workload() {
+        Random random = new Random(42);
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < CLIENTS * REQUESTS_PER_CLIENT; i++) {
+            int rank = (int) Math.min(DISTINCT_QUERIES - 1, Math.floor(Math.pow(DISTINCT_QUERIES, random.nextDouble())) - 1);
+            requests.add(rank % 2 == 0 ? "search.php?s=dish" + rank : "lookup.php?i=" + (52700 + rank));
+        }
+        return requests;
+    }
+
+    private static void run(String label, String baseUrl, List<String> workload, StubMealDb stub) throws Exception {
+        ExecutorService clientIo = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder().executor(clientIo).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        int upstreamBefore = stub.requestCount();
+        long[] latencies = new long[workload.size()];
+
+        long start = System.nanoTime();
+        List<Future<?>> done = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int first = c * REQUESTS_PER_CLIENT;
+            done.add(clients.submit(() -> {
+                for (int i = first; i < first + REQUESTS_PER_CLIENT; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + workload.get(i)))
+                            .header("Accept-Encoding", "identity").build();
+                    long sent = System.nanoTime();
+                    client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        clients.shutdown();
+        clientIo.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-8s %5d requests in %6d ms  %7.1f req/s  p50 %5.1f ms  p99 %6.1f ms  upstream calls %d%n",
+                label, workload.size(), elapsedMs, workload.size() * 1000.0 / Math.max(1, elapsedMs),
+                latencies[latencies.length / 2] / 1e6, latencies[latencies.length * 99 / 100] / 1e6,
+                stub.requestCount() - upstreamBefore);
+    }
+}
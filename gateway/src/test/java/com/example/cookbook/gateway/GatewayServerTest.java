@@ -0,0 +1,156 @@
+package com.example.cookbook.gateway;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class GatewayServerTest {
+
+    private StubMealDb stub;
+    private GatewayServer server;
+    private volatile long now = System.currentTimeMillis();
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Before
+    public void setUp() throws Exception {
+        stub = new StubMealDb(200);
+        RecipeGateway gateway = new RecipeGateway(new UpstreamClient(stub.baseUrl()), new ResponseCache(1024 * 1024),
+                () -> now);
+        server = new GatewayServer(0, gateway, 8);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+        stub.stop();
+    }
+
+    @Test
+    public void repeatedRequestIsServedFromCache() throws Exception {
+        HttpResponse<String> first = get("search.php?s=Chicken");
+        HttpResponse<String> second = get("search.php?s=chicken%20");
+
+        assertEquals(200, second.statusCode());
+        assertEquals("MISS", first.headers().firstValue("X-Cache").orElse(""));
+        assertEquals("HIT", second.headers().firstValue("X-Cache").orElse(""));
+        assertEquals(first.body(), second.body());
+        assertEquals(1, stub.requestCount());
+    }
+
+    @Test
+    public void cacheHitsAdvertiseOnlyTheirRemainingLifetime() throws Exception {
+        HttpResponse<String> first = get("search.php?s=Chicken");
+        now += 10 * 60 * 1000;
+        HttpResponse<String> second = get("search.php?s=Chicken");
+
+        assertEquals("public, max-age=3600", first.headers().firstValue("Cache-Control").orElse(""));
+        assertEquals("HIT", second.headers().firstValue("X-Cache").orElse(""));
+        assertEquals("public, max-age=3000", second.headers().firstValue("Cache-Control").orElse(""));
+        assertEquals("Accept-Encoding", second.headers().firstValue("Vary").orElse(""));
+    }
+
+    @Test
+    public void concurrentIdenticalRequestsShareOneUpstreamCall() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(client.sendAsync(request("filter.php?c=Chicken"), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+        assertEquals(1, stub.requestCount("filter.php?c=Chicken"));
+    }
+
+    @Test
+    public void batchLookupReturnsEveryMealAndFillsTheCache() throws Exception {
+        JsonArray meals = meals(get("lookup.php?i=52771,52772,52773,52772").body());
+
+        assertEquals(3, meals.size());
+        assertEquals("52773", meals.get(2).getAsJsonObject().get("idMeal").getAsString());
+        assertEquals("HIT", get("lookup.php?i=52772").headers().firstValue("X-Cache").orElse(""));
+        assertEquals(3, stub.requestCount());
+    }
+
+    @Test
+    public void emptyIngredientSlotsAreDropped() throws Exception {
+        JsonObject meal = meals(get("lookup.php?i=52772").body()).get(0).getAsJsonObject();
+
+        assertEquals("Honey", meal.get("strIngredient3").getAsString());
+        assertEquals("1 cup", meal.get("strMeasure3").getAsString());
+        assertFalse(meal.has("strIngredient4"));
+        assertFalse(meal.has("strMeasure5"));
+        assertTrue(meal.has("strInstructions"));
+    }
+
+    @Test
+    public void randomIsNeitherCachedNorMerged() throws Exception {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            HttpResponse<String> response = get("random.php");
+            assertEquals("no-store", response.headers().firstValue("Cache-Control").orElse(""));
+            ids.add(meals(response.body()).get(0).getAsJsonObject().get("idMeal").getAsString());
+        }
+        assertEquals(3, ids.size());
+        assertEquals(3, stub.requestCount("random.php"));
+    }
+
+    @Test
+    public void unknownEndpointIsRejected() throws Exception {
+        assertEquals(404, get("latest.php").statusCode());
+        assertEquals(0, stub.requestCount());
+    }
+
+    @Test
+    public void malformedQueryIsABadRequest() throws Exception {
+        // Sent by hand: HttpClient refuses to build a URI with a broken % escape
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.getOutputStream().write(("GET " + GatewayServer.BASE_PATH + "search.php?s=%zz HTTP/1.1\r\n"
+                    + "Host: localhost\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertEquals("HTTP/1.1 400 Bad Request", reader.readLine());
+        }
+        assertEquals(0, stub.requestCount());
+
+        try {
+            GatewayServer.parseQuery("s=%zz");
+            fail("malformed escape accepted");
+        } catch (IllegalArgumentException expected) {
+            // handleApi answers 400 for it
+        }
+    }
+
+    private HttpRequest request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(
+                "http://127.0.0.1:" + server.getPort() + GatewayServer.BASE_PATH + pathAndQuery)).build();
+    }
+
+    private HttpResponse<String> get(String pathAndQuery) throws Exception {
+        return client.send(request(pathAndQuery), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonArray meals(String body) {
+        return JsonParser.parseString(body).getAsJsonObject().getAsJsonArray("meals");
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.cookbook.gateway;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local stand-in for TheMealDB: canned meals, a configurable delay and a count of every request
+public class StubMealDb {
+
+    static {
+        // Usually the first JDK server in the JVM, so it sets what GatewayServer would (see there)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMs;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Map<String, AtomicInteger> requestsByUri = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRandomId = new AtomicInteger(60000);
+
+    public StubMealDb(long latencyMs) throws IOException {
+        this.latencyMs = latencyMs;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + GatewayServer.BASE_PATH;
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public int requestCount(String pathAndQuery) {
+        AtomicInteger count = requestsByUri.get(pathAndQuery);
+        return count != null ? count.get() : 0;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring(GatewayServer.BASE_PATH.length());
+        String query = exchange.getRequestURI().getRawQuery();
+        requests.incrementAndGet();
+        requestsByUri.computeIfAbsent(query == null ? path : path + "?" + query, k -> new AtomicInteger())
+                .incrementAndGet();
+
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Map<String, String> params = GatewayServer.parseQuery(query);
+        String body;
+        switch (path) {
+            case "lookup.php":
+                body = "{\"meals\":[" + meal(params.get("i"), "Meal " + params.get("i")) + "]}";
+                break;
+            case "random.php":
+                body = "{\"meals\":[" + meal(String.valueOf(nextRandomId.getAndIncrement()), "Random") + "]}";
+                break;
+            case "search.php":
+                String term = params.getOrDefault("s", params.getOrDefault("f", ""));
+                body = term.startsWith("zz") ? "{\"meals\":null}"
+                        : "{\"meals\":[" + meal("52771", "Spicy " + term) + "," + meal("52772", term + " Pie") + "]}";
+                break;
+            case "filter.php":
+                body = "{\"meals\":[{\"strMeal\":\"Teriyaki Chicken\",\"strMealThumb\":\"x.jpg\",\"idMeal\":\"52772\"}]}";
+                break;
+            case "categories.php":
+                body = "{\"categories\":[{\"idCategory\":\"1\",\"strCategory\":\"Beef\"}]}";
+                break;
+            case "list.php":
+                body = "{\"meals\":[{\"idIngredient\":\"1\",\"strIngredient\":\"Chicken\",\"strType\":null}]}";
+                break;
+            default:
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // A full record shaped like TheMealDB's: 3 ingredients used, the other 17 slots empty or null
+    static String meal(String id, String name) {
+        StringBuilder json = new StringBuilder("{\"idMeal\":\"").append(id)
+                .append("\",\"strMeal\":\"").append(name)
+                .append("\",\"strCategory\":\"Chicken\",\"strArea\":\"Japanese\"")
+                .append(",\"strInstructions\":\"Mix everything and cook for 20 minutes.\"")
+                .append(",\"strMealThumb\":\"https://example.com/").append(id).append(".jpg\"");
+        String[] ingredients = {"Chicken", "Soy Sauce", "Honey"};
+        for (int slot = 1; slot <= 20; slot++) {
+            String ingredient = slot <= ingredients.length ? "\"" + ingredients[slot - 1] + "\"" : slot % 2 == 0 ? "\"\"" : "null";
+            String measure = slot <= ingredients.length ? "\"1 cup\"" : slot % 2 == 0 ? "\" \"" : "null";
+            json.append(",\"strIngredient").append(slot).append("\":").append(ingredient);
+            json.append(",\"strMeasure").append(slot).append("\":").append(measure);
+        }
+        return json.append('}').toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.cookbook.search;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Checks Firebase Auth ID tokens (what FirebaseUser.getIdToken() hands the app), following
+// https://firebase.google.com/docs/auth/admin/verify-id-tokens: RS256 signature by one of Google's
+// published keys, aud = project id, iss = securetoken.google.com/<project id>, not expired, subject set.
+// Tokens from the Auth emulator are unsigned; they are only accepted when built with forEmulator().
+public class FirebaseTokenVerifier {
+
+    static final String GOOGLE_KEYS_URL =
+            "https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com";
+    // Tolerated clock difference between us and the token issuer
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    // kid -> signing key
+    interface PublicKeys {
+        PublicKey get(String keyId) throws IOException, GeneralSecurityException;
+    }
+
+    private final String projectId;
+    private final PublicKeys keys;
+    private final boolean allowUnsigned;
+
+    FirebaseTokenVerifier(String projectId, PublicKeys keys, boolean allowUnsigned) {
+        this.projectId = projectId;
+        this.keys = keys;
+        this.allowUnsigned = allowUnsigned;
+    }
+
+    public static FirebaseTokenVerifier forProject(String projectId) {
+        return new FirebaseTokenVerifier(projectId, new GooglePublicKeys(GOOGLE_KEYS_URL), false);
+    }
+
+    // Also accepts the unsigned tokens the Auth emulator issues; never use against production
+    public static FirebaseTokenVerifier forEmulator(String projectId) {
+        return new FirebaseTokenVerifier(projectId, new GooglePublicKeys(GOOGLE_KEYS_URL), true);
+    }
+
+    // Returns the user id, or throws GeneralSecurityException saying why the token was refused
+    public String verify(String idToken) throws IOException, GeneralSecurityException {
+        String[] parts = idToken == null ? new String[0] : idToken.split("\\.", -1);
+        if (parts.length != 3) throw new GeneralSecurityException("not a JWT");
+        JsonObject header = decode(parts[0]);
+        JsonObject claims = decode(parts[1]);
+
+        String algorithm = string(header, "alg");
+        if ("none".equals(algorithm) && allowUnsigned) {
+            // Auth emulator token: claims are still checked below
+        } else if ("RS256".equals(algorithm)) {
+            PublicKey key = keys.get(string(header, "kid"));
+            if (key == null) throw new GeneralSecurityException("unknown signing key");
+            Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initVerify(key);
+            signature.update((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!signature.verify(base64Url(parts[2]))) throw new GeneralSecurityException("bad signature");
+        } else {
+            throw new GeneralSecurityException("unsupported algorithm " + algorithm);
+        }
+
+        long now = System.currentTimeMillis() / 1000;
+        if (!projectId.equals(string(claims, "aud"))) throw new GeneralSecurityException("wrong audience");
+        if (!("https://securetoken.google.com/" + projectId).equals(string(claims, "iss"))) {
+            throw new GeneralSecurityException("wrong issuer");
+        }
+        if (number(claims, "exp") <= now - CLOCK_SKEW_SECONDS) throw new GeneralSecurityException("expired");
+        if (number(claims, "iat") > now + CLOCK_SKEW_SECONDS) throw new GeneralSecurityException("issued in the future");
+        String subject = string(claims, "sub");
+        if (subject == null || subject.isEmpty()) throw new GeneralSecurityException("no subject");
+        return subject;
+    }
+
+    private static JsonObject decode(String part) throws GeneralSecurityException {
+        try {
+            return JsonParser.parseString(new String(base64Url(part), StandardCharsets.UTF_8)).getAsJsonObject();
+        } catch (RuntimeException e) {
+            throw new GeneralSecurityException("malformed token");
+        }
+    }
+
+    private static byte[] base64Url(String part) throws GeneralSecurityException {
+        try {
+            return Base64.getUrlDecoder().decode(part);
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("malformed token");
+        }
+    }
+
+    private static String string(JsonObject object, String name) {
+        JsonElement value = object.get(name);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+    }
+
+    private static long number(JsonObject object, String name) throws GeneralSecurityException {
+        JsonElement value = object.get(name);
+        if (value == null || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isNumber()) {
+            throw new GeneralSecurityException("missing " + name);
+        }
+        return value.getAsLong();
+    }
+
+    // Google's token signing certificates, kept until the max-age the response allows.
+    // An unknown kid (keys rotate) refetches, at most once a minute.
+    static class GooglePublicKeys implements PublicKeys {
+        private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+        private static final long MIN_REFETCH_MS = 60_000;
+
+        private final String url;
+        private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        private Map<String, PublicKey> current = new HashMap<>();
+        private long expiresAt = 0;
+        private long fetchedAt = 0;
+
+        GooglePublicKeys(String url) {
+            this.url = url;
+        }
+
+        @Override
+        public synchronized PublicKey get(String keyId) throws IOException, GeneralSecurityException {
+            long now = System.currentTimeMillis();
+            boolean unknown = !current.containsKey(keyId) && now - fetchedAt >= MIN_REFETCH_MS;
+            if (now >= expiresAt || unknown) fetch(now);
+            return current.get(keyId);
+        }
+
+        private void fetch(long now) throws IOException, GeneralSecurityException {
+            HttpResponse<String> response;
+            try {
+                response = http.send(HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted fetching signing keys", e);
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Signing keys: HTTP " + response.statusCode());
+            }
+
+            CertificateFactory certificates = CertificateFactory.getInstance("X.509");
+            Map<String, PublicKey> keys = new HashMap<>();
+            for (Entry<String, JsonElement> entry : JsonParser.parseString(response.body()).getAsJsonObject().entrySet()) {
+                byte[] pem = entry.getValue().getAsString().getBytes(StandardCharsets.US_ASCII);
+                keys.put(entry.getKey(), certificates.generateCertificate(new ByteArrayInputStream(pem)).getPublicKey());
+            }
+
+            long maxAgeMs = 0;
+            Matcher matcher = MAX_AGE.matcher(response.headers().firstValue("Cache-Control").orElse(""));
+            if (matcher.find()) maxAgeMs = Long.parseLong(matcher.group(1)) * 1000;
+            current = keys;
+            fetchedAt = now;
+            expiresAt = now + maxAgeMs;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.cookbook.search;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads the recipes collection through the Firestore REST API (emulator or production).
+// The change feed is a query ordered by (updatedAt, document name) that resumes strictly after the
+// last document it returned; updatedAt is a server timestamp written by the app on every change.
+public class FirestoreClient {
+
+    public static final String COLLECTION = "recipes";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    // Where the feed stands: the last document returned, or null for "from the beginning"
+    public static class Cursor {
+        private final JsonElement updatedAt;
+        private final String name;
+
+        Cursor(JsonElement updatedAt, String name) {
+            this.updatedAt = updatedAt;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return updatedAt + " " + name;
+        }
+    }
+
+    public static class ChangePage {
+        private final List<RecipeDocument> documents;
+        private final Cursor cursor;
+
+        ChangePage(List<RecipeDocument> documents, Cursor cursor) {
+            this.documents = documents;
+            this.cursor = cursor;
+        }
+
+        public List<RecipeDocument> getDocuments() {
+            return documents;
+        }
+
+        // Cursor after this page (unchanged when the page is empty)
+        public Cursor getCursor() {
+            return cursor;
+        }
+    }
+
+    // One page of the id -> version listing used by reconcile
+    public static class VersionPage {
+        private final List<String[]> versions;
+        private final String nextPageToken;
+
+        VersionPage(List<String[]> versions, String nextPageToken) {
+            this.versions = versions;
+            this.nextPageToken = nextPageToken;
+        }
+
+        // {id, version} pairs
+        public List<String[]> getVersions() {
+            return versions;
+        }
+
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+    }
+
+    private final String documentsUrl;
+    private final String documentsPath;
+    private final String authorization;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final Gson gson = new Gson();
+
+    // baseUrl: "http://localhost:8088" for the emulator, "https://firestore.googleapis.com" otherwise.
+    // The emulator accepts "owner" as a token that bypasses security rules.
+    public FirestoreClient(String baseUrl, String projectId, String bearerToken) {
+        this.documentsPath = "projects/" + projectId + "/databases/(default)/documents";
+        this.documentsUrl = (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + "v1/" + documentsPath;
+        this.authorization = "Bearer " + bearerToken;
+    }
+
+    public String documentName(String id) {
+        return documentsPath + "/" + COLLECTION + "/" + id;
+    }
+
+    // --- Change feed ---
+
+    public ChangePage changesAfter(Cursor cursor, int limit) throws IOException {
+        JsonObject query = new JsonObject();
+        JsonArray from = new JsonArray();
+        JsonObject collection = new JsonObject();
+        collection.addProperty("collectionId", COLLECTION);
+        from.add(collection);
+        query.add("from", from);
+
+        JsonArray orderBy = new JsonArray();
+        orderBy.add(order("updatedAt"));
+        orderBy.add(order("__name__"));
+        query.add("orderBy", orderBy);
+
+        if (cursor != null) {
+            JsonArray values = new JsonArray();
+            values.add(cursor.updatedAt);
+            JsonObject reference = new JsonObject();
+            reference.addProperty("referenceValue", cursor.name);
+            values.add(reference);
+            JsonObject startAt = new JsonObject();
+            startAt.add("values", values);
+            // Strictly after the cursor document
+            startAt.addProperty("before", false);
+            query.add("startAt", startAt);
+        }
+        query.addProperty("limit", limit);
+
+        JsonObject body = new JsonObject();
+        body.add("structuredQuery", query);
+        JsonArray rows = post(documentsUrl + ":runQuery", body).getAsJsonArray();
+
+        List<RecipeDocument> documents = new ArrayList<>();
+        Cursor next = cursor;
+        for (JsonElement row : rows) {
+            JsonObject document = row.getAsJsonObject().getAsJsonObject("document");
+            if (document == null) continue;
+            documents.add(toRecipe(document));
+            JsonObject fields = document.getAsJsonObject("fields");
+            next = new Cursor(fields.get("updatedAt"), document.get("name").getAsString());
+        }
+        return new ChangePage(documents, next);
+    }
+
+    private static JsonObject order(String fieldPath) {
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", fieldPath);
+        JsonObject order = new JsonObject();
+        order.add("field", field);
+        order.addProperty("direction", "ASCENDING");
+        return order;
+    }
+
+    // --- Reconcile ---
+
+    // Every document's id and version, without its fields
+    public VersionPage listVersions(String pageToken, int pageSize) throws IOException {
+        StringBuilder url = new StringBuilder(documentsUrl).append('/').append(COLLECTION)
+                .append("?pageSize=").append(pageSize)
+                .append("&mask.fieldPaths=updatedAt");
+        if (pageToken != null) url.append("&pageToken=").append(URLEncoder.encode(pageToken, StandardCharsets.UTF_8));
+
+        JsonObject page = get(url.toString()).getAsJsonObject();
+        List<String[]> versions = new ArrayList<>();
+        JsonArray documents = page.getAsJsonArray("documents");
+        if (documents != null) {
+            for (JsonElement element : documents) {
+                JsonObject document = element.getAsJsonObject();
+                versions.add(new String[]{idOf(document.get("name").getAsString()),
+                        document.get("updateTime").getAsString()});
+            }
+        }
+        JsonElement token = page.get("nextPageToken");
+        String next = token != null && !token.getAsString().isEmpty() ? token.getAsString() : null;
+        return new VersionPage(versions, next);
+    }
+
+    // Full documents by id; ids that no longer exist are left out
+    public List<RecipeDocument> batchGet(List<String> ids) throws IOException {
+        JsonArray names = new JsonArray();
+        for (String id : ids) {
+            names.add(documentName(id));
+        }
+        JsonObject body = new JsonObject();
+        body.add("documents", names);
+
+        List<RecipeDocument> documents = new ArrayList<>();
+        for (JsonElement row : post(documentsUrl + ":batchGet", body).getAsJsonArray()) {
+            JsonObject found = row.getAsJsonObject().getAsJsonObject("found");
+            if (found != null) documents.add(toRecipe(found));
+        }
+        return documents;
+    }
+
+    // Used by the load test to seed the emulator; writes is a list of Firestore "update" writes
+    public void commit(JsonArray writes) throws IOException {
+        JsonObject body = new JsonObject();
+        body.add("writes", writes);
+        post(documentsUrl + ":commit", body);
+    }
+
+    // --- Decoding ---
+
+    // Maps the fields the app's Recipe class writes
+    static RecipeDocument toRecipe(JsonObject document) {
+        JsonObject fields = document.getAsJsonObject("fields");
+        if (fields == null) fields = new JsonObject();
+
+        List<String> ingredients = new ArrayList<>();
+        JsonArray values = arrayValues(fields.get("ingredients"));
+        if (values != null) {
+            for (JsonElement value : values) {
+                JsonObject map = value.getAsJsonObject().getAsJsonObject("mapValue");
+                JsonObject ingredientFields = map != null ? map.getAsJsonObject("fields") : null;
+                String name = ingredientFields != null ? string(ingredientFields.get("name")) : null;
+                if (name != null) ingredients.add(name);
+            }
+        }
+
+        JsonElement imported = fields.get("importedFromApi");
+        boolean importedFromApi = imported != null && imported.getAsJsonObject().has("booleanValue")
+                && imported.getAsJsonObject().get("booleanValue").getAsBoolean();
+        return new RecipeDocument(
+                idOf(document.get("name").getAsString()),
+                string(fields.get("title")),
+                string(fields.get("category")),
+                ingredients,
+                string(fields.get("imageUrl")),
+                string(fields.get("userId")),
+                importedFromApi,
+                document.has("updateTime") ? document.get("updateTime").getAsString() : null);
+    }
+
+    private static String string(JsonElement value) {
+        if (value == null || !value.isJsonObject()) return null;
+        JsonElement string = value.getAsJsonObject().get("stringValue");
+        return string != null ? string.getAsString() : null;
+    }
+
+    private static JsonArray arrayValues(JsonElement value) {
+        if (value == null || !value.isJsonObject()) return null;
+        JsonObject array = value.getAsJsonObject().getAsJsonObject("arrayValue");
+        return array != null ? array.getAsJsonArray("values") : null;
+    }
+
+    static String idOf(String name) {
+        return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    // --- HTTP ---
+
+    private JsonElement get(String url) throws IOException {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET());
+    }
+
+    private JsonElement post(String url, JsonObject body) throws IOException {
+        return send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body))));
+    }
+
+    private JsonElement send(HttpRequest.Builder builder) throws IOException {
+        HttpRequest request = builder.timeout(TIMEOUT).header("Authorization", authorization).build();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Firestore " + response.statusCode() + ": " + response.body());
+        }
+        return JsonParser.parseString(response.body());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.cookbook.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Keeps SearchIndex in step with Firestore.
+// - Change feed: every pollIntervalMs, reads documents whose updatedAt is past the cursor, page by
+//   page, until it is caught up. The first run starts from the beginning and so builds the index.
+// - Reconcile: every reconcileIntervalMs (and once after the first catch-up) lists every document's
+//   version. Deleted documents, documents written without updatedAt (older app versions) and anything
+//   else the feed missed are fixed from that listing.
+// Both run on one thread, so they never interleave.
+public class IndexUpdater {
+
+    private static final Logger LOG = Logger.getLogger(IndexUpdater.class.getName());
+
+    private static final int FEED_PAGE_SIZE = 1000;
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final int BATCH_GET_SIZE = 300;
+
+    private final FirestoreClient firestore;
+    private final SearchIndex index;
+    private final long pollIntervalMs;
+    private final long reconcileIntervalMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "index-updater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FirestoreClient.Cursor cursor;
+    private long lastReconcileAt = 0;
+    private volatile boolean caughtUp = false;
+    private volatile long lastPollAt = 0;
+    private volatile long lastChangeAt = 0;
+    private final AtomicLong documentsRead = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public IndexUpdater(FirestoreClient firestore, SearchIndex index, long pollIntervalMs, long reconcileIntervalMs) {
+        this.firestore = firestore;
+        this.index = index;
+        this.pollIntervalMs = pollIntervalMs;
+        this.reconcileIntervalMs = reconcileIntervalMs;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::tick, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            pollChanges();
+            if (!caughtUp) {
+                caughtUp = true;
+                LOG.info("Initial index built: " + index.size() + " recipes");
+            }
+            if (System.currentTimeMillis() - lastReconcileAt >= reconcileIntervalMs) reconcile();
+        } catch (Exception e) {
+            // Next tick retries from the same cursor
+            failures.incrementAndGet();
+            LOG.log(Level.WARNING, "Index update failed", e);
+        }
+    }
+
+    // Reads the feed until a short page says there is nothing newer
+    void pollChanges() throws Exception {
+        while (true) {
+            FirestoreClient.ChangePage page = firestore.changesAfter(cursor, FEED_PAGE_SIZE);
+            List<RecipeDocument> documents = page.getDocuments();
+            if (!documents.isEmpty()) {
+                index.upsertAll(documents);
+                documentsRead.addAndGet(documents.size());
+                lastChangeAt = System.currentTimeMillis();
+            }
+            cursor = page.getCursor();
+            lastPollAt = System.currentTimeMillis();
+            if (documents.size() < FEED_PAGE_SIZE) return;
+        }
+    }
+
+    void reconcile() throws Exception {
+        long startedAt = System.currentTimeMillis();
+        Map<String, String> indexed = index.versions();
+        Set<String> listed = new HashSet<>();
+        List<String> stale = new ArrayList<>();
+
+        String pageToken = null;
+        do {
+            FirestoreClient.VersionPage page = firestore.listVersions(pageToken, LIST_PAGE_SIZE);
+            for (String[] version : page.getVersions()) {
+                listed.add(version[0]);
+                if (!version[1].equals(indexed.get(version[0]))) stale.add(version[0]);
+            }
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        // Nothing else writes to the index meanwhile, so anything indexed but not listed was deleted
+        List<String> deleted = new ArrayList<>();
+        for (String id : indexed.keySet()) {
+            if (!listed.contains(id)) deleted.add(id);
+        }
+        index.removeAll(deleted);
+
+        for (int from = 0; from < stale.size(); from += BATCH_GET_SIZE) {
+            List<RecipeDocument> documents = firestore.batchGet(stale.subList(from, Math.min(stale.size(), from + BATCH_GET_SIZE)));
+            index.upsertAll(documents);
+            documentsRead.addAndGet(documents.size());
+        }
+
+        lastReconcileAt = System.currentTimeMillis();
+        if (!deleted.isEmpty() || !stale.isEmpty()) {
+            LOG.info("Reconcile: " + deleted.size() + " removed, " + stale.size() + " re-read in "
+                    + (lastReconcileAt - startedAt) + " ms");
+        }
+    }
+
+    public boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    public long getLastPollAt() {
+        return lastPollAt;
+    }
+
+    public long getLastChangeAt() {
+        return lastChangeAt;
+    }
+
+    public long getLastReconcileAt() {
+        return lastReconcileAt;
+    }
+
+    public long getDocumentsRead() {
+        return documentsRead.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.cookbook.search;
+
+import java.util.List;
+
+// The searchable part of one Firestore recipes/{id} document
+public class RecipeDocument {
+
+    private final String id;
+    private final String title;
+    private final String category;
+    private final List<String> ingredients;
+    private final String imageUrl;
+    private final String userId;
+    // Copies of TheMealDB favorites: private to their owner's list, never indexed
+    private final boolean importedFromApi;
+    // Firestore's own version of the document (its updateTime); equal versions need no re-indexing
+    private final String version;
+
+    public RecipeDocument(String id, String title, String category, List<String> ingredients,
+                          String imageUrl, String userId, boolean importedFromApi, String version) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.ingredients = ingredients;
+        this.imageUrl = imageUrl;
+        this.userId = userId;
+        this.importedFromApi = importedFromApi;
+        this.version = version;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public List<String> getIngredients() {
+        return ingredients;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isSearchable() {
+        return !importedFromApi && title != null && !title.trim().isEmpty();
+    }
+}
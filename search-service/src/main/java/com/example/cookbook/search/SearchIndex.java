@@ -0,0 +1,493 @@
+package com.example.cookbook.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over recipe titles, categories and ingredient names.
+//
+// Every stored version of a document gets the next internal doc number, so posting lists are
+// append-only and always sorted. An update or delete only clears the old number's slot; stale
+// postings are skipped at query time and dropped in bulk by compact() once they pile up.
+// Queries AND their terms (the last one also matches as a prefix, for search-as-you-type) and rank by
+// where each term was found: title 3, category 2, ingredient 1; newer documents win ties.
+//
+// One writer (IndexUpdater) and any number of readers; writes take the lock once per batch.
+public class SearchIndex {
+
+    static final int TITLE = 1;
+    static final int CATEGORY = 2;
+    static final int INGREDIENT = 4;
+    // Score of a posting by the fields its term appeared in
+    private static final int[] FIELD_SCORES = {0, 3, 2, 5, 1, 4, 3, 6};
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    // Deepest result reachable by paging: offset + limit never goes past it
+    public static final int MAX_RESULTS = 200;
+    // Stale postings tolerated before compact() rewrites the lists
+    private static final int COMPACT_MIN_DEAD = 20_000;
+    // Per-query-thread best score by doc number, all zero between uses (see prefixMatches)
+    private static final ThreadLocal<byte[]> UNION_SCRATCH = ThreadLocal.withInitial(() -> new byte[0]);
+
+    // Doc numbers and the fields their term appeared in, ascending by doc number
+    private static class Postings {
+        int[] docs = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int doc, int fieldMask) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) fieldMask;
+            size++;
+        }
+    }
+
+    // Docs matching one query term with their score for it, ascending by doc number
+    private static class Matches {
+        final int[] docs;
+        final int[] scores;
+        final int size;
+
+        Matches(int[] docs, int[] scores, int size) {
+            this.docs = docs;
+            this.scores = scores;
+            this.size = size;
+        }
+    }
+
+    public static class Hit {
+        private final RecipeDocument document;
+        private final int score;
+
+        Hit(RecipeDocument document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        public RecipeDocument getDocument() {
+            return document;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+
+    public static class Result {
+        private final int total;
+        private final List<Hit> hits;
+
+        Result(int total, List<Hit> hits) {
+            this.total = total;
+            this.hits = hits;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Hit> getHits() {
+            return hits;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // Live doc number per recipe id
+    private final Map<String, Integer> docNumbers = new HashMap<>();
+    // Version of every document seen, searchable or not, so unchanged ones are never re-read
+    private final Map<String, String> versions = new HashMap<>();
+    // Slot per doc number; null once that version is replaced or deleted
+    private RecipeDocument[] documents = new RecipeDocument[1024];
+    private String[] categoryKeys = new String[1024];
+    private int nextDoc = 0;
+    private int deadDocs = 0;
+
+    // --- Writes ---
+
+    // Adds or replaces documents; ones that are no longer searchable are removed
+    public void upsertAll(Collection<RecipeDocument> batch) {
+        lock.writeLock().lock();
+        try {
+            for (RecipeDocument document : batch) {
+                String id = document.getId();
+                String version = document.getVersion();
+                if (version != null && version.equals(versions.get(id))) continue;
+
+                removeLocked(id);
+                versions.put(id, version);
+                if (document.isSearchable()) addLocked(document);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<String> ids) {
+        lock.writeLock().lock();
+        try {
+            for (String id : ids) {
+                removeLocked(id);
+                versions.remove(id);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(RecipeDocument document) {
+        int doc = nextDoc++;
+        if (doc == documents.length) {
+            documents = Arrays.copyOf(documents, doc * 2);
+            categoryKeys = Arrays.copyOf(categoryKeys, doc * 2);
+        }
+        documents[doc] = document;
+        categoryKeys[doc] = categoryKey(document.getCategory());
+        docNumbers.put(document.getId(), doc);
+
+        // Fields per distinct token of this document
+        Map<String, Integer> fieldMasks = new HashMap<>();
+        collect(fieldMasks, document.getTitle(), TITLE);
+        collect(fieldMasks, document.getCategory(), CATEGORY);
+        if (document.getIngredients() != null) {
+            for (String ingredient : document.getIngredients()) {
+                collect(fieldMasks, ingredient, INGREDIENT);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : fieldMasks.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), k -> new Postings()).add(doc, entry.getValue());
+        }
+    }
+
+    private static void collect(Map<String, Integer> fieldMasks, String text, int field) {
+        for (String token : Tokenizer.tokenize(text)) {
+            fieldMasks.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    private void removeLocked(String id) {
+        Integer doc = docNumbers.remove(id);
+        if (doc == null) return;
+        documents[doc] = null;
+        categoryKeys[doc] = null;
+        deadDocs++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadDocs >= COMPACT_MIN_DEAD && deadDocs > docNumbers.size() / 4) compact();
+    }
+
+    // Drops postings of replaced and deleted versions and renumbers the live documents 0..n-1.
+    // Renumbering keeps their order, so posting lists stay sorted and ties still favour newer docs.
+    void compact() {
+        lock.writeLock().lock();
+        try {
+            int[] renumbered = new int[nextDoc];
+            int live = 0;
+            for (int doc = 0; doc < nextDoc; doc++) {
+                renumbered[doc] = documents[doc] != null ? live++ : -1;
+            }
+
+            Iterator<Postings> lists = terms.values().iterator();
+            while (lists.hasNext()) {
+                Postings postings = lists.next();
+                int kept = 0;
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = renumbered[postings.docs[i]];
+                    if (doc < 0) continue;
+                    postings.docs[kept] = doc;
+                    postings.fields[kept] = postings.fields[i];
+                    kept++;
+                }
+                postings.size = kept;
+                if (kept == 0) lists.remove();
+            }
+
+            int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live)) * 2);
+            RecipeDocument[] liveDocuments = new RecipeDocument[capacity];
+            String[] liveCategoryKeys = new String[capacity];
+            for (int doc = 0; doc < nextDoc; doc++) {
+                int to = renumbered[doc];
+                if (to < 0) continue;
+                liveDocuments[to] = documents[doc];
+                liveCategoryKeys[to] = categoryKeys[doc];
+            }
+            for (Map.Entry<String, Integer> entry : docNumbers.entrySet()) {
+                entry.setValue(renumbered[entry.getValue()]);
+            }
+            documents = liveDocuments;
+            categoryKeys = liveCategoryKeys;
+            nextDoc = live;
+            deadDocs = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Doc numbers in use, live or dead; compact() brings it back to size()
+    int docNumberCount() {
+        lock.readLock().lock();
+        try {
+            return nextDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Reads ---
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // id -> version of every document seen, for IndexUpdater's reconcile pass
+    public Map<String, String> versions() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(versions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RecipeDocument get(String id) {
+        lock.readLock().lock();
+        try {
+            Integer doc = docNumbers.get(id);
+            return doc != null ? documents[doc] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // category (optional) must match exactly, ignoring case.
+    // offset must be in [0, MAX_RESULTS); limit is cut so the page ends at MAX_RESULTS at the latest.
+    public Result search(String query, String category, int offset, int limit) {
+        if (offset < 0 || offset >= MAX_RESULTS) {
+            throw new IllegalArgumentException("offset must be between 0 and " + (MAX_RESULTS - 1));
+        }
+        List<String> tokens = Tokenizer.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) return new Result(0, new ArrayList<>());
+        limit = Math.min(limit, MAX_RESULTS - offset);
+        // A trailing space means the last word is finished
+        boolean lastIsPrefix = !query.endsWith(" ");
+        String wantedCategory = categoryKey(category);
+
+        lock.readLock().lock();
+        try {
+            Matches[] perTerm = new Matches[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean prefix = lastIsPrefix && i == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH;
+                perTerm[i] = prefix ? prefixMatches(token) : exactMatches(token);
+                if (perTerm[i].size == 0) return new Result(0, new ArrayList<>());
+            }
+
+            // Smallest list first, so each intersection step only shrinks
+            Arrays.sort(perTerm, (a, b) -> Integer.compare(a.size, b.size));
+            Matches candidates = perTerm[0];
+            for (int i = 1; i < perTerm.length && candidates.size > 0; i++) {
+                candidates = intersect(candidates, perTerm[i]);
+            }
+            return rank(candidates, wantedCategory, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Matches exactMatches(String token) {
+        Postings postings = terms.get(token);
+        if (postings == null) return new Matches(new int[0], new int[0], 0);
+        int[] scores = new int[postings.size];
+        for (int i = 0; i < postings.size; i++) {
+            scores[i] = FIELD_SCORES[postings.fields[i]];
+        }
+        return new Matches(postings.docs, scores, postings.size);
+    }
+
+    // Union of every term starting with the prefix; a doc matching several keeps its best score.
+    // Every expansion is taken, so totals stay exact; the work is one pass over their postings.
+    // Short prefixes can cover a large part of the index, so the union is built in a per-thread
+    // table indexed by doc number and read back in order: no sorting, no per-query garbage table.
+    private Matches prefixMatches(String prefix) {
+        SortedMap<String, Postings> expansions = terms.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (expansions.isEmpty()) return new Matches(new int[0], new int[0], 0);
+        if (expansions.size() == 1) return exactMatches(expansions.firstKey());
+
+        byte[] best = UNION_SCRATCH.get();
+        if (best.length < nextDoc) {
+            best = new byte[Math.max(nextDoc, best.length * 2)];
+            UNION_SCRATCH.set(best);
+        } else if (best.length > 4 * Math.max(1024, nextDoc)) {
+            // Sized for doc numbers compact() has since given back
+            best = new byte[Math.max(1024, nextDoc * 2)];
+            UNION_SCRATCH.set(best);
+        }
+
+        int first = Integer.MAX_VALUE;
+        int last = -1;
+        int postingCount = 0;
+        for (Postings postings : expansions.values()) {
+            if (postings.size == 0) continue;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                byte score = (byte) FIELD_SCORES[postings.fields[i]];
+                if (score > best[doc]) best[doc] = score;
+            }
+            first = Math.min(first, postings.docs[0]);
+            last = Math.max(last, postings.docs[postings.size - 1]);
+            postingCount += postings.size;
+        }
+        if (last < 0) return new Matches(new int[0], new int[0], 0);
+
+        int capacity = Math.min(postingCount, last - first + 1);
+        int[] docs = new int[capacity];
+        int[] scores = new int[capacity];
+        int size = 0;
+        for (int doc = first; doc <= last; doc++) {
+            if (best[doc] == 0) continue;
+            docs[size] = doc;
+            scores[size] = best[doc];
+            size++;
+            best[doc] = 0;
+        }
+        return new Matches(docs, scores, size);
+    }
+
+    // Walks the smaller list and gallops through the larger one
+    private static Matches intersect(Matches small, Matches large) {
+        int[] docs = new int[small.size];
+        int[] scores = new int[small.size];
+        int size = 0;
+        int from = 0;
+        for (int i = 0; i < small.size && from < large.size; i++) {
+            int doc = small.docs[i];
+            int found = gallop(large.docs, from, large.size, doc);
+            if (found < large.size && large.docs[found] == doc) {
+                docs[size] = doc;
+                scores[size] = small.scores[i] + large.scores[found];
+                size++;
+                from = found + 1;
+            } else {
+                from = found;
+            }
+        }
+        return new Matches(docs, scores, size);
+    }
+
+    // First index in [from, to) whose value is >= target
+    private static int gallop(int[] values, int from, int to, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < to && values[high] < target) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, to);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Top offset+limit by score, then by doc number (newer first), using a small min-heap
+    private Result rank(Matches candidates, String wantedCategory, int offset, int limit) {
+        int wanted = offset + limit;
+        long[] heap = new long[wanted];
+        int heapSize = 0;
+        int total = 0;
+
+        for (int i = 0; i < candidates.size; i++) {
+            int doc = candidates.docs[i];
+            if (documents[doc] == null) continue;
+            if (wantedCategory != null && !wantedCategory.equals(categoryKeys[doc])) continue;
+            total++;
+
+            long key = ((long) candidates.scores[i] << 32) | doc;
+            if (heapSize < wanted) {
+                heap[heapSize] = key;
+                siftUp(heap, heapSize++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        long[] ordered = Arrays.copyOf(heap, heapSize);
+        Arrays.sort(ordered);
+        List<Hit> hits = new ArrayList<>();
+        for (int i = ordered.length - 1 - offset; i >= 0; i--) {
+            long key = ordered[i];
+            hits.add(new Hit(documents[(int) key], (int) (key >>> 32)));
+        }
+        return new Result(total, hits);
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] <= heap[index]) return;
+            long swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = index * 2 + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) smallest = left;
+            if (right < size && heap[right] < heap[smallest]) smallest = right;
+            if (smallest == index) return;
+            long swap = heap[smallest];
+            heap[smallest] = heap[index];
+            heap[index] = swap;
+            index = smallest;
+        }
+    }
+
+    private static String categoryKey(String category) {
+        if (category == null) return null;
+        String trimmed = category.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.cookbook.search;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// HTTP API over SearchIndex:
+//   GET /search?q=chicken%20cur&category=Dessert&limit=20&offset=0
+//       Authorization: Bearer <Firebase ID token of a signed-in user>
+//       (offset below SearchIndex.MAX_RESULTS, else 400; the page stops at MAX_RESULTS)
+//       -> {"total":n,"tookMs":0.4,"results":[{"id","title","category","imageUrl","userId","score"}]}
+//   GET /health -> index size and feed state (no recipe data, no sign-in)
+//
+// The index is read with a token that bypasses the security rules, so /search enforces the rules'
+// "signed-in users may read recipes" itself. SEARCH_AUTH=none turns that off, and is then only
+// served on the loopback interface (a trusted proxy on the same host must check sign-in instead).
+//
+// Configuration (environment): SEARCH_PORT (8090), FIRESTORE_EMULATOR_HOST (localhost:8088),
+// FIRESTORE_URL (the emulator; https://firestore.googleapis.com plus an access token in
+// FIRESTORE_TOKEN for production), FIRESTORE_PROJECT (demo-cookbook), FIRESTORE_TOKEN (owner),
+// SEARCH_AUTH (firebase; emulator tokens are accepted while FIREBASE_AUTH_EMULATOR_HOST is set),
+// SEARCH_POLL_MS (1000), SEARCH_RECONCILE_MINUTES (10), SEARCH_THREADS (16).
+public class SearchServer {
+
+    private static final Logger LOG = Logger.getLogger(SearchServer.class.getName());
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    static {
+        // Headers and body go out as separate writes; without this, delayed ACKs add ~40 ms per response.
+        // Read once when the JDK server classes load, so it has to be set before the first HttpServer.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SearchIndex index;
+    private final IndexUpdater updater;
+    private final FirebaseTokenVerifier verifier;
+    private final Gson gson = new Gson();
+
+    // Loopback only and no sign-in: for tests and tools on the same machine
+    public SearchServer(int port, SearchIndex index, IndexUpdater updater, int threads) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), index, updater, null, threads);
+    }
+
+    // verifier null means no sign-in check, which is refused on anything but a loopback address
+    public SearchServer(InetSocketAddress address, SearchIndex index, IndexUpdater updater,
+                        FirebaseTokenVerifier verifier, int threads) throws IOException {
+        if (verifier == null && (address.getAddress() == null || !address.getAddress().isLoopbackAddress())) {
+            throw new IllegalArgumentException("Search without sign-in is only served on the loopback interface");
+        }
+        this.index = index;
+        this.updater = updater;
+        this.verifier = verifier;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/search", this::handleSearch);
+        server.createContext("/health", this::handleHealth);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(env("SEARCH_PORT", "8090"));
+        String firestoreUrl = env("FIRESTORE_URL", "http://" + env("FIRESTORE_EMULATOR_HOST", "localhost:8088"));
+        String project = env("FIRESTORE_PROJECT", "demo-cookbook");
+        String token = env("FIRESTORE_TOKEN", "owner");
+        long pollMs = Long.parseLong(env("SEARCH_POLL_MS", "1000"));
+        long reconcileMs = Long.parseLong(env("SEARCH_RECONCILE_MINUTES", "10")) * 60_000;
+        int threads = Integer.parseInt(env("SEARCH_THREADS", "16"));
+        String auth = env("SEARCH_AUTH", "firebase");
+
+        FirebaseTokenVerifier verifier;
+        InetSocketAddress address;
+        if ("none".equals(auth)) {
+            verifier = null;
+            address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        } else if ("firebase".equals(auth)) {
+            verifier = System.getenv("FIREBASE_AUTH_EMULATOR_HOST") != null
+                    ? FirebaseTokenVerifier.forEmulator(project) : FirebaseTokenVerifier.forProject(project);
+            address = new InetSocketAddress(port);
+        } else {
+            throw new IllegalArgumentException("SEARCH_AUTH must be firebase or none, not " + auth);
+        }
+
+        SearchIndex index = new SearchIndex();
+        IndexUpdater updater = new IndexUpdater(new FirestoreClient(firestoreUrl, project, token), index, pollMs, reconcileMs);
+        SearchServer server = new SearchServer(address, index, updater, verifier, threads);
+        updater.start();
+        server.start();
+        System.out.println("Recipe search on " + address.getAddress().getHostAddress() + ":" + server.getPort()
+                + " (sign-in " + (verifier != null ? "required" : "not checked") + ") <- "
+                + firestoreUrl + " (" + project + ")");
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isEmpty() ? fallback : value;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // --- Handlers ---
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        if (verifier != null && !isSignedIn(exchange)) return;
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String q = query.getOrDefault("q", "");
+        int limit;
+        int offset;
+        try {
+            limit = Integer.parseInt(query.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT)));
+            offset = Integer.parseInt(query.getOrDefault("offset", "0"));
+        } catch (NumberFormatException e) {
+            send(exchange, 400, error("limit and offset must be numbers"));
+            return;
+        }
+        if (offset < 0 || offset >= SearchIndex.MAX_RESULTS) {
+            send(exchange, 400, error("offset must be between 0 and " + (SearchIndex.MAX_RESULTS - 1)));
+            return;
+        }
+
+        long started = System.nanoTime();
+        SearchIndex.Result result = index.search(q, query.get("category"), offset, limit);
+        double tookMs = (System.nanoTime() - started) / 1e6;
+
+        JsonArray results = new JsonArray();
+        for (SearchIndex.Hit hit : result.getHits()) {
+            RecipeDocument document = hit.getDocument();
+            JsonObject row = new JsonObject();
+            row.addProperty("id", document.getId());
+            row.addProperty("title", document.getTitle());
+            row.addProperty("category", document.getCategory());
+            row.addProperty("imageUrl", document.getImageUrl());
+            row.addProperty("userId", document.getUserId());
+            row.addProperty("score", hit.getScore());
+            results.add(row);
+        }
+        JsonObject body = new JsonObject();
+        body.addProperty("total", result.getTotal());
+        body.addProperty("tookMs", Math.round(tookMs * 1000) / 1000.0);
+        body.add("results", results);
+        send(exchange, 200, body);
+    }
+
+    // Sends the 401 / 503 itself when the caller is not let through
+    private boolean isSignedIn(HttpExchange exchange) throws IOException {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            send(exchange, 401, error("sign-in required"));
+            return false;
+        }
+        try {
+            verifier.verify(authorization.substring(7).trim());
+            return true;
+        } catch (GeneralSecurityException e) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+            send(exchange, 401, error("invalid token: " + e.getMessage()));
+            return false;
+        } catch (IOException e) {
+            // Google's signing keys could not be fetched; the token may well be fine
+            LOG.log(Level.WARNING, "Token check failed", e);
+            send(exchange, 503, error("sign-in check unavailable"));
+            return false;
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        JsonObject body = new JsonObject();
+        body.addProperty("recipes", index.size());
+        body.addProperty("terms", index.termCount());
+        if (updater != null) {
+            body.addProperty("caughtUp", updater.isCaughtUp());
+            body.addProperty("lastPollAt", updater.getLastPollAt());
+            body.addProperty("lastChangeAt", updater.getLastChangeAt());
+            body.addProperty("lastReconcileAt", updater.getLastReconcileAt());
+            body.addProperty("documentsRead", updater.getDocumentsRead());
+            body.addProperty("failures", updater.getFailures());
+        }
+        send(exchange, updater == null || updater.isCaughtUp() ? 200 : 503, body);
+    }
+
+    private static JsonObject error(String message) {
+        JsonObject body = new JsonObject();
+        body.addProperty("error", message);
+        return body;
+    }
+
+    private void send(HttpExchange exchange, int status, JsonObject body) throws IOException {
+        byte[] bytes = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return query;
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.cookbook.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Same rules for indexing and querying: lower case, accents stripped, split on anything that is not a
+// letter or digit, a few filler words dropped and a light plural stemmer ("tomatoes" finds "tomato")
+public final class Tokenizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "the", "of", "with", "in", "on", "or", "for", "to", "de", "la", "le", "et"));
+
+    private Tokenizer() {
+    }
+
+    // Distinct tokens in order of first appearance
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) return tokens;
+
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        Set<String> seen = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = stem(normalized.substring(start, i));
+                if (!STOP_WORDS.contains(token) && seen.add(token)) tokens.add(token);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static String stem(String token) {
+        int length = token.length();
+        if (length <= 3) return token;
+        if (token.endsWith("ies")) return token.substring(0, length - 3) + "y";
+        if (token.endsWith("oes")) return token.substring(0, length - 2);
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) return token.substring(0, length - 1);
+        return token;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.cookbook.search;
+
+import com.google.gson.JsonObject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class FirebaseTokenVerifierTest {
+
+    private static final String PROJECT = "demo-cookbook";
+
+    private KeyPair signingKey;
+    private FirebaseTokenVerifier verifier;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKey = generator.generateKeyPair();
+        verifier = new FirebaseTokenVerifier(PROJECT,
+                keyId -> "key-1".equals(keyId) ? signingKey.getPublic() : null, false);
+    }
+
+    @Test
+    public void validTokenYieldsTheUserId() throws Exception {
+        assertEquals("user-42", verifier.verify(signed("key-1", claims("user-42", PROJECT, 3600))));
+    }
+
+    @Test
+    public void wrongProjectExpiredOrTamperedTokensAreRefused() throws Exception {
+        assertRefused(signed("key-1", claims("user-42", "other-project", 3600)));
+        assertRefused(signed("key-1", claims("user-42", PROJECT, -3600)));
+        assertRefused(signed("key-2", claims("user-42", PROJECT, 3600)));
+
+        String[] parts = signed("key-1", claims("user-42", PROJECT, 3600)).split("\\.");
+        String otherUser = encode(claims("someone-else", PROJECT, 3600).toString());
+        assertRefused(parts[0] + "." + otherUser + "." + parts[2]);
+        assertRefused("not-a-token");
+    }
+
+    @Test
+    public void unsignedEmulatorTokensNeedTheEmulatorVerifier() throws Exception {
+        String unsigned = encode("{\"alg\":\"none\",\"typ\":\"JWT\"}") + "."
+                + encode(claims("user-42", PROJECT, 3600).toString()) + ".";
+
+        assertRefused(unsigned);
+        FirebaseTokenVerifier emulator = new FirebaseTokenVerifier(PROJECT, keyId -> null, true);
+        assertEquals("user-42", emulator.verify(unsigned));
+    }
+
+    @Test
+    public void searchRequiresASignedInUser() throws Exception {
+        SearchIndex index = new SearchIndex();
+        index.upsertAll(Collections.singletonList(new RecipeDocument("1", "Lemon Cake", "Dessert",
+                Collections.singletonList("Lemons"), null, "user", false, "v1")));
+        SearchServer server = new SearchServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                index, null, verifier, 2);
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getPort() + "/search?q=lemon";
+            HttpClient client = HttpClient.newHttpClient();
+
+            HttpResponse<String> anonymous = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(401, anonymous.statusCode());
+            assertFalse(anonymous.body().contains("Lemon Cake"));
+
+            HttpResponse<String> signedIn = client.send(HttpRequest.newBuilder(URI.create(url))
+                            .header("Authorization", "Bearer " + signed("key-1", claims("user-42", PROJECT, 3600)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, signedIn.statusCode());
+            assertTrue(signedIn.body().contains("Lemon Cake"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void searchWithoutSignInIsLoopbackOnly() throws Exception {
+        try {
+            new SearchServer(new InetSocketAddress(0), new SearchIndex(), null, null, 1);
+            fail("served without sign-in on every interface");
+        } catch (IllegalArgumentException expected) {
+            // SEARCH_AUTH=none binds to loopback instead
+        }
+    }
+
+    private void assertRefused(String token) throws Exception {
+        try {
+            verifier.verify(token);
+            fail("accepted " + token);
+        } catch (GeneralSecurityException expected) {
+            // refused
+        }
+    }
+
+    private static JsonObject claims(String userId, String audience, long expiresInSeconds) {
+        long now = System.currentTimeMillis() / 1000;
+        JsonObject claims = new JsonObject();
+        claims.addProperty("iss", "https://securetoken.google.com/" + audience);
+        claims.addProperty("aud", audience);
+        claims.addProperty("sub", userId);
+        claims.addProperty("iat", now - 60);
+        claims.addProperty("exp", now + expiresInSeconds);
+        return claims;
+    }
+
+    private String signed(String keyId, JsonObject claims) throws Exception {
+        String unsigned = encode("{\"alg\":\"RS256\",\"kid\":\"" + keyId + "\",\"typ\":\"JWT\"}") + "."
+                + encode(claims.toString());
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(signingKey.getPrivate());
+        signature.update(unsigned.getBytes(StandardCharsets.US_ASCII));
+        return unsigned + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.cookbook.search;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new SearchIndex();
+        index.upsertAll(Arrays.asList(
+                recipe("1", "Chicken Curry", "Dinner", "v1", "Chicken", "Curry Powder", "Rice"),
+                recipe("2", "Lemon Cake", "Dessert", "v1", "Flour", "Lemons", "Eggs"),
+                recipe("3", "Rice Pudding", "Dessert", "v1", "Rice", "Milk", "Sugar"),
+                recipe("4", "Cr\u00e8me Br\u00fbl\u00e9e", "Dessert", "v1", "Cream", "Eggs", "Sugar"),
+                recipe("5", "Tomato Soup", "Starter", "v1", "Tomatoes", "Chicken Stock")));
+    }
+
+    @Test
+    public void titleMatchesRankAboveIngredientMatches() {
+        List<SearchIndex.Hit> hits = index.search("chicken ", null, 0, 10).getHits();
+
+        assertEquals(2, hits.size());
+        assertEquals("1", hits.get(0).getDocument().getId());
+        assertEquals("5", hits.get(1).getDocument().getId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    public void everyTermMustMatchAndTheLastOneMayBeAPrefix() {
+        assertIds(index.search("rice pud", null, 0, 10), "3");
+        assertIds(index.search("rice pud ", null, 0, 10));
+        assertIds(index.search("sugar cre", null, 0, 10), "4");
+    }
+
+    @Test
+    public void accentsCaseAndPluralsAreIgnored() {
+        assertIds(index.search("CREME brulee", null, 0, 10), "4");
+        assertIds(index.search("tomato", null, 0, 10), "5");
+        assertIds(index.search("lemon egg", null, 0, 10), "2");
+    }
+
+    @Test
+    public void categoryNarrowsResults() {
+        assertIds(index.search("rice", "dessert", 0, 10), "3");
+        assertEquals(2, index.search("sugar", null, 0, 10).getTotal());
+    }
+
+    @Test
+    public void pagingKeepsTheTotal() {
+        SearchIndex.Result second = index.search("rice", null, 1, 1);
+
+        assertEquals(2, second.getTotal());
+        assertEquals(1, second.getHits().size());
+    }
+
+    @Test
+    public void offsetsPastTheResultCapAreRejected() {
+        assertEquals(0, index.search("rice", null, SearchIndex.MAX_RESULTS - 1, Integer.MAX_VALUE).getHits().size());
+        for (int offset : new int[] {-1, SearchIndex.MAX_RESULTS, Integer.MAX_VALUE}) {
+            try {
+                index.search("rice", null, offset, 10);
+                fail("offset " + offset + " accepted");
+            } catch (IllegalArgumentException expected) {
+                // rejected before anything is allocated
+            }
+        }
+    }
+
+    @Test
+    public void shortPrefixesCountEveryExpansion() {
+        // 70 distinct "cha..." terms sort before "chicken"
+        List<RecipeDocument> recipes = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            recipes.add(recipe("cha" + i, "Cha" + (char) ('a' + i / 26) + (char) ('a' + i % 26) + " Tea",
+                    "Drink", "v1", "Water"));
+        }
+        index.upsertAll(recipes);
+
+        SearchIndex.Result result = index.search("ch", null, 0, SearchIndex.MAX_RESULTS);
+        assertEquals(72, result.getTotal());
+        boolean foundChicken = false;
+        for (SearchIndex.Hit hit : result.getHits()) {
+            if (hit.getDocument().getId().equals("1")) foundChicken = true;
+        }
+        assertTrue(foundChicken);
+    }
+
+    @Test
+    public void updatesReplaceOldTermsAndDeletesRemoveDocuments() {
+        index.upsertAll(Collections.singletonList(recipe("1", "Beef Stew", "Dinner", "v2", "Beef")));
+        index.removeAll(Collections.singletonList("2"));
+
+        assertIds(index.search("curry", null, 0, 10));
+        assertIds(index.search("stew", null, 0, 10), "1");
+        assertIds(index.search("lemon", null, 0, 10));
+        assertEquals(4, index.size());
+
+        // Stale postings are gone after compaction and answers stay the same
+        index.compact();
+        assertIds(index.search("rice", null, 0, 10), "3");
+    }
+
+    @Test
+    public void compactionRenumbersLiveDocuments() {
+        for (int version = 2; version < 100; version++) {
+            index.upsertAll(Collections.singletonList(
+                    recipe("2", "Lemon Cake", "Dessert", "v" + version, "Flour", "Lemons", "Eggs")));
+        }
+        assertEquals(103, index.docNumberCount());
+
+        index.compact();
+        assertEquals(5, index.docNumberCount());
+        assertIds(index.search("lemon", null, 0, 10), "2");
+        assertIds(index.search("egg", "dessert", 0, 10), "2", "4");
+        assertIds(index.search("ch", null, 0, 10), "1", "5");
+
+        // Numbering carries on after the compacted range; newer docs still win ties
+        index.upsertAll(Collections.singletonList(recipe("6", "Tomato Salad", "Starter", "v1", "Tomatoes")));
+        List<SearchIndex.Hit> hits = index.search("tomato", null, 0, 10).getHits();
+        assertEquals("6", hits.get(0).getDocument().getId());
+        assertEquals(6, index.docNumberCount());
+    }
+
+    @Test
+    public void importedApiFavoritesAreNotIndexed() {
+        JsonObject document = JsonParser.parseString("{"
+                + "\"name\":\"projects/p/databases/(default)/documents/recipes/abc\","
+                + "\"updateTime\":\"2026-10-18T10:00:00.000001Z\","
+                + "\"fields\":{"
+                + "\"title\":{\"stringValue\":\"Teriyaki Chicken\"},"
+                + "\"category\":{\"stringValue\":\"Chicken\"},"
+                + "\"importedFromApi\":{\"booleanValue\":true},"
+                + "\"ingredients\":{\"arrayValue\":{\"values\":[{\"mapValue\":{\"fields\":"
+                + "{\"name\":{\"stringValue\":\"Soy Sauce\"},\"amount\":{\"stringValue\":\"1\"}}}}]}}}}")
+                .getAsJsonObject();
+        RecipeDocument recipe = FirestoreClient.toRecipe(document);
+
+        assertEquals("abc", recipe.getId());
+        assertEquals(Collections.singletonList("Soy Sauce"), recipe.getIngredients());
+        assertFalse(recipe.isSearchable());
+
+        index.upsertAll(Collections.singletonList(recipe));
+        assertIds(index.search("teriyaki", null, 0, 10));
+        assertTrue(index.versions().containsKey("abc"));
+    }
+
+    private static RecipeDocument recipe(String id, String title, String category, String version,
+                                         String... ingredients) {
+        return new RecipeDocument(id, title, category, Arrays.asList(ingredients), null, "user", false, version);
+    }
+
+    private static void assertIds(SearchIndex.Result result, String... ids) {
+        String[] actual = new String[result.getHits().size()];
+        for (int i = 0; i < actual.length; i++) {
+            actual[i] = result.getHits().get(i).getDocument().getId();
+        }
+        Arrays.sort(actual);
+        assertArrayEquals(ids, actual);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.cookbook.search;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// End-to-end load test against the Firestore emulator (./gradlew :search-service:loadTest):
+// 1. seeds N synthetic recipes (default 100k) into a throwaway demo project,
+// 2. builds the index through the change feed and reports how long that took,
+// 3. edits single recipes and measures how long until the edit is searchable,
+// 4. runs concurrent HTTP queries and reports server-side and client-side latency.
+public class SearchLoadTest {
+
+    private static final String PROJECT = "demo-cookbook-loadtest";
+    private static final int COMMIT_SIZE = 500;
+    private static final int SEED_THREADS = 8;
+    private static final int FRESHNESS_PROBES = 50;
+    private static final int QUERY_CLIENTS = 16;
+    private static final int QUERIES_PER_CLIENT = 2000;
+
+    private static final String[] ADJECTIVES = {"Spicy", "Creamy", "Crispy", "Smoky", "Sticky", "Classic", "Rustic",
+            "Zesty", "Roasted", "Grilled", "Baked", "Slow Cooked", "Garlic", "Honey", "Lemon", "Herby", "Cheesy",
+            "Sweet", "Tangy", "Golden"};
+    private static final String[] DISHES = {"Curry", "Stew", "Pie", "Soup", "Salad", "Tart", "Risotto", "Pasta",
+            "Lasagne", "Tacos", "Burger", "Casserole", "Stir Fry", "Noodles", "Pancakes", "Crumble", "Cake",
+            "Bread", "Kebab", "Chowder", "Gratin", "Omelette", "Paella", "Pilaf", "Dumplings", "Skewers", "Wraps",
+            "Bake", "Hotpot", "Frittata"};
+    private static final String[] INGREDIENTS = {"Chicken", "Beef", "Pork", "Lamb", "Salmon", "Cod", "Prawns",
+            "Tofu", "Chickpeas", "Lentils", "Rice", "Potatoes", "Sweet Potato", "Carrots", "Onion", "Garlic",
+            "Ginger", "Tomatoes", "Spinach", "Kale", "Mushrooms", "Peppers", "Courgette", "Aubergine", "Broccoli",
+            "Cauliflower", "Peas", "Sweetcorn", "Leeks", "Celery", "Butter", "Olive Oil", "Cream", "Milk", "Cheddar",
+            "Parmesan", "Mozzarella", "Feta", "Eggs", "Flour", "Sugar", "Honey", "Lemon", "Lime", "Coconut Milk",
+            "Soy Sauce", "Fish Sauce", "Chilli", "Paprika", "Cumin", "Coriander", "Turmeric", "Cinnamon", "Basil",
+            "Oregano", "Thyme", "Rosemary", "Parsley", "Mint", "Apples", "Pears", "Berries", "Bananas", "Chocolate",
+            "Vanilla", "Almonds", "Walnuts", "Oats", "Yoghurt", "Bacon", "Chorizo", "Noodles", "Pasta", "Bread",
+            "Stock", "Wine", "Vinegar", "Mustard", "Beans", "Avocado"};
+    private static final String[] CATEGORIES = {"Beef", "Breakfast", "Chicken", "Dessert", "Goat", "Lamb",
+            "Miscellaneous", "Pasta", "Pork", "Seafood", "Side", "Starter", "Vegan", "Vegetarian"};
+
+    public static void main(String[] args) throws Exception {
+        int recipes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String emulatorHost = System.getenv().getOrDefault("FIRESTORE_EMULATOR_HOST", "localhost:8088");
+        String baseUrl = "http://" + emulatorHost;
+        FirestoreClient firestore = new FirestoreClient(baseUrl, PROJECT, "owner");
+
+        clearEmulator(baseUrl);
+        int searchable = seed(firestore, recipes);
+
+        // --- Initial build through the change feed ---
+        SearchIndex index = new SearchIndex();
+        IndexUpdater updater = new IndexUpdater(firestore, index, 100, Long.MAX_VALUE);
+        long buildStart = System.nanoTime();
+        updater.start();
+        while (!updater.isCaughtUp() || index.size() < searchable) {
+            Thread.sleep(50);
+        }
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+        System.out.printf("index     %d recipes (%d terms) built from the feed in %d ms (%.0f docs/s)%n",
+                index.size(), index.termCount(), buildMs, index.size() * 1000.0 / Math.max(1, buildMs));
+
+        // --- Freshness: write -> searchable ---
+        long[] lags = new long[FRESHNESS_PROBES];
+        for (int i = 0; i < FRESHNESS_PROBES; i++) {
+            String marker = "probe" + Integer.toString(i, 36) + "x";
+            JsonArray writes = new JsonArray();
+            writes.add(write(firestore, "r" + (i * 997 % recipes), marker + " Pie", "Dessert",
+                    Arrays.asList("Flour", "Butter"), false));
+            long written = System.nanoTime();
+            firestore.commit(writes);
+            while (index.search(marker, null, 0, 1).getTotal() == 0) {
+                Thread.sleep(5);
+            }
+            lags[i] = (System.nanoTime() - written) / 1_000_000;
+        }
+        Arrays.sort(lags);
+        System.out.printf("freshness write -> searchable  p50 %d ms  max %d ms  (poll interval 100 ms)%n",
+                lags[lags.length / 2], lags[lags.length - 1]);
+
+        // --- Query latency, in process ---
+        List<String> queries = queries(new Random(7), 5000);
+        long[] inProcess = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long started = System.nanoTime();
+            index.search(queries.get(i), null, 0, 20);
+            inProcess[i] = System.nanoTime() - started;
+        }
+        report("in-proc", inProcess, 0);
+
+        // --- Query latency over HTTP, concurrent ---
+        SearchServer server = new SearchServer(0, index, updater, QUERY_CLIENTS);
+        server.start();
+        String searchUrl = "http://127.0.0.1:" + server.getPort() + "/search?limit=20&q=";
+        HttpClient client = HttpClient.newHttpClient();
+        ExecutorService clients = Executors.newFixedThreadPool(QUERY_CLIENTS);
+        long[] latencies = new long[QUERY_CLIENTS * QUERIES_PER_CLIENT];
+        List<String> load = queries(new Random(11), latencies.length);
+
+        long loadStart = System.nanoTime();
+        List<Future<?>> done = new ArrayList<>();
+        for (int c = 0; c < QUERY_CLIENTS; c++) {
+            int first = c * QUERIES_PER_CLIENT;
+            done.add(clients.submit(() -> {
+                for (int i = first; i < first + QUERIES_PER_CLIENT; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(
+                            searchUrl + URLEncoder.encode(load.get(i), StandardCharsets.UTF_8))).build();
+                    long sent = System.nanoTime();
+                    client.send(request, HttpResponse.BodyHandlers.ofString());
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+        report("http", latencies, latencies.length * 1000.0 / Math.max(1, loadMs));
+
+        clients.shutdown();
+        server.stop();
+        updater.stop();
+        System.exit(0);
+    }
+
+    // --- Seeding ---
+
+    private static void clearEmulator(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(
+                baseUrl + "/emulator/v1/projects/" + PROJECT + "/databases/(default)/documents")).DELETE().build();
+        HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    // Returns how many of the seeded recipes are searchable (one in ten is an imported API favorite)
+    private static int seed(FirestoreClient firestore, int recipes) throws Exception {
+        long started = System.nanoTime();
+        ExecutorService writers = Executors.newFixedThreadPool(SEED_THREADS);
+        List<Future<?>> done = new ArrayList<>();
+        for (int from = 0; from < recipes; from += COMMIT_SIZE) {
+            int first = from;
+            int last = Math.min(recipes, from + COMMIT_SIZE);
+            done.add(writers.submit(() -> {
+                Random random = new Random(first);
+                JsonArray writes = new JsonArray();
+                for (int i = first; i < last; i++) {
+                    List<String> ingredients = new ArrayList<>();
+                    for (int n = 4 + random.nextInt(9); n > 0; n--) {
+                        ingredients.add(pick(random, INGREDIENTS));
+                    }
+                    String title = pick(random, ADJECTIVES) + " " + pick(random, INGREDIENTS) + " " + pick(random, DISHES);
+                    writes.add(write(firestore, "r" + i, title, pick(random, CATEGORIES), ingredients, i % 10 == 9));
+                }
+                firestore.commit(writes);
+                return null;
+            }));
+        }
+        for (Future<?> future : done) {
+            future.get();
+        }
+        writers.shutdown();
+        long ms = (System.nanoTime() - started) / 1_000_000;
+        System.out.printf("seed      %d recipes written to the emulator in %d ms%n", recipes, ms);
+        return recipes - recipes / 10;
+    }
+
+    // Same shape as the app's Recipe document, with updatedAt set by the server like the app does
+    private static JsonObject write(FirestoreClient firestore, String id, String title, String category,
+                                    List<String> ingredients, boolean importedFromApi) {
+        JsonObject fields = new JsonObject();
+        fields.add("title", stringValue(title));
+        fields.add("category", stringValue(category));
+        fields.add("userId", stringValue("user" + (id.hashCode() & 1023)));
+        fields.add("instructions", stringValue("Mix, cook and serve."));
+        JsonObject imported = new JsonObject();
+        imported.addProperty("booleanValue", importedFromApi);
+        fields.add("importedFromApi", imported);
+
+        JsonArray values = new JsonArray();
+        for (String ingredient : ingredients) {
+            JsonObject ingredientFields = new JsonObject();
+            ingredientFields.add("name", stringValue(ingredient));
+            ingredientFields.add("amount", stringValue("1"));
+            JsonObject map = new JsonObject();
+            map.add("fields", ingredientFields);
+            JsonObject value = new JsonObject();
+            value.add("mapValue", map);
+            values.add(value);
+        }
+        JsonObject array = new JsonObject();
+        array.add("values", values);
+        JsonObject ingredientsValue = new JsonObject();
+        ingredientsValue.add("arrayValue", array);
+        fields.add("ingredients", ingredientsValue);
+
+        JsonObject document = new JsonObject();
+        document.addProperty("name", firestore.documentName(id));
+        document.add("fields", fields);
+
+        JsonObject transform = new JsonObject();
+        transform.addProperty("fieldPath", "updatedAt");
+        transform.addProperty("setToServerValue", "REQUEST_TIME");
+        JsonArray transforms = new JsonArray();
+        transforms.add(transform);
+
+        JsonObject write = new JsonObject();
+        write.add("update", document);
+        write.add("updateTransforms", transforms);
+        return write;
+    }
+
+    private static JsonObject stringValue(String value) {
+        JsonObject json = new JsonObject();
+        json.addProperty("stringValue", value);
+        return json;
+    }
+
+    // --- Queries ---
+
+    // What people type: a dish, an ingredient, both, or the first letters of a word
+    private static List<String> queries(Random random, int count) {
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    queries.add(pick(random, DISHES).toLowerCase());
+                    break;
+                case 1:
+                    queries.add(pick(random, INGREDIENTS).toLowerCase() + " ");
+                    break;
+                case 2:
+                    queries.add(pick(random, INGREDIENTS) + " " + pick(random, DISHES));
+                    break;
+                default:
+                    String word = pick(random, INGREDIENTS);
+                    queries.add(word.substring(0, Math.min(word.length(), 2 + random.nextInt(3))));
+                    break;
+            }
+        }
+        return queries;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void report(String label, long[] nanos, double perSecond) {
+        Arrays.sort(nanos);
+        System.out.printf("%-9s %d queries  p50 %.3f ms  p95 %.3f ms  p99 %.3f ms  max %.3f ms%s%n",
+                label, nanos.length, nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 95 / 100] / 1e6,
+                nanos[nanos.length * 99 / 100] / 1e6, nanos[nanos.length - 1] / 1e6,
+                perSecond > 0 ? String.format("  %.0f req/s", perSecond) : "");
+    }
+}